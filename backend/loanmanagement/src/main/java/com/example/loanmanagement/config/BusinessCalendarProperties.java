@@ -0,0 +1,35 @@
+package com.example.loanmanagement.config;
+
+import com.example.loanmanagement.util.BusinessCalendar;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/** Due-date rules read from loan.calendar.*: which holiday calendar and adjustment each loan type uses */
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.calendar")
+public class BusinessCalendarProperties {
+
+    private Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+    // used for loan types without their own entry
+    private Rule defaultRule = new Rule();
+
+    // keyed by loan type (upper-case)
+    private Map<String, Rule> types = new HashMap<>();
+
+    @Data
+    public static class Rule {
+        private String calendar = "DEFAULT";
+        private BusinessCalendar.Convention convention = BusinessCalendar.Convention.FOLLOWING;
+        // loans starting on a month's last day stay on the last day of every month
+        private boolean monthEnd = false;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.loanmanagement.config;
+
+import org.springframework.scheduling.Trigger;
+
+import java.time.LocalDateTime;
+
+/**
+ * A batch that runs once per schedule across all instances (see {@link ClusterJobScheduler}).
+ * A sharded job's loan-id range is split into shards that live nodes claim and run in parallel;
+ * {@link #complete} then runs once, after every shard is done. Shards can run more than once
+ * (a node dies mid-shard), so runShard must be idempotent.
+ */
+public interface ClusterJob {
+
+    String name();
+
+    /** When runs are due, or null to only run when triggered by hand */
+    Trigger trigger();
+
+    /** The run a firing belongs to, e.g. the business date; a key runs at most once */
+    String runKey(LocalDateTime firedAt);
+
+    /** False for a job that runs as one unit; it gets a single shard with an empty id range */
+    default boolean sharded() {
+        return true;
+    }
+
+    /** Lowest and highest loan id to shard for this run, or null when there is nothing to do */
+    long[] idRange(String runKey);
+
+    /** Work the ids in (fromId, toId]; returns the number of items processed */
+    long runShard(String runKey, long fromId, long toId);
+
+    /** After all shards are done; once per run */
+    default void complete(String runKey) {
+    }
+}
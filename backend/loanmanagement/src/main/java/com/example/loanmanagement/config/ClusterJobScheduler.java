@@ -0,0 +1,426 @@
+package com.example.loanmanagement.config;
+
+import com.example.loanmanagement.model.ClusterNode;
+import com.example.loanmanagement.model.JobRun;
+import com.example.loanmanagement.model.JobShard;
+import com.example.loanmanagement.repository.ClusterNodeRepository;
+import com.example.loanmanagement.repository.JobRunRepository;
+import com.example.loanmanagement.repository.JobShardRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link ClusterJob}s exactly once per schedule across instances, coordinated through lease
+ * rows in the database rather than session-held locks, so a node that hangs with its connection open
+ * still loses its work once the lease runs out:
+ * <ul>
+ *   <li>every node heartbeats into cluster_node and renews the leases of the shards it runs;</li>
+ *   <li>the node holding the "leader" row of job_lease creates scheduled runs (job_run, unique per
+ *       job and run key), requeues shards whose lease expired, and completes finished runs. Each
+ *       job's last fired time is kept in job_schedule, so firings that happened while no node was
+ *       leader still get their runs on the next heartbeat;</li>
+ *   <li>a run is split into loan-id range shards (live nodes x shards-per-node) that any node
+ *       claims with a conditional update, so a large batch spreads over the cluster.</li>
+ * </ul>
+ * Leases compare app-server clocks, so nodes need synchronized time (NTP).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterJobScheduler {
+
+    private static final String LEADER = "leader";
+
+    private static final String HEARTBEAT = "update cluster_node set heartbeat_at = ? where node_id = ?";
+
+    private static final String ACQUIRE_LEASE =
+            "update job_lease set owner = ?, expires_at = ? where name = ? and (owner = ? or expires_at < ?)";
+
+    private static final String RENEW_SHARDS =
+            "update job_shard set lease_until = ? where owner = ? and status = 'RUNNING'";
+
+    // only shards of jobs deployed on this node (during a rolling deploy, not every node has every job)
+    private static final String PENDING_SHARDS =
+            "select s.id from job_shard s join job_run r on r.id = s.run_id " +
+            "where s.status = 'PENDING' and r.job_name in (%s) order by s.id limit ?";
+
+    private static final String CLAIM_SHARD =
+            "update job_shard set status = 'RUNNING', owner = ?, lease_until = ?, attempts = attempts + 1, " +
+            "started_at = ?, finished_at = null, message = null where id = ? and status = 'PENDING'";
+
+    private static final String FINISH_SHARD =
+            "update job_shard set status = ?, items = ?, message = ?, finished_at = ?, duration_ms = ?, lease_until = null " +
+            "where id = ? and owner = ? and status = 'RUNNING'";
+
+    // shards of nodes that stopped renewing: back to the queue, or failed after max attempts
+    private static final String REQUEUE_EXPIRED =
+            "update job_shard set status = case when attempts >= ? then 'FAILED' else 'PENDING' end, " +
+            "message = 'Lease expired on ' || owner, lease_until = null where status = 'RUNNING' and lease_until < ?";
+
+    private static final String RUN_PROGRESS =
+            "select count(*), " +
+            "  coalesce(sum(case when status = 'DONE' then 1 else 0 end), 0), " +
+            "  coalesce(sum(case when status = 'FAILED' then 1 else 0 end), 0), " +
+            "  coalesce(sum(items), 0) " +
+            "from job_shard where run_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobRunRepository runRepository;
+    private final JobShardRepository shardRepository;
+    private final ClusterNodeRepository nodeRepository;
+    private final TaskScheduler taskScheduler;
+    private final ClusterProperties properties;
+    private final List<ClusterJob> jobList;
+
+    private final Map<String, ClusterJob> jobs = new LinkedHashMap<>();
+    private final Map<String, Trigger> triggers = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private String nodeId;
+    private String pendingShardsSql;
+    private ExecutorService shardPool;
+    private volatile boolean started;
+    private volatile boolean leader;
+
+    @PostConstruct
+    void init() {
+        for (ClusterJob job : jobList) jobs.put(job.name(), job);
+        nodeId = properties.resolvedNodeId();
+        pendingShardsSql = String.format(PENDING_SHARDS, String.join(", ", Collections.nCopies(Math.max(1, jobs.size()), "?")));
+        AtomicInteger n = new AtomicInteger();
+        shardPool = Executors.newFixedThreadPool(properties.getWorkers(), r -> new Thread(r, "cluster-job-" + n.incrementAndGet()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        nodeRepository.save(new ClusterNode(nodeId, now, now));
+        started = true;
+        heartbeat();
+        for (ClusterJob job : jobs.values()) {
+            Trigger trigger = job.trigger();
+            if (trigger != null) {
+                triggers.put(job.name(), trigger);
+                taskScheduler.schedule(() -> fired(job), trigger);
+            }
+        }
+        log.info("Cluster node {} started with jobs {}", nodeId, jobs.keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        started = false;
+        shardPool.shutdownNow();
+        // hand leadership over now instead of after the lease runs out; our shards requeue when their leases expire
+        try {
+            jdbcTemplate.update("update job_lease set expires_at = ? where name = ? and owner = ?",
+                    LocalDateTime.now(), LEADER, nodeId);
+        } catch (Exception e) {
+            log.debug("Leader lease not released: {}", e.getMessage());
+        }
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    public List<String> jobNames() {
+        return new ArrayList<>(jobs.keySet());
+    }
+
+    public List<ClusterNode> liveNodes() {
+        return nodeRepository.findByHeartbeatAtAfterOrderByNodeId(
+                LocalDateTime.now().minus(Duration.ofMillis(properties.getNodeTimeoutMs())));
+    }
+
+    /** Start a run now, whichever node this is; an existing run for the key is returned as is */
+    public JobRun trigger(String jobName, String runKey) {
+        ClusterJob job = jobs.get(jobName);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown job: " + jobName + " (known: " + jobs.keySet() + ")");
+        }
+        return createRun(job, runKey != null ? runKey : job.runKey(LocalDateTime.now()));
+    }
+
+    /** Requeue the failed shards of a failed run (or retry its completion step) */
+    public JobRun resume(Long runId) {
+        return transactionTemplate.execute(s -> {
+            JobRun run = runRepository.findById(runId).orElseThrow(() -> new RuntimeException("Job run not found"));
+            if (run.getStatus() != JobRun.Status.FAILED) {
+                throw new IllegalStateException("Only failed runs can be resumed");
+            }
+            jdbcTemplate.update("update job_shard set status = 'PENDING', attempts = 0, message = null " +
+                    "where run_id = ? and status = 'FAILED'", runId);
+            run.setStatus(JobRun.Status.RUNNING);
+            run.setMessage(null);
+            run.setFinishedAt(null);
+            run.setDurationMs(null);
+            return runRepository.save(run);
+        });
+    }
+
+    public List<JobRun> recentRuns() {
+        return runRepository.findTop50ByOrderByIdDesc();
+    }
+
+    public JobRun getRun(Long runId) {
+        return runRepository.findById(runId).orElseThrow(() -> new RuntimeException("Job run not found"));
+    }
+
+    public List<JobShard> getShards(Long runId) {
+        return shardRepository.findByRunIdOrderByShardNo(runId);
+    }
+
+    @Scheduled(fixedDelayString = "${loan.cluster.heartbeat-ms:5000}")
+    public void heartbeat() {
+        if (!started) return;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime leaseUntil = now.plus(Duration.ofMillis(properties.getLeaseMs()));
+            if (jdbcTemplate.update(HEARTBEAT, now, nodeId) == 0) {
+                nodeRepository.save(new ClusterNode(nodeId, now, now));
+            }
+            jdbcTemplate.update(RENEW_SHARDS, leaseUntil, nodeId);
+
+            boolean wasLeader = leader;
+            leader = acquire(LEADER, now, leaseUntil);
+            if (leader != wasLeader) log.info("Node {} {} scheduling leader", nodeId, leader ? "is now" : "is no longer");
+            if (leader) {
+                jdbcTemplate.update(REQUEUE_EXPIRED, properties.getMaxAttempts(), now);
+                jdbcTemplate.update("delete from cluster_node where heartbeat_at < ?", now.minusDays(1));
+                for (ClusterJob job : jobs.values()) {
+                    if (triggers.containsKey(job.name())) fireDue(job, now);
+                }
+                finishRuns();
+            }
+        } catch (Exception e) {
+            log.warn("Cluster heartbeat failed on {}", nodeId, e);
+        }
+    }
+
+    /** Claim pending shards up to the free worker slots and run them */
+    @Scheduled(fixedDelayString = "${loan.cluster.poll-ms:2000}")
+    public void poll() {
+        if (!started) return;
+        int free = properties.getWorkers() - inFlight.get();
+        if (free <= 0 || jobs.isEmpty()) return;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime leaseUntil = now.plus(Duration.ofMillis(properties.getLeaseMs()));
+            List<Object> args = new ArrayList<>(jobs.keySet());
+            args.add(free);
+            for (Long shardId : jdbcTemplate.queryForList(pendingShardsSql, Long.class, args.toArray())) {
+                if (jdbcTemplate.update(CLAIM_SHARD, nodeId, leaseUntil, now, shardId) == 1) {
+                    inFlight.incrementAndGet();
+                    shardPool.execute(() -> runShard(shardId));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Shard polling failed on {}", nodeId, e);
+        }
+    }
+
+    // a trigger fired on this node; only the leader turns it into a run, any other firing is caught up
+    // by whichever node holds the lease at its next heartbeat
+    private void fired(ClusterJob job) {
+        if (!leader) return;
+        try {
+            fireDue(job, LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Scheduled run of {} not created", job.name(), e);
+        }
+    }
+
+    // leader: a run for every firing since the job's last recorded one, oldest first (at most max-missed-runs)
+    private void fireDue(ClusterJob job, LocalDateTime now) {
+        List<LocalDateTime> last = jdbcTemplate.queryForList(
+                "select last_fired_at from job_schedule where job_name = ?", LocalDateTime.class, job.name());
+        if (last.isEmpty()) {
+            // a new job's schedule starts now; there is nothing before it to catch up
+            try {
+                jdbcTemplate.update("insert into job_schedule (job_name, last_fired_at) values (?, ?)", job.name(), now);
+            } catch (DataIntegrityViolationException e) {
+                // another leader got there first
+            }
+            return;
+        }
+        Deque<LocalDateTime> due = new ArrayDeque<>();
+        int skipped = 0;
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime at = last.get(0);
+        while (true) {
+            Instant prev = at.atZone(zone).toInstant();
+            Instant next = triggers.get(job.name()).nextExecution(new SimpleTriggerContext(prev, prev, prev));
+            if (next == null) break;
+            at = LocalDateTime.ofInstant(next, zone);
+            if (at.isAfter(now)) break;
+            due.addLast(at);
+            if (due.size() > properties.getMaxMissedRuns()) {
+                due.removeFirst();
+                skipped++;
+            }
+        }
+        if (due.isEmpty()) return;
+        if (skipped > 0) log.warn("Job {}: {} missed firings too old to run", job.name(), skipped);
+        for (LocalDateTime firedAt : due) {
+            createRun(job, job.runKey(firedAt));
+        }
+        jdbcTemplate.update("update job_schedule set last_fired_at = ? where job_name = ? and last_fired_at = ?",
+                due.getLast(), job.name(), last.get(0));
+    }
+
+    private JobRun createRun(ClusterJob job, String runKey) {
+        JobRun existing = runRepository.findByJobNameAndRunKey(job.name(), runKey).orElse(null);
+        if (existing != null) return existing;
+        int nodes = Math.max(1, liveNodes().size());
+        try {
+            JobRun run = transactionTemplate.execute(s -> {
+                JobRun r = runRepository.save(new JobRun(null, job.name(), runKey, JobRun.Status.RUNNING,
+                        0, 0, 0, nodeId, null, LocalDateTime.now(), null, null));
+                List<JobShard> shards = plan(job, r, nodes);
+                shardRepository.saveAll(shards);
+                r.setShards(shards.size());
+                return runRepository.save(r);
+            });
+            log.info("Job {} run {} ({}) created with {} shards for {} nodes",
+                    job.name(), run.getId(), runKey, run.getShards(), nodes);
+            return run;
+        } catch (DataIntegrityViolationException e) {
+            // another node created it first
+            return runRepository.findByJobNameAndRunKey(job.name(), runKey).orElseThrow(() -> e);
+        }
+    }
+
+    // equal loan-id ranges (from, to]; unsharded jobs get one shard
+    private List<JobShard> plan(ClusterJob job, JobRun run, int nodes) {
+        List<JobShard> shards = new ArrayList<>();
+        if (!job.sharded()) {
+            shards.add(shard(run.getId(), 0, 0, 0));
+            return shards;
+        }
+        long[] range = job.idRange(run.getRunKey());
+        if (range == null || range[1] == 0) return shards;
+        long lo = range[0] - 1, span = range[1] - lo;
+        int p = (int) Math.min(Math.max(1, (long) nodes * properties.getShardsPerNode()), span);
+        for (int i = 0; i < p; i++) {
+            shards.add(shard(run.getId(), i, lo + span * i / p, lo + span * (i + 1) / p));
+        }
+        return shards;
+    }
+
+    private static JobShard shard(Long runId, int no, long from, long to) {
+        return new JobShard(null, runId, no, from, to, JobShard.Status.PENDING, null, null, 0, 0,
+                null, null, null, null);
+    }
+
+    private void runShard(Long shardId) {
+        long start = System.nanoTime();
+        JobShard shard = null;
+        try {
+            shard = shardRepository.findById(shardId).orElseThrow();
+            JobRun run = runRepository.findById(shard.getRunId()).orElseThrow();
+            ClusterJob job = jobs.get(run.getJobName());
+            if (job == null) {
+                throw new IllegalStateException("Job " + run.getJobName() + " is not deployed on " + nodeId);
+            }
+            long items = job.runShard(run.getRunKey(), shard.getFromId(), shard.getToId());
+            finishShard(shardId, JobShard.Status.DONE, items, null, start);
+        } catch (Exception e) {
+            log.warn("Shard {} failed on {}", shardId, nodeId, e);
+            boolean retry = shard != null && shard.getAttempts() < properties.getMaxAttempts();
+            finishShard(shardId, retry ? JobShard.Status.PENDING : JobShard.Status.FAILED, 0,
+                    String.valueOf(e.getMessage()), start);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void finishShard(Long shardId, JobShard.Status status, long items, String message, long startNanos) {
+        try {
+            jdbcTemplate.update(FINISH_SHARD, status.name(), items, message, LocalDateTime.now(),
+                    (System.nanoTime() - startNanos) / 1_000_000, shardId, nodeId);
+        } catch (Exception e) {
+            log.warn("Shard {} result not recorded; its lease will expire", shardId, e);
+        }
+    }
+
+    // leader: record progress of running runs and close those with no shard left to run
+    private void finishRuns() {
+        for (JobRun run : runRepository.findByStatus(JobRun.Status.RUNNING)) {
+            if (!jobs.containsKey(run.getJobName())) continue;     // left to a node that has the job
+            long[] p = jdbcTemplate.queryForObject(RUN_PROGRESS,
+                    (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4)}, run.getId());
+            run.setShardsDone((int) p[1]);
+            run.setItems(p[3]);
+            if (p[1] + p[2] == p[0]) {
+                if (p[2] > 0) {
+                    run.setStatus(JobRun.Status.FAILED);
+                    run.setMessage(p[2] + " of " + p[0] + " shards failed");
+                } else {
+                    complete(run);
+                }
+                LocalDateTime now = LocalDateTime.now();
+                run.setFinishedAt(now);
+                run.setDurationMs(Duration.between(run.getStartedAt(), now).toMillis());
+                log.info("Job {} run {} ({}) {}: {} items, {} shards in {} ms", run.getJobName(), run.getId(),
+                        run.getRunKey(), run.getStatus(), run.getItems(), run.getShards(), run.getDurationMs());
+            }
+            runRepository.save(run);
+        }
+    }
+
+    private void complete(JobRun run) {
+        ClusterJob job = jobs.get(run.getJobName());
+        try {
+            if (job == null) throw new IllegalStateException("Job " + run.getJobName() + " is not deployed on " + nodeId);
+            job.complete(run.getRunKey());
+            run.setStatus(JobRun.Status.COMPLETED);
+        } catch (Exception e) {
+            log.warn("Job {} run {} completion failed", run.getJobName(), run.getId(), e);
+            run.setStatus(JobRun.Status.FAILED);
+            run.setMessage(String.valueOf(e.getMessage()));
+        }
+    }
+
+    // take or renew a named lease; a missing row is created by the first node to ask
+    private boolean acquire(String name, LocalDateTime now, LocalDateTime until) {
+        if (jdbcTemplate.update(ACQUIRE_LEASE, nodeId, until, name, nodeId, now) == 1) return true;
+        try {
+            return jdbcTemplate.update("insert into job_lease (name, owner, expires_at) values (?, ?, ?)",
+                    name, nodeId, until) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.loanmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.UUID;
+
+/** Cluster job scheduling, read from loan.cluster.* */
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.cluster")
+public class ClusterProperties {
+
+    // unique per instance; blank = host name and pid
+    private String nodeId = "";
+
+    // node heartbeat, leader lease renewal and shard lease renewal
+    private long heartbeatMs = 5000;
+
+    // a node whose heartbeat is older than this no longer counts when sizing new runs
+    private long nodeTimeoutMs = 20000;
+
+    // leader and shard leases; a node that stops renewing loses them after this
+    private long leaseMs = 30000;
+
+    // how often a node looks for pending shards
+    private long pollMs = 2000;
+
+    // shards one node runs at a time
+    private int workers = 2;
+
+    // new runs get live nodes x this many shards
+    private int shardsPerNode = 4;
+
+    // a shard that failed or lost its lease this many times fails the run
+    private int maxAttempts = 3;
+
+    // scheduled firings missed while no node was leader that still get a run, newest first
+    private int maxMissedRuns = 31;
+
+    /** This instance's id in cluster_node and in the owner column of leases */
+    public String resolvedNodeId() {
+        if (!nodeId.isBlank()) return nodeId;
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = UUID.randomUUID().toString().substring(0, 8);
+        }
+        String id = host + "-" + ProcessHandle.current().pid();
+        return id.length() > 64 ? id.substring(id.length() - 64) : id;
+    }
+}
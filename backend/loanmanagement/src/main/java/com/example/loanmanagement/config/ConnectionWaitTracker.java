@@ -0,0 +1,33 @@
+package com.example.loanmanagement.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Moving average of how long getConnection() waits on the pool, fed by {@link CountingDataSource}.
+ * The average also decays with time, so once requests are being shed and few connections are taken
+ * it falls back on its own instead of sticking at the last high value. One per context, created in
+ * {@link SqlInstrumentationConfig}; stays at zero when instrumentation is off.
+ */
+public class ConnectionWaitTracker {
+
+    private static final double WEIGHT = 0.2;
+    private static final double HALF_LIFE_NANOS = 1_000_000_000d;
+
+    private record Average(double nanos, long at) {
+    }
+
+    private final AtomicReference<Average> average = new AtomicReference<>(new Average(0, System.nanoTime()));
+
+    void record(long nanos) {
+        long now = System.nanoTime();
+        average.updateAndGet(a -> new Average(decayed(a, now) * (1 - WEIGHT) + nanos * WEIGHT, now));
+    }
+
+    public double averageMillis() {
+        return decayed(average.get(), System.nanoTime()) / 1_000_000;
+    }
+
+    private static double decayed(Average a, long now) {
+        return a.nanos() * Math.pow(0.5, (now - a.at()) / HALF_LIFE_NANOS);
+    }
+}
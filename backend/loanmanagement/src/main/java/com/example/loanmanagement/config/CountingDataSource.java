@@ -0,0 +1,135 @@
+package com.example.loanmanagement.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Wraps the pool so every statement executed on a request thread is counted and timed
+ * ({@link SqlStatementCounter}), rows read or updated are tallied, and statements slower than
+ * the threshold are logged. Bound parameters can hold credentials and personal data, so they are
+ * only logged at DEBUG. Time spent waiting for a connection goes to
+ * {@link ConnectionWaitTracker}. unwrap() still reaches the pool.
+ */
+@Slf4j
+public class CountingDataSource extends DelegatingDataSource {
+
+    private final long slowQueryNanos;
+    private final ConnectionWaitTracker waitTracker;
+
+    public CountingDataSource(DataSource target, long slowQueryMs, ConnectionWaitTracker waitTracker) {
+        super(target);
+        this.slowQueryNanos = slowQueryMs * 1_000_000;
+        this.waitTracker = waitTracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        waitTracker.record(System.nanoTime() - start);
+        return wrap(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        waitTracker.record(System.nanoTime() - start);
+        return wrap(connection);
+    }
+
+    private Connection wrap(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return switch (method.getName()) {
+                        case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                        case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                        case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0]);
+                        default -> result;
+                    };
+                });
+    }
+
+    private Object statement(Class<? extends Statement> type, Statement target, String preparedSql) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new StatementHandler(target, preparedSql));
+    }
+
+    private static ResultSet countingResultSet(ResultSet target) {
+        if (target == null) return null;
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                        SqlStatementCounter.recordRows(1);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private Map<Integer, Object> params; // only kept for prepared statements
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (preparedSql != null && name.startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer index) {
+                    if (params == null) params = new TreeMap<>();
+                    params.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters") && params != null) {
+                    params.clear();
+                }
+                Object result = CountingDataSource.invoke(target, method, args);
+                return name.equals("getResultSet") ? countingResultSet((ResultSet) result) : result;
+            }
+
+            long start = System.nanoTime();
+            Object result = CountingDataSource.invoke(target, method, args);
+            long took = System.nanoTime() - start;
+
+            SqlStatementCounter.recordStatement(took);
+            if (result instanceof Integer n) SqlStatementCounter.recordRows(n);
+            else if (result instanceof Long n) SqlStatementCounter.recordRows(n);
+            else if (result instanceof int[] counts) for (int n : counts) SqlStatementCounter.recordRows(n);
+
+            if (took >= slowQueryNanos) {
+                String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 ? String.valueOf(args[0]) : "?";
+                log.warn("Slow SQL ({} ms): {} ({} params)", took / 1_000_000, sql, params == null ? 0 : params.size());
+                if (log.isDebugEnabled()) log.debug("Slow SQL params: {}", params == null ? Map.of() : params);
+            }
+            return result instanceof ResultSet rs ? countingResultSet(rs) : result;
+        }
+    }
+}
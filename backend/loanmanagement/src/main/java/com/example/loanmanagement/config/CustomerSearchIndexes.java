@@ -0,0 +1,45 @@
+package com.example.loanmanagement.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indexes behind the admin customer search (UserRepository.searchCustomers) on Postgres:
+ * pg_trgm GIN indexes so like '%term%' on name/email doesn't scan the table, a (name, id)
+ * index for keyset paging, and loan(user_id) for the per-customer aggregates.
+ * Skipped when the datasource is not PostgreSQL, since the DDL is Postgres-only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerSearchIndexes implements ApplicationRunner {
+
+    private static final String[] DDL = {
+            "create extension if not exists pg_trgm",
+            "create index if not exists users_name_trgm_idx on users using gin (lower(name) gin_trgm_ops)",
+            "create index if not exists users_email_trgm_idx on users using gin (lower(email) gin_trgm_ops)",
+            "create index if not exists users_role_name_id_idx on users (role, name, id)",
+            "create index if not exists loan_user_id_idx on loan (user_id)",
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) c ->
+                c.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres")));
+        if (!postgres) return;
+        for (String ddl : DDL) {
+            try {
+                jdbcTemplate.execute(ddl);
+            } catch (Exception e) {
+                log.warn("Customer search index not created ({}): {}", ddl, e.getMessage());
+            }
+        }
+    }
+}
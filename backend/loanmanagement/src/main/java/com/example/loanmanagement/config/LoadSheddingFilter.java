@@ -0,0 +1,54 @@
+package com.example.loanmanagement.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Turns /api requests away with 503 while the connection pool is backed up, ahead of the JWT filter
+ * so a shed request costs no user lookup. The share shed follows {@link RateLimiter#shedProbability()}.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Rule rule = rateLimiter.match(request);
+        if (rule != null && !rateLimiter.isShedExempt(request)) {
+            double p = rateLimiter.shedProbability();
+            if (p > 0 && ThreadLocalRandom.current().nextDouble() < p) {
+                rateLimiter.recordShed(rule);
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server busy, please retry shortly");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    // written directly rather than via sendError, so the error page dispatch doesn't come back through the chain
+    static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfterSeconds)));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.loanmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/** Underwriting limits read from loan.scoring.* and compiled into a LoanScoringEngine at startup */
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.scoring")
+public class LoanScoringProperties {
+
+    // max share of monthly income an EMI may take, e.g. 0.5 = 50%
+    private double maxDti = 0.5;
+
+    // pending loans scored per transaction
+    private int batchSize = 1000;
+
+    // keyed by loan type (upper-case)
+    private Map<String, TypeLimits> limits = new HashMap<>();
+
+    @Data
+    public static class TypeLimits {
+        private double maxAmount;
+        private int maxTenureMonths;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.loanmanagement.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.regex.Pattern;
+
+/**
+ * One-shot copy of the old double money columns into their *_minor replacements.
+ * ddl-auto=update adds the new columns but leaves them null; this fills them from the legacy
+ * column when it still exists and records itself in schema_migration, so later starts skip it.
+ * With loan.money.drop-legacy-columns=true a later start drops the legacy columns, once none of
+ * their values is missing from *_minor; until then they are left alone for a rollback.
+ */
+@Slf4j
+@Component
+@Order(1)   // before RepaymentPartitioning copies repayment rows around
+@ConditionalOnProperty(name = "loan.money.backfill-enabled", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MoneyColumnBackfill implements ApplicationRunner {
+
+    static final String BACKFILL = "money-minor-units";
+    static final String DROP = "money-legacy-columns-dropped";
+
+    private static final String[][] COLUMNS = {
+            {"loan", "amount"},
+            {"loan", "annual_income"},
+            {"loan", "emi"},
+            {"loan", "outstanding_principal"},
+            {"loan", "next_due_amount"},
+            {"repayment", "principal"},
+            {"repayment", "interest"},
+    };
+
+    // the names go into SQL text, so only plain lower-case identifiers
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z][a-z0-9_]{0,62}");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${loan.money.drop-legacy-columns:false}")
+    private boolean dropLegacyColumns;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            jdbcTemplate.execute("create table if not exists schema_migration " +
+                    "(name varchar(100) primary key, applied_at timestamp not null)");
+            if (!applied(BACKFILL)) transactionTemplate.executeWithoutResult(s -> backfill());
+            if (dropLegacyColumns && !applied(DROP)) transactionTemplate.executeWithoutResult(s -> dropLegacy());
+        } catch (Exception e) {
+            // nothing is marked done, so the next start tries again
+            log.warn("Money backfill skipped: {}", e.getMessage());
+        }
+    }
+
+    private void backfill() {
+        for (String[] c : COLUMNS) {
+            String table = identifier(c[0]), legacy = identifier(c[1]);
+            if (!exists(table, legacy)) continue;
+            int n = jdbcTemplate.update("update " + table + " set " + legacy + "_minor = round(" + legacy
+                    + " * 100) where " + legacy + "_minor is null and " + legacy + " is not null");
+            if (n > 0) log.info("Backfilled {} rows of {}.{}_minor", n, table, legacy);
+        }
+        mark(BACKFILL);
+    }
+
+    private void dropLegacy() {
+        for (String[] c : COLUMNS) {
+            String table = identifier(c[0]), legacy = identifier(c[1]);
+            if (!exists(table, legacy)) continue;
+            Integer missing = jdbcTemplate.queryForObject("select count(*) from " + table + " where "
+                    + legacy + " is not null and " + legacy + "_minor is null", Integer.class);
+            if (missing != null && missing > 0) {
+                throw new IllegalStateException(missing + " rows of " + table + "." + legacy
+                        + " have no " + legacy + "_minor yet");
+            }
+        }
+        for (String[] c : COLUMNS) {
+            String table = identifier(c[0]), legacy = identifier(c[1]);
+            if (!exists(table, legacy)) continue;
+            jdbcTemplate.execute("alter table " + table + " drop column " + legacy);
+            log.info("Dropped legacy money column {}.{}", table, legacy);
+        }
+        mark(DROP);
+    }
+
+    private boolean applied(String name) {
+        Integer n = jdbcTemplate.queryForObject("select count(*) from schema_migration where name = ?",
+                Integer.class, name);
+        return n != null && n > 0;
+    }
+
+    private void mark(String name) {
+        jdbcTemplate.update("insert into schema_migration (name, applied_at) values (?, ?)",
+                name, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private boolean exists(String table, String column) {
+        Integer n = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns where lower(table_name) = ? and lower(column_name) = ?",
+                Integer.class, table, column);
+        return n != null && n > 0;
+    }
+
+    private static String identifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) throw new IllegalArgumentException("Not a plain identifier: " + name);
+        return name;
+    }
+}
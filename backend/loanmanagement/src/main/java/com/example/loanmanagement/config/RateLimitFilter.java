@@ -0,0 +1,68 @@
+package com.example.loanmanagement.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Per-client token buckets (429) and per-route concurrency limits (503) for /api, right after the
+ * JWT filter so authenticated clients are keyed by user rather than by address.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Rule rule = rateLimiter.match(request);
+        if (rule == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(rule, client(request, rule));
+        if (waitNanos > 0) {
+            LoadSheddingFilter.reject(response, HttpStatus.TOO_MANY_REQUESTS, (waitNanos + 999_999_999) / 1_000_000_000,
+                    "Too many requests, please slow down");
+            return;
+        }
+        if (!rateLimiter.enter(rule)) {
+            LoadSheddingFilter.reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server busy, please retry shortly");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            rateLimiter.exit(rule);
+        }
+    }
+
+    // remote address as the container sees it; X-Forwarded-For from a trusted proxy via server.forward-headers-strategy
+    private static String client(HttpServletRequest request, RateLimiter.Rule rule) {
+        if (rule.key == RateLimitProperties.Key.USER) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+                return "user:" + auth.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
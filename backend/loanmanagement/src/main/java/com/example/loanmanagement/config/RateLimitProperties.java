@@ -0,0 +1,62 @@
+package com.example.loanmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Per-client rate limits, per-route concurrency limits and load shedding for /api/**, read from loan.rate-limit.* */
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // any /api request not matched by a named route
+    private Route defaultRoute = new Route();
+
+    // checked in order, first match wins
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    // hard cap on client buckets in memory: idle (full) buckets are dropped first, and while every
+    // bucket is still active new clients get 429 instead of a bucket
+    private int maxClients = 100_000;
+
+    // average wait for a pooled connection above which requests start being shed; at twice this all are
+    private long shedPoolWaitMs = 200;
+
+    // threads queued on the pool above which requests start being shed; 0 = the pool's maximum size
+    private int shedPoolWaiters = 0;
+
+    // never shed, so the limits can still be inspected under load
+    private List<String> shedExempt = List.of("/api/admin/rate-limits");
+
+    @Data
+    public static class Route {
+        // blank = any method
+        private String method = "";
+
+        // Ant-style, e.g. /api/admin/loans/**
+        private String path = "/api/**";
+
+        // burst a client may send at once
+        private int capacity = 200;
+
+        // sustained requests per second per client
+        private double refillPerSecond = 100;
+
+        // requests in flight on this route across all clients; 0 = unlimited
+        private int maxConcurrent = 0;
+
+        private Key key = Key.USER;
+    }
+
+    public enum Key {
+        USER,   // authenticated user, or the client IP for anonymous requests
+        IP
+    }
+}
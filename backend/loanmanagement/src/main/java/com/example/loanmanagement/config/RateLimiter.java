@@ -0,0 +1,221 @@
+package com.example.loanmanagement.config;
+
+import com.example.loanmanagement.dto.RateLimitStatus;
+import com.example.loanmanagement.dto.RouteTrafficStats;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * State behind {@link LoadSheddingFilter} and {@link RateLimitFilter}: one token bucket per route and
+ * client, an in-flight counter per route, the pool pressure reading and the rejection counters.
+ * Nothing here takes a lock; each bucket is a single AtomicLong updated by compare-and-set.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    private static final String API = "/api/**";
+    private static final long SWEEP_SPACING_NANOS = 1_000_000_000L;
+
+    private final RateLimitProperties properties;
+    private final DataSource dataSource;
+    private final ConnectionWaitTracker waitTracker;
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final List<Rule> rules = new ArrayList<>();
+    private Rule defaultRule;
+
+    // route|client -> theoretical arrival time (nanoTime) of the next request, see tryAcquire
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    private HikariDataSource hikari;
+
+    /** A configured route with its limits precomputed and its counters */
+    static final class Rule {
+        final String name;
+        final String method;
+        final String path;
+        final long intervalNanos;       // one token's worth of time
+        final long toleranceNanos;      // how far ahead of now a client may run, i.e. the burst
+        final int maxConcurrent;
+        final RateLimitProperties.Key key;
+
+        final AtomicInteger inFlight = new AtomicInteger();
+        final LongAdder allowed = new LongAdder();
+        final LongAdder rateLimited = new LongAdder();
+        final LongAdder overConcurrency = new LongAdder();
+        final LongAdder shed = new LongAdder();
+
+        Rule(String name, RateLimitProperties.Route route) {
+            if (route.getCapacity() < 1 || route.getRefillPerSecond() <= 0) {
+                throw new IllegalArgumentException("Rate limit route " + name + " needs capacity >= 1 and refill-per-second > 0");
+            }
+            this.name = name;
+            this.method = route.getMethod() == null ? "" : route.getMethod().trim().toUpperCase();
+            this.path = route.getPath();
+            this.intervalNanos = (long) (1_000_000_000d / route.getRefillPerSecond());
+            this.toleranceNanos = intervalNanos * (route.getCapacity() - 1);
+            this.maxConcurrent = route.getMaxConcurrent();
+            this.key = route.getKey();
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        properties.getRoutes().forEach((name, route) -> rules.add(new Rule(name, route)));
+        defaultRule = new Rule("default", properties.getDefaultRoute());
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            log.warn("Could not reach the connection pool; shedding on connection wait time only", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /** The route a request counts against, or null outside /api */
+    Rule match(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!matcher.match(API, path)) return null;
+        for (Rule r : rules) {
+            if ((r.method.isEmpty() || r.method.equals(request.getMethod())) && matcher.match(r.path, path)) return r;
+        }
+        return defaultRule;
+    }
+
+    boolean isShedExempt(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (String p : properties.getShedExempt()) {
+            if (matcher.match(p, path)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Token bucket in its GCRA form: instead of a token count and a refill timestamp, keep the time at
+     * which the bucket would be full again. A request is allowed if that time is no more than the
+     * burst tolerance ahead of now, and pushes it one interval further.
+     *
+     * @return 0 if allowed, otherwise nanoseconds until the next request would be
+     */
+    long tryAcquire(Rule rule, String client) {
+        long now = System.nanoTime();
+        String key = rule.name + '|' + client;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxClients()) {
+                // at most one full sweep a second, however many new clients knock
+                long last = lastSweep.get();
+                if (now - last > SWEEP_SPACING_NANOS && lastSweep.compareAndSet(last, now)) sweep();
+                // still full of active clients: refuse newcomers rather than grow without bound
+                if (buckets.size() >= properties.getMaxClients()) {
+                    rule.rateLimited.increment();
+                    return rule.intervalNanos;
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long tat = bucket.get();
+            long start = tat - now < 0 ? now : tat;
+            long ahead = start - now;
+            if (ahead > rule.toleranceNanos) {
+                rule.rateLimited.increment();
+                return ahead - rule.toleranceNanos;
+            }
+            if (bucket.compareAndSet(tat, start + rule.intervalNanos)) return 0;
+        }
+    }
+
+    boolean enter(Rule rule) {
+        if (rule.maxConcurrent <= 0) {
+            rule.inFlight.incrementAndGet();
+            return true;
+        }
+        while (true) {
+            int n = rule.inFlight.get();
+            if (n >= rule.maxConcurrent) {
+                rule.overConcurrency.increment();
+                return false;
+            }
+            if (rule.inFlight.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    void exit(Rule rule) {
+        rule.inFlight.decrementAndGet();
+        rule.allowed.increment();
+    }
+
+    /**
+     * Share of requests to turn away right now, 0..1. Rises linearly once the average connection wait
+     * or the number of threads queued on the pool passes its threshold, reaching 1 at twice it.
+     */
+    public double shedProbability() {
+        double threshold = properties.getShedPoolWaitMs();
+        double p = threshold > 0 ? (waitTracker.averageMillis() - threshold) / threshold : 0;
+        int waiters = poolWaiters();
+        int maxWaiters = properties.getShedPoolWaiters() > 0 ? properties.getShedPoolWaiters()
+                : hikari != null ? hikari.getMaximumPoolSize() : 0;
+        if (maxWaiters > 0 && waiters > maxWaiters) {
+            p = Math.max(p, (double) (waiters - maxWaiters) / maxWaiters);
+        }
+        return Math.max(0, Math.min(1, p));
+    }
+
+    void recordShed(Rule rule) {
+        rule.shed.increment();
+    }
+
+    private int poolWaiters() {
+        HikariPoolMXBean pool = hikari != null ? hikari.getHikariPoolMXBean() : null;
+        return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+    }
+
+    // a bucket whose arrival time has passed is full, the same as no bucket at all
+    @Scheduled(fixedDelay = 60_000)
+    void sweep() {
+        if (!sweeping.compareAndSet(false, true)) return;
+        try {
+            long now = System.nanoTime();
+            buckets.values().removeIf(b -> b.get() - now < 0);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public RateLimitStatus status() {
+        List<RouteTrafficStats> routes = new ArrayList<>();
+        for (Rule r : rules) routes.add(stats(r));
+        routes.add(stats(defaultRule));
+        return new RateLimitStatus(properties.isEnabled(), waitTracker.averageMillis(), poolWaiters(),
+                shedProbability(), buckets.size(), routes);
+    }
+
+    private static RouteTrafficStats stats(Rule r) {
+        return new RouteTrafficStats(r.name, (r.method.isEmpty() ? "" : r.method + " ") + r.path, r.inFlight.get(),
+                r.allowed.sum(), r.rateLimited.sum(), r.overConcurrency.sum(), r.shed.sum());
+    }
+}
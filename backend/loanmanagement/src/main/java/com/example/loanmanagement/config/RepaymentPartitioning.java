@@ -0,0 +1,124 @@
+package com.example.loanmanagement.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps repayment as a Postgres table range-partitioned by due_date year (repayment_y2025, ...),
+ * plus repayment_archive for schedules of closed loans. Hibernate creates repayment as a plain
+ * table; the first start on Postgres converts it in one transaction, and every start makes sure
+ * partitions exist from the oldest due date to years-ahead past today. Rows that landed in
+ * repayment_default for a year without a partition are moved into it when it is created.
+ * Rows are copied with every column the source table has (row_type, and the legacy double
+ * columns until they are dropped), and this runs after {@link MoneyColumnBackfill}.
+ */
+@Slf4j
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "loan.repayments.partitioning-enabled", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RepaymentPartitioning implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // longest schedule is 360 months; later years fall into repayment_default until the next start
+    @Value("${loan.repayments.partition-years-ahead:31}")
+    private int yearsAhead;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            if (!isPostgres()) {
+                log.info("Repayment partitioning needs PostgreSQL, leaving repayment as a plain table");
+                return;
+            }
+            transactionTemplate.executeWithoutResult(s -> {
+                if (!"p".equals(relkind("repayment"))) convert();
+                jdbcTemplate.execute("create table if not exists repayment_archive (like repayment including defaults)");
+                // columns added to repayment after the archive was created
+                jdbcTemplate.execute("alter table repayment_archive add column if not exists row_type varchar(16)");
+                jdbcTemplate.execute("create index if not exists repayment_archive_loan_id_idx on repayment_archive (loan_id)");
+            });
+            ensurePartitions();
+        } catch (Exception e) {
+            log.warn("Repayment partitioning skipped: {}", e.getMessage());
+        }
+    }
+
+    /** Partitions from the oldest due date (or this year) through yearsAhead; safe to call repeatedly */
+    public void ensurePartitions() {
+        int thisYear = LocalDate.now().getYear();
+        Date oldest = jdbcTemplate.queryForObject("select min(due_date) from repayment", Date.class);
+        int from = oldest == null ? thisYear : Math.min(thisYear, oldest.toLocalDate().getYear());
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                "where i.inhparent = 'repayment'::regclass", String.class));
+        for (int year = from; year <= thisYear + yearsAhead; year++) {
+            int y = year;
+            if (!existing.contains("repayment_y" + y)) transactionTemplate.executeWithoutResult(s -> createYear(y));
+        }
+    }
+
+    private void convert() {
+        log.info("Converting repayment to a table partitioned by due_date year");
+        jdbcTemplate.execute("alter table repayment rename to repayment_legacy");
+        jdbcTemplate.execute("create sequence if not exists repayment_id_seq");
+        jdbcTemplate.execute("select setval('repayment_id_seq', coalesce((select max(id) from repayment_legacy), 0) + 1, false)");
+        // LIKE copies columns and checks but not the identity, which partitioned tables can't carry before PG 17
+        jdbcTemplate.execute("create table repayment (like repayment_legacy including defaults including constraints) " +
+                "partition by range (due_date)");
+        jdbcTemplate.execute("alter table repayment alter column id set default nextval('repayment_id_seq')");
+        jdbcTemplate.execute("alter table repayment add primary key (id, due_date)");
+        jdbcTemplate.execute("alter table repayment add foreign key (loan_id) references loan (id)");
+        jdbcTemplate.execute("create index repayment_loan_id_idx on repayment (loan_id)");
+        jdbcTemplate.execute("create table repayment_default partition of repayment default");
+        String columns = columns("repayment_legacy");
+        jdbcTemplate.execute("insert into repayment (" + columns + ") select " + columns + " from repayment_legacy");
+        jdbcTemplate.execute("drop table repayment_legacy");
+    }
+
+    private void createYear(int year) {
+        String name = "repayment_y" + year;
+        Date lo = Date.valueOf(LocalDate.of(year, 1, 1));
+        Date hi = Date.valueOf(LocalDate.of(year + 1, 1, 1));
+        // attaching over rows still sitting in the default partition would fail, so move them first
+        jdbcTemplate.execute("create table " + name + " (like repayment including defaults including constraints)");
+        String columns = columns("repayment_default");
+        jdbcTemplate.update("with moved as (delete from repayment_default where due_date >= ? and due_date < ? " +
+                "returning " + columns + ") insert into " + name + " (" + columns + ") select " + columns + " from moved", lo, hi);
+        jdbcTemplate.execute("alter table repayment attach partition " + name +
+                " for values from ('" + lo + "') to ('" + hi + "')");
+    }
+
+    // every column of the table, quoted, in table order
+    private String columns(String table) {
+        return String.join(", ", jdbcTemplate.queryForList(
+                "select '\"' || column_name || '\"' from information_schema.columns " +
+                "where table_schema = current_schema() and table_name = ? order by ordinal_position", String.class, table));
+    }
+
+    private String relkind(String table) {
+        return jdbcTemplate.query("select relkind from pg_class where relname = ? and relnamespace = current_schema()::regnamespace",
+                rs -> rs.next() ? rs.getString(1) : null, table);
+    }
+
+    private boolean isPostgres() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) c ->
+                c.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres")));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.loanmanagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Spring's TaskScheduler drives ClusterJobScheduler (heartbeat, shard polling, job triggers); sized by spring.task.scheduling.*
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+public class SchedulingConfig {
+}
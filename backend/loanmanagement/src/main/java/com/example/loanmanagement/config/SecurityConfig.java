@@ -1,6 +1,7 @@
 package com.example.loanmanagement.config;
 
 import com.example.loanmanagement.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,6 +14,9 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -24,6 +28,8 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final LoadSheddingFilter loadSheddingFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -35,6 +41,11 @@ public class SecurityConfig {
                         .authenticationEntryPoint((req, res, e) -> res.sendError(401)) // nice 401 for frontend
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // the admin SSE stream completes on an async dispatch; the request was already authorized
+                        .requestMatchers(new AndRequestMatcher(new DispatcherTypeRequestMatcher(DispatcherType.ASYNC),
+                                PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.GET, "/api/admin/events")))
+                        .permitAll()
+
                         // Swagger / OpenAPI
                         .requestMatchers(
                                 "/v3/api-docs/**",
@@ -47,12 +58,14 @@ public class SecurityConfig {
 
 // 🔒 Authenticated "my" loans FIRST (specific)
                         .requestMatchers(HttpMethod.GET, "/api/loans/my").hasAnyRole("CUSTOMER","ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/loans/applications/**").hasAnyRole("CUSTOMER","ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/loans/batch").hasAnyRole("CUSTOMER","ADMIN")
 
 // Public GETs for other loan reads (if you want them public)
                         .requestMatchers(HttpMethod.GET, "/api/loans/**").permitAll()
 
 // Customer features
-                        .requestMatchers(HttpMethod.POST, "/api/loans/apply").hasRole("CUSTOMER")
+                        .requestMatchers(HttpMethod.POST, "/api/loans/apply", "/api/loans/apply/async").hasRole("CUSTOMER")
                         .requestMatchers("/api/loans/**").hasAnyRole("CUSTOMER","ADMIN")
 
 // Admin
@@ -60,7 +73,10 @@ public class SecurityConfig {
 
                         .anyRequest().authenticated())
 
-                        .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                        .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                        // shed before the JWT user lookup; rate limit after it, keyed by user
+                        .addFilterBefore(loadSheddingFilter, JwtAuthFilter.class)
+                        .addFilterAfter(rateLimitFilter, JwtAuthFilter.class);
 
         return http.build();
     }
@@ -71,7 +87,9 @@ public class SecurityConfig {
         CorsConfiguration cfg = new CorsConfiguration();
         cfg.setAllowedOrigins(List.of("http://localhost:5173")); // your React dev URL
         cfg.setAllowedMethods(List.of("GET","POST","PUT","DELETE","PATCH","OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization","Content-Type"));
+        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","Idempotency-Key"));
+        // lets the browser client see that a retry was answered from the stored response
+        cfg.setExposedHeaders(List.of("Idempotent-Replayed"));
         cfg.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", cfg);
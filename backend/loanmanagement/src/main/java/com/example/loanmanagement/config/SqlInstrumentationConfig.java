@@ -0,0 +1,35 @@
+package com.example.loanmanagement.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration(proxyBeanMethods = false)
+public class SqlInstrumentationConfig {
+
+    // static: post-processors are created before the rest of the context
+    @Bean
+    static BeanPostProcessor countingDataSourcePostProcessor(ObjectProvider<SqlInstrumentationProperties> properties,
+                                                             ObjectProvider<ConnectionWaitTracker> waitTracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource ds) || bean instanceof CountingDataSource) {
+                    return bean;
+                }
+                SqlInstrumentationProperties props = properties.getObject();
+                return props.isInstrumentationEnabled() ? new CountingDataSource(ds, props.getSlowQueryMs(), waitTracker.getObject())
+                        : bean;
+            }
+        };
+    }
+
+    // fed by CountingDataSource, read by RateLimiter for load shedding
+    @Bean
+    ConnectionWaitTracker connectionWaitTracker() {
+        return new ConnectionWaitTracker();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.loanmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/** Per-request SQL accounting, read from loan.sql.* */
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.sql")
+public class SqlInstrumentationProperties {
+
+    // wrap the DataSource at all; off = zero overhead, no counts
+    private boolean instrumentationEnabled = true;
+
+    // statements slower than this are logged (bound parameters only at DEBUG)
+    private long slowQueryMs = 200;
+
+    // requests issuing more statements than this are logged as likely N+1
+    private int statementBudget = 25;
+
+    // X-Sql-* response headers; dev/test only, they leak query shape
+    private boolean responseHeaders = false;
+}
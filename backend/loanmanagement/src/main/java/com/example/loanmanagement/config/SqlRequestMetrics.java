@@ -0,0 +1,51 @@
+package com.example.loanmanagement.config;
+
+import com.example.loanmanagement.dto.SqlRouteStats;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Running SQL totals per route ("GET /api/loans/{loanId}"), fed by {@link SqlBudgetFilter} */
+@Component
+public class SqlRequestMetrics {
+
+    private final ConcurrentHashMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    void record(String route, SqlStatementCounter.Stats stats, boolean overBudget) {
+        Route r = routes.computeIfAbsent(route, k -> new Route());
+        r.requests.increment();
+        r.statements.add(stats.getStatements());
+        r.rows.add(stats.getRows());
+        r.timeMs.add(stats.getTimeMillis());
+        r.maxStatements.accumulateAndGet(stats.getStatements(), Math::max);
+        if (overBudget) r.overBudget.increment();
+    }
+
+    /** Heaviest routes first */
+    public List<SqlRouteStats> snapshot() {
+        return routes.entrySet().stream()
+                .map(e -> {
+                    Route r = e.getValue();
+                    long requests = r.requests.sum();
+                    long statements = r.statements.sum();
+                    return new SqlRouteStats(e.getKey(), requests, statements,
+                            requests == 0 ? 0 : (double) statements / requests, r.maxStatements.get(),
+                            r.rows.sum(), r.timeMs.sum(), r.overBudget.sum());
+                })
+                .sorted(Comparator.comparingLong(SqlRouteStats::getStatements).reversed())
+                .toList();
+    }
+
+    private static final class Route {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder timeMs = new LongAdder();
+        final LongAdder overBudget = new LongAdder();
+        final AtomicInteger maxStatements = new AtomicInteger();
+    }
+}
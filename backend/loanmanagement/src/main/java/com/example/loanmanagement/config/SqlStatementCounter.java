@@ -0,0 +1,73 @@
+package com.example.loanmanagement.config;
+
+import java.util.ArrayDeque;
+
+/**
+ * Per-thread SQL tallies fed by {@link CountingDataSource}. A scope is opened per HTTP request by
+ * {@link SqlBudgetFilter}; tests can open their own around a call and nest it outside the request's.
+ * Every open scope on the thread sees every statement, so nesting never hides work.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<ArrayDeque<Stats>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlStatementCounter() {
+    }
+
+    public static Stats open() {
+        Stats s = new Stats();
+        SCOPES.get().push(s);
+        return s;
+    }
+
+    /** Innermost open scope on this thread, or null */
+    public static Stats current() {
+        return SCOPES.get().peek();
+    }
+
+    static void recordStatement(long nanos) {
+        ArrayDeque<Stats> scopes = SCOPES.get();
+        if (scopes.isEmpty()) return;
+        for (Stats s : scopes) {
+            s.statements++;
+            s.nanos += nanos;
+        }
+    }
+
+    static void recordRows(long rows) {
+        ArrayDeque<Stats> scopes = SCOPES.get();
+        if (scopes.isEmpty() || rows <= 0) return;
+        for (Stats s : scopes) {
+            s.rows += rows;
+        }
+    }
+
+    /** Counts for one scope; confined to the thread that opened it */
+    public static final class Stats implements AutoCloseable {
+        private int statements;
+        private long rows;
+        private long nanos;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getTimeMillis() {
+            return nanos / 1_000_000;
+        }
+
+        @Override
+        public void close() {
+            SCOPES.get().remove(this);
+        }
+
+        @Override
+        public String toString() {
+            return statements + " statements, " + rows + " rows, " + getTimeMillis() + " ms";
+        }
+    }
+}
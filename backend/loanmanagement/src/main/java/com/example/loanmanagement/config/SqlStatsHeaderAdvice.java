@@ -0,0 +1,36 @@
+package com.example.loanmanagement.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/** Adds X-Sql-* headers just before the body is written, when loan.sql.response-headers=true */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class SqlStatsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    private final SqlInstrumentationProperties properties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isResponseHeaders();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementCounter.Stats stats = SqlStatementCounter.current();
+        if (stats != null) {
+            response.getHeaders().set("X-Sql-Statements", String.valueOf(stats.getStatements()));
+            response.getHeaders().set("X-Sql-Rows", String.valueOf(stats.getRows()));
+            response.getHeaders().set("X-Sql-Time-Ms", String.valueOf(stats.getTimeMillis()));
+        }
+        return body;
+    }
+}
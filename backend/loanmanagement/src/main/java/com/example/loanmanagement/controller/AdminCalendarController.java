@@ -0,0 +1,53 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.dto.HolidayRequest;
+import com.example.loanmanagement.model.Holiday;
+import com.example.loanmanagement.service.BusinessCalendarService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/calendars")
+@RequiredArgsConstructor
+public class AdminCalendarController {
+
+    private final BusinessCalendarService calendarService;
+
+    @GetMapping("/{calendar}/holidays")
+    public ResponseEntity<List<Holiday>> holidays(@PathVariable String calendar) {
+        return ResponseEntity.ok(calendarService.getHolidays(calendar));
+    }
+
+    // Publish the complete holiday list of one calendar; replaces the current one
+    @PutMapping("/{calendar}/holidays")
+    public ResponseEntity<List<Holiday>> publish(@PathVariable String calendar,
+                                                 @RequestBody List<@Valid HolidayRequest> holidays) {
+        return ResponseEntity.ok(calendarService.publish(calendar, holidays));
+    }
+
+    // Pick up holidays published from another instance
+    @PostMapping("/reload")
+    public ResponseEntity<Void> reload() {
+        calendarService.reload();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Preview the due dates a loan type would get, e.g. ?loanType=HOME&start=2026-01-31&months=12
+    @GetMapping("/due-dates")
+    public ResponseEntity<?> dueDates(
+            @RequestParam String loanType,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(defaultValue = "12") int months
+    ) {
+        if (months < 1 || months > 600) {
+            return ResponseEntity.badRequest().body("months must be between 1 and 600");
+        }
+        return ResponseEntity.ok(calendarService.dueDates(loanType, start, months));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.config.ClusterJobScheduler;
+import com.example.loanmanagement.dto.ClusterStatus;
+import com.example.loanmanagement.dto.JobRunReport;
+import com.example.loanmanagement.model.JobRun;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/jobs")
+@RequiredArgsConstructor
+public class AdminJobController {
+
+    private final ClusterJobScheduler scheduler;
+
+    // Run history, newest first
+    @GetMapping
+    public ResponseEntity<List<JobRun>> runs() {
+        return ResponseEntity.ok(scheduler.recentRuns());
+    }
+
+    @GetMapping("/cluster")
+    public ResponseEntity<ClusterStatus> cluster() {
+        return ResponseEntity.ok(new ClusterStatus(scheduler.nodeId(), scheduler.isLeader(),
+                scheduler.jobNames(), scheduler.liveNodes()));
+    }
+
+    // Run a job now across the cluster; key defaults to the one a scheduled run would use now
+    @PostMapping("/{jobName}/runs")
+    public ResponseEntity<?> trigger(@PathVariable String jobName, @RequestParam(required = false) String key) {
+        try {
+            return accepted(scheduler.trigger(jobName, key));
+        } catch (IllegalArgumentException e) {
+            // unknown job name
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<JobRunReport> run(@PathVariable Long runId) {
+        return ResponseEntity.ok(new JobRunReport(scheduler.getRun(runId), scheduler.getShards(runId)));
+    }
+
+    // Requeue a failed run's failed shards
+    @PostMapping("/runs/{runId}/resume")
+    public ResponseEntity<?> resume(@PathVariable Long runId) {
+        try {
+            return accepted(scheduler.resume(runId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<JobRun> accepted(JobRun run) {
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/admin/jobs/runs/" + run.getId())
+                .body(run);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.dto.TrialBalance;
+import com.example.loanmanagement.service.InterestAccrualService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/ledger")
+@RequiredArgsConstructor
+public class AdminLedgerController {
+
+    private final InterestAccrualService interestAccrualService;
+
+    // Run end of day now (defaults to today): post interest accruals, close the day, return its trial balance
+    @PostMapping("/eod")
+    public ResponseEntity<?> endOfDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        try {
+            return ResponseEntity.ok(interestAccrualService.runEndOfDay(date != null ? date : LocalDate.now()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    // Closing positions per ledger account for a business day
+    @GetMapping("/trial-balance")
+    public ResponseEntity<TrialBalance> trialBalance(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return ResponseEntity.ok(interestAccrualService.trialBalance(date));
+    }
+}
@@ -1,36 +1,141 @@
 package com.example.loanmanagement.controller;
 
+import com.example.loanmanagement.config.RateLimiter;
+import com.example.loanmanagement.config.SqlRequestMetrics;
 import com.example.loanmanagement.dto.AdminStatsResponse;
+import com.example.loanmanagement.dto.CashFlowProjectionResponse;
+import com.example.loanmanagement.dto.CashFlowScenario;
 import com.example.loanmanagement.dto.LoanResponse;
-import com.example.loanmanagement.model.Repayment;
+import com.example.loanmanagement.dto.LoanTimelineEntry;
+import com.example.loanmanagement.dto.RepaymentDTO;
+import com.example.loanmanagement.dto.RateLimitStatus;
+import com.example.loanmanagement.dto.SqlRouteStats;
+import com.example.loanmanagement.dto.PortfolioAnalyticsResponse;
+import com.example.loanmanagement.dto.PrepaymentRequest;
+import com.example.loanmanagement.dto.RestructureRequest;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.service.LoanRestructuringService;
 import com.example.loanmanagement.service.AdminLoanService;
 import com.example.loanmanagement.service.AdminStatsService;
+import com.example.loanmanagement.service.CashFlowProjectionService;
+import com.example.loanmanagement.service.LoanAnalyticsService;
+import com.example.loanmanagement.service.LoanScoringService;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import com.example.loanmanagement.service.LoanEventBroadcaster;
+import com.example.loanmanagement.service.LoanEventLogService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
 //@SecurityRequirement(name = "bearerAuth")
 @RequiredArgsConstructor
+@Validated
 public class AdminLoanController {
 
     private final AdminLoanService adminLoanService;
     private final AdminStatsService adminStatsService;
+    private final LoanAnalyticsService loanAnalyticsService;
+    private final CashFlowProjectionService cashFlowProjectionService;
+    private final LoanScoringService loanScoringService;
+    private final LoanEventBroadcaster loanEventBroadcaster;
+    private final LoanEventLogService loanEventLogService;
+    private final SqlRequestMetrics sqlRequestMetrics;
+    private final RateLimiter rateLimiter;
+    private final LoanRestructuringService loanRestructuringService;
 
     @GetMapping("/stats")
     public ResponseEntity<AdminStatsResponse> stats() {
         return ResponseEntity.ok(adminStatsService.getStats());
     }
 
+    // Portfolio breakdowns, e.g. ?groupBy=LOAN_TYPE&groupBy=STATUS (all dimensions if omitted)
+    @GetMapping("/analytics")
+    public ResponseEntity<PortfolioAnalyticsResponse> analytics(
+            @RequestParam(required = false) List<LoanAnalyticsService.Dimension> groupBy
+    ) {
+        var dims = groupBy == null || groupBy.isEmpty()
+                ? EnumSet.allOf(LoanAnalyticsService.Dimension.class)
+                : EnumSet.copyOf(groupBy);
+        return ResponseEntity.ok(loanAnalyticsService.getAnalytics(dims));
+    }
+
+    // Expected inflows for the next N months, from the booked repayment schedule
+    @GetMapping("/cashflow")
+    public ResponseEntity<?> cashFlow(@RequestParam(defaultValue = "12") int months) {
+        if (months < 1 || months > CashFlowProjectionService.MAX_MONTHS) {
+            return ResponseEntity.badRequest().body("months must be between 1 and " + CashFlowProjectionService.MAX_MONTHS);
+        }
+        return ResponseEntity.ok(cashFlowProjectionService.projectBooked(months));
+    }
+
+    // What-if projections with prepayment/default assumptions, one result per scenario
+    @PostMapping("/cashflow/scenarios")
+    public ResponseEntity<?> cashFlowScenarios(
+            @RequestParam(defaultValue = "12") int months,
+            @RequestBody List<@Valid CashFlowScenario> scenarios
+    ) {
+        if (months < 1 || months > CashFlowProjectionService.MAX_MONTHS) {
+            return ResponseEntity.badRequest().body("months must be between 1 and " + CashFlowProjectionService.MAX_MONTHS);
+        }
+        return ResponseEntity.ok(cashFlowProjectionService.projectScenarios(scenarios, months));
+    }
+
+    // a list element failed its constraints, e.g. one scenario with a negative rate
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<String> invalidElement(ConstraintViolationException e) {
+        return ResponseEntity.badRequest().body(e.getConstraintViolations().stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ")));
+    }
+
+    // Live feed of applications, decisions and payments; replaces polling the lists
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return loanEventBroadcaster.subscribe(lastEventId);
+    }
+
+    // SQL statements/rows/time per route since startup, heaviest first (spot N+1 regressions)
+    @GetMapping("/sql-stats")
+    public ResponseEntity<List<SqlRouteStats>> sqlStats() {
+        return ResponseEntity.ok(sqlRequestMetrics.snapshot());
+    }
+
+    // Requests allowed, rate limited and shed per route, plus the pool pressure driving the shedding
+    @GetMapping("/rate-limits")
+    public ResponseEntity<RateLimitStatus> rateLimits() {
+        return ResponseEntity.ok(rateLimiter.status());
+    }
+
     // Fetch all loans (using LoanResponse DTO)
     @GetMapping("/loans")
     public ResponseEntity<List<LoanResponse>> getAllLoans() {
         return ResponseEntity.ok(adminLoanService.getAllLoans());
     }
 
+    // Run the risk rules over every PENDING loan; scores show up on the loan DTOs
+    @PostMapping("/loans/score")
+    public ResponseEntity<Map<String, Integer>> scorePendingLoans() {
+        return ResponseEntity.ok(Map.of("scored", loanScoringService.scorePendingLoans()));
+    }
+
+    // Every recorded transition of a loan and its repayments, oldest first
+    @GetMapping("/loans/{loanId}/timeline")
+    public ResponseEntity<List<LoanTimelineEntry>> timeline(@PathVariable Long loanId) {
+        return ResponseEntity.ok(loanEventLogService.getTimeline(loanId));
+    }
+
     // Approve loan with optional remark
     @PutMapping("/loans/{loanId}/approve")
     public ResponseEntity<LoanResponse> approveLoan(
@@ -49,9 +154,32 @@ public class AdminLoanController {
         return ResponseEntity.ok(adminLoanService.rejectLoan(loanId, remark));
     }
 
+    // Part-prepayment: principal paid now, remaining installments re-planned (REDUCE_EMI or REDUCE_TENURE)
+    @PostMapping("/loans/{loanId}/prepay")
+    public ResponseEntity<?> prepay(@PathVariable Long loanId, @Valid @RequestBody PrepaymentRequest request) {
+        try {
+            return ResponseEntity.ok(loanRestructuringService.prepay(loanId, Money.of(request.getAmount()), request.getMode()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Close the loan early: outstanding principal plus interest accrued in the current period
+    @PostMapping("/loans/{loanId}/foreclose")
+    public ResponseEntity<?> foreclose(@PathVariable Long loanId) {
+        return ResponseEntity.ok(loanRestructuringService.foreclose(loanId));
+    }
+
+    // New remaining tenure and/or rate for the unpaid balance
+    @PostMapping("/loans/{loanId}/restructure")
+    public ResponseEntity<?> restructure(@PathVariable Long loanId, @Valid @RequestBody RestructureRequest request) {
+        return ResponseEntity.ok(loanRestructuringService.restructure(
+                loanId, request.getRemainingMonths(), request.getAnnualInterestRate()));
+    }
+
     // Mark repayment as paid
     @PutMapping("/repayments/{repaymentId}/pay")
-    public ResponseEntity<Repayment> markRepaymentPaid(@PathVariable Long repaymentId) {
+    public ResponseEntity<RepaymentDTO> markRepaymentPaid(@PathVariable Long repaymentId) {
         return ResponseEntity.ok(adminLoanService.markRepaymentPaid(repaymentId));
     }
 }
\ No newline at end of file
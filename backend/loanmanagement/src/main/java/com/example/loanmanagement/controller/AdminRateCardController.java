@@ -0,0 +1,41 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.dto.RateCardRequest;
+import com.example.loanmanagement.model.RateCard;
+import com.example.loanmanagement.service.RateCardService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/rate-cards")
+@RequiredArgsConstructor
+public class AdminRateCardController {
+
+    private final RateCardService rateCardService;
+
+    @GetMapping
+    public ResponseEntity<List<RateCard>> rateCards() {
+        return ResponseEntity.ok(rateCardService.getRateCards());
+    }
+
+    // Publish a complete new card set; live at once on this node, on the others within loan.pricing.reload-poll-ms
+    @PutMapping
+    public ResponseEntity<?> publish(@RequestBody List<@Valid RateCardRequest> cards) {
+        try {
+            return ResponseEntity.ok(rateCardService.publish(cards));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Re-read the cards on this node only, without waiting for its next poll
+    @PostMapping("/reload")
+    public ResponseEntity<Void> reload() {
+        rateCardService.reload();
+        return ResponseEntity.noContent().build();
+    }
+}
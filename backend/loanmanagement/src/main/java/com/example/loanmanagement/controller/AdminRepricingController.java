@@ -0,0 +1,58 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.dto.RepricingReport;
+import com.example.loanmanagement.dto.RepricingRequest;
+import com.example.loanmanagement.model.RepricingRun;
+import com.example.loanmanagement.service.RepricingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/repricing")
+@RequiredArgsConstructor
+public class AdminRepricingController {
+
+    private final RepricingService repricingService;
+
+    @GetMapping
+    public ResponseEntity<List<RepricingRun>> runs() {
+        return ResponseEntity.ok(repricingService.recentRuns());
+    }
+
+    // Publish a new benchmark value; its floating-rate loans are repriced in the background
+    @PostMapping
+    public ResponseEntity<?> reprice(@Valid @RequestBody RepricingRequest request) {
+        try {
+            return accepted(repricingService.reprice(request.getBenchmark(), request.getRate()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    // Progress while running, summary report once finished
+    @GetMapping("/{runId}")
+    public ResponseEntity<RepricingReport> report(@PathVariable Long runId) {
+        return ResponseEntity.ok(repricingService.report(runId));
+    }
+
+    // Continue a failed run from its last committed chunk
+    @PostMapping("/{runId}/resume")
+    public ResponseEntity<?> resume(@PathVariable Long runId) {
+        try {
+            return accepted(repricingService.resume(runId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<RepricingReport> accepted(RepricingReport report) {
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/admin/repricing/" + report.getRunId())
+                .body(report);
+    }
+}
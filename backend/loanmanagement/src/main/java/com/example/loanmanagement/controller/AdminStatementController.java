@@ -0,0 +1,71 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.model.StatementRun;
+import com.example.loanmanagement.service.StatementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/statements")
+@RequiredArgsConstructor
+public class AdminStatementController {
+
+    private final StatementService statementService;
+
+    @GetMapping
+    public ResponseEntity<List<StatementRun>> runs() {
+        return ResponseEntity.ok(statementService.recentRuns());
+    }
+
+    // Generate statements for a month (default: last month) in the background
+    @PostMapping
+    public ResponseEntity<?> generate(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth period,
+            @RequestParam(defaultValue = "CSV") StatementRun.Format format
+    ) {
+        try {
+            return accepted(statementService.generate(period != null ? period : YearMonth.now().minusMonths(1), format));
+        } catch (IllegalArgumentException e) {
+            // period in the future
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<StatementRun> run(@PathVariable Long runId) {
+        return ResponseEntity.ok(statementService.getRun(runId));
+    }
+
+    // Continue a failed run from its last committed page
+    @PostMapping("/{runId}/resume")
+    public ResponseEntity<?> resume(@PathVariable Long runId) {
+        try {
+            return accepted(statementService.resume(runId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{runId}/customers/{customerId}")
+    public ResponseEntity<byte[]> statement(@PathVariable Long runId, @PathVariable Long customerId) {
+        StatementRun run = statementService.getRun(runId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(run.getFormat().contentType + ";charset=UTF-8"))
+                .body(statementService.statementFile(runId, customerId));
+    }
+
+    private static ResponseEntity<StatementRun> accepted(StatementRun run) {
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/admin/statements/" + run.getId())
+                .body(run);
+    }
+}
@@ -1,31 +1,46 @@
 package com.example.loanmanagement.controller;
 
-import com.example.loanmanagement.model.User;
-import com.example.loanmanagement.repository.UserRepository;
-import lombok.Data;
+import com.example.loanmanagement.dto.CustomerPage;
+import com.example.loanmanagement.service.CustomerDirectoryService;
+import com.example.loanmanagement.service.CustomerImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 public class AdminUserController {
 
-    private final UserRepository userRepository;
+    private final CustomerDirectoryService customerDirectoryService;
+    private final CustomerImportService customerImportService;
 
+    // Paged directory, e.g. ?q=sharma&match=CONTAINS&size=50; pass nextAfterName/nextAfterId back for the next page
     @GetMapping("/customers")
-    public List<CustomerDto> customers() {
-        return userRepository.findByRole(User.Role.CUSTOMER).stream()
-                .map(u -> new CustomerDto(u.getId(), u.getName(), u.getEmail()))
-                .toList();
+    public CustomerPage customers(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "CONTAINS") CustomerDirectoryService.Match match,
+            @RequestParam(required = false) String afterName,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return customerDirectoryService.search(q, match, afterName, afterId, size);
     }
 
-    @Data
-    public static class CustomerDto {
-        private final Long id;
-        private final String name;
-        private final String email;
+    // Bulk onboarding: CSV (header with name,email,password) or a JSON array, streamed; per-row errors in the result
+    @PostMapping(value = "/customers/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> importCustomers(HttpServletRequest request) throws IOException {
+        try {
+            return ResponseEntity.ok(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                    ? customerImportService.importJson(request.getInputStream())
+                    : customerImportService.importCsv(request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            // CSV header without the required columns
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
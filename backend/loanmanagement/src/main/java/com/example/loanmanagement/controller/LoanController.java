@@ -3,9 +3,15 @@ package com.example.loanmanagement.controller;
 
 import com.example.loanmanagement.dto.LoanApplicationRequest;
 import com.example.loanmanagement.dto.LoanResponse;
+import com.example.loanmanagement.dto.RepaymentDTO;
+import com.example.loanmanagement.mapper.LoanMapper;
 import com.example.loanmanagement.model.Loan;
-import com.example.loanmanagement.model.Repayment;
+import com.example.loanmanagement.model.LoanApplicationTask;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.service.IdempotencyService;
+import com.example.loanmanagement.service.LoanApplicationWorker;
 import com.example.loanmanagement.service.LoanService;
+import com.example.loanmanagement.service.RateCardService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
@@ -16,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin(origins = "*")
 @RestController
@@ -24,25 +31,44 @@ import java.util.List;
 public class LoanController {
 
     private final LoanService loanService;
+    private final LoanApplicationWorker loanApplicationWorker;
+    private final RateCardService rateCardService;
+    private final LoanMapper loanMapper;
+    private final IdempotencyService idempotencyService;
 
     /**
      * CUSTOMER-only (enforced in SecurityConfig).
      * Creates a loan + repayment schedule for the authenticated user.
+     * With an Idempotency-Key header, a retry of the same request gets the first response back
+     * (marked Idempotent-Replayed) instead of a second attempt.
      */
     @PostMapping("/apply")
     public ResponseEntity<?> applyLoan(
             @Valid @RequestBody LoanApplicationRequest loanRequest,
-            @AuthenticationPrincipal UserDetails user
+            @AuthenticationPrincipal UserDetails user,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
     ) {
         if (user == null) {
             return ResponseEntity.status(401).body("Unauthorized");
         }
+        if (idempotencyKey == null) {
+            return apply(loanRequest, user);
+        }
+        try {
+            return idempotencyService.execute(user.getUsername(), idempotencyKey, loanRequest,
+                    () -> apply(loanRequest, user));
+        } catch (IllegalArgumentException e) {
+            // malformed Idempotency-Key
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
+    private ResponseEntity<?> apply(LoanApplicationRequest loanRequest, UserDetails user) {
         Loan loan = toEntity(loanRequest);
 
         try {
             Loan created = loanService.createLoanWithRepayments(loan, user.getUsername());
-            return ResponseEntity.ok(toDto(created));
+            return ResponseEntity.ok(loanMapper.toResponse(created));
         } catch (IllegalStateException ise) {
             // e.g. user already has a non-rejected loan
             return ResponseEntity.status(409).body(ise.getMessage());
@@ -51,6 +77,42 @@ public class LoanController {
         }
     }
 
+    /**
+     * CUSTOMER-only.
+     * Async intake: stores the application and returns 202 with a tracking id right away;
+     * eligibility checks and the repayment schedule run on the intake worker pool.
+     */
+    @PostMapping("/apply/async")
+    public ResponseEntity<?> applyLoanAsync(
+            @Valid @RequestBody LoanApplicationRequest loanRequest,
+            @AuthenticationPrincipal UserDetails user
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        loanApplicationWorker.checkCapacity();
+
+        LoanApplicationTask task = loanService.submitLoanApplication(toEntity(loanRequest), user.getUsername());
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/loans/applications/" + task.getTrackingId())
+                .body(Map.of("trackingId", task.getTrackingId(), "status", task.getStatus().name()));
+    }
+
+    /**
+     * AUTH required.
+     * Poll the outcome of an async application.
+     */
+    @GetMapping("/applications/{trackingId}")
+    public ResponseEntity<?> getApplicationStatus(
+            @PathVariable String trackingId,
+            @AuthenticationPrincipal UserDetails user
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        return ResponseEntity.ok(loanService.getApplicationStatus(trackingId, user.getUsername()));
+    }
+
     /**
      * AUTH required.
      * Returns loans for the current authenticated user.
@@ -76,7 +138,31 @@ public class LoanController {
     @GetMapping("/{loanId}")
     public ResponseEntity<LoanResponse> getLoan(@PathVariable Long loanId) {
         Loan loan = loanService.getLoanById(loanId);
-        return ResponseEntity.ok(toDto(loan));
+        return ResponseEntity.ok(loanMapper.toResponse(loan));
+    }
+
+    /**
+     * AUTH required.
+     * Several loans in one call instead of one GET per loan, e.g. ?ids=1,2,3&fields=id,status,emi,nextDueDate.
+     * fields limits the query and the JSON to those attributes (id is always included); omit it for full LoanResponses.
+     * Customers only get their own loans back; ids of other customers' loans are left out like unknown ones.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<?> getLoans(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) String fields,
+            @AuthenticationPrincipal UserDetails user
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        boolean admin = user.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        try {
+            return ResponseEntity.ok(loanService.getLoansByIds(ids, fields, admin ? null : user.getUsername()));
+        } catch (IllegalArgumentException e) {
+            // too many ids or an unknown field
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -84,7 +170,7 @@ public class LoanController {
      * List repayments for a loan.
      */
     @GetMapping("/{loanId}/repayments")
-    public ResponseEntity<List<Repayment>> getRepayments(@PathVariable Long loanId) {
+    public ResponseEntity<List<RepaymentDTO>> getRepayments(@PathVariable Long loanId) {
         return ResponseEntity.ok(loanService.getRepayments(loanId));
     }
 
@@ -92,43 +178,20 @@ public class LoanController {
 
     private Loan toEntity(LoanApplicationRequest dto) {
         Loan loan = new Loan();
-        loan.setAmount(dto.getAmount());
+        loan.setAmount(Money.of(dto.getAmount()));
         loan.setLoanType(dto.getLoanType());
         loan.setTenureMonths(dto.getTenureMonths());
         loan.setPurpose(dto.getPurpose());
-        loan.setAnnualIncome(dto.getAnnualIncome());
+        loan.setAnnualIncome(Money.of(dto.getAnnualIncome()));
 
-        // use whatever logic/config you have for interest
-        loan.setAnnualInterestRate(10.0);
+        // priced from the in-memory rate cards (no query on the apply path)
+        loan.setAnnualInterestRate(rateCardService.resolveRate(
+                dto.getLoanType(), dto.getAmount(), dto.getTenureMonths()));
+        if (dto.getBenchmark() != null && !dto.getBenchmark().isBlank()) {
+            rateCardService.floatOver(loan, dto.getBenchmark());
+        }
         loan.setStatus(Loan.Status.PENDING);
         loan.setStartDate(LocalDate.now());
         return loan;
     }
-
-    private LoanResponse toDto(Loan loan) {
-        LoanResponse res = new LoanResponse();
-        res.setId(loan.getId());
-        res.setAmount(loan.getAmount());
-        res.setLoanType(loan.getLoanType());
-        res.setTenureMonths(loan.getTenureMonths());
-        res.setPurpose(loan.getPurpose());
-        res.setAnnualIncome(loan.getAnnualIncome());
-        res.setStatus(loan.getStatus().name());
-        res.setAdminRemark(loan.getAdminRemark());
-        res.setStartDate(loan.getStartDate());
-        res.setEmi(loan.getEmi());
-
-        // If you added these fields to LoanResponse, populate them:
-        try {
-            if (loan.getUser() != null) {
-                // will compile only if fields exist on DTO
-                LoanResponse.class.getDeclaredField("customerName");
-                LoanResponse.class.getDeclaredField("customerEmail");
-                res.setCustomerName(loan.getUser().getName());
-                res.setCustomerEmail(loan.getUser().getEmail());
-            }
-        } catch (NoSuchFieldException ignored) {}
-
-        return res;
-    }
 }
@@ -1,5 +1,6 @@
 package com.example.loanmanagement.dto;
 
+import com.example.loanmanagement.model.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,5 +10,5 @@ public class AdminStatsResponse {
     private long totalApplications;
     private long pendingApplications;
     private long approvedApplications;
-    private double totalDisbursed;
+    private Money totalDisbursed;
 }
@@ -0,0 +1,24 @@
+package com.example.loanmanagement.dto;
+
+import com.example.loanmanagement.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data @AllArgsConstructor @NoArgsConstructor
+public class CashFlowProjectionResponse {
+    private String scenario;
+    private List<MonthlyInflow> months;
+    private Money totalPrincipal;
+    private Money totalInterest;
+
+    @Data @AllArgsConstructor @NoArgsConstructor
+    public static class MonthlyInflow {
+        private LocalDate month; // first day of the month
+        private Money principal;
+        private Money interest;
+    }
+}
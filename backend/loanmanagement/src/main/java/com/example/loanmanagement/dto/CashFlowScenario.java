@@ -0,0 +1,22 @@
+package com.example.loanmanagement.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data @AllArgsConstructor @NoArgsConstructor
+public class CashFlowScenario {
+    @NotBlank
+    private String name;
+
+    // fraction of outstanding principal prepaid per year, e.g. 0.05 = 5% CPR
+    @DecimalMin("0.0") @DecimalMax("1.0")
+    private double annualPrepaymentRate;
+
+    // fraction of outstanding principal defaulting per year
+    @DecimalMin("0.0") @DecimalMax("1.0")
+    private double annualDefaultRate;
+}
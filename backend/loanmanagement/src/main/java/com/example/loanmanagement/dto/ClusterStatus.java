@@ -0,0 +1,16 @@
+package com.example.loanmanagement.dto;
+
+import com.example.loanmanagement.model.ClusterNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ClusterStatus {
+    private String nodeId;                 // the node answering
+    private boolean leader;
+    private List<String> jobs;
+    private List<ClusterNode> liveNodes;
+}
@@ -0,0 +1,10 @@
+package com.example.loanmanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class CustomerDto {
+    private final Long id;
+    private final String name;
+    private final String email;
+}
@@ -0,0 +1,25 @@
+package com.example.loanmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CustomerImportResult {
+    private long total;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;      // more rows failed than loan.import.max-errors
+    private long elapsedMs;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;                // CSV line or JSON array index (1-based)
+        private String email;
+        private String message;
+    }
+}
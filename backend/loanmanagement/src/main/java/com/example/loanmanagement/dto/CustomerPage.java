@@ -0,0 +1,14 @@
+package com.example.loanmanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/** One page of the admin customer directory; pass the next* values back to get the following page */
+@Data
+public class CustomerPage {
+    private final List<CustomerSummary> items;
+    private final String nextAfterName;   // null on the last page
+    private final Long nextAfterId;
+    private final Long total;             // customers matching the filter; on the first page only
+}
@@ -0,0 +1,13 @@
+package com.example.loanmanagement.dto;
+
+import com.example.loanmanagement.model.Money;
+import lombok.Data;
+
+@Data
+public class CustomerSummary {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final long loanCount;
+    private final Money exposure;   // outstanding principal of APPROVED loans
+}
@@ -0,0 +1,14 @@
+package com.example.loanmanagement.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class HolidayRequest {
+    @NotNull
+    private LocalDate date;
+
+    private String name;
+}
@@ -0,0 +1,15 @@
+package com.example.loanmanagement.dto;
+
+import com.example.loanmanagement.model.JobRun;
+import com.example.loanmanagement.model.JobShard;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class JobRunReport {
+    private JobRun run;
+    private List<JobShard> shards;         // which node ran which id range, attempts and durations
+}
@@ -21,4 +21,7 @@ public class LoanApplicationRequest {
 
     @NotNull @Positive
     private Double annualIncome;
+
+    // optional: float the rate over this benchmark (e.g. REPO) instead of fixing it
+    private String benchmark;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.loanmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data @AllArgsConstructor @NoArgsConstructor
+public class LoanApplicationStatusResponse {
+    private String trackingId;
+    private String status;   // QUEUED | PROCESSING | COMPLETED | REJECTED | FAILED
+    private Long loanId;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.example.loanmanagement.dto;
+
+import java.time.LocalDateTime;
+
+/** What admin dashboards receive over /api/admin/events; id doubles as the SSE event id */
+public record LoanEvent(
+        long id,
+        String type,
+        Long loanId,
+        Long repaymentId,
+        String status,
+        LocalDateTime occurredAt
+) {
+}
@@ -0,0 +1,31 @@
+package com.example.loanmanagement.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published (Spring application event) whenever a loan or one of its repayments changes state.
+ * fromStatus/toStatus are loan statuses, or repayment statuses for REPAYMENT_PAID.
+ * PREPAID/FORECLOSED/RESTRUCTURED keep the loan APPROVED; remark describes the change.
+ * previousRemark is the loan's admin remark before an event that overwrote it.
+ */
+public record LoanLifecycleEvent(
+        Type type,
+        Long loanId,
+        Long repaymentId,
+        String fromStatus,
+        String toStatus,
+        String actor,
+        String remark,
+        String previousRemark,
+        LocalDateTime occurredAt
+) {
+    /** An event that leaves the admin remark alone */
+    public LoanLifecycleEvent(Type type, Long loanId, Long repaymentId, String fromStatus, String toStatus,
+                              String actor, String remark, LocalDateTime occurredAt) {
+        this(type, loanId, repaymentId, fromStatus, toStatus, actor, remark, null, occurredAt);
+    }
+
+    public enum Type {
+        APPLIED, APPROVED, REJECTED, REPAYMENT_PAID, PREPAID, FORECLOSED, RESTRUCTURED
+    }
+}
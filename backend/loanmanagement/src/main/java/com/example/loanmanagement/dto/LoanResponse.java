@@ -1,21 +1,28 @@
 // src/main/java/com/example/loanmanagement/dto/LoanResponse.java
 package com.example.loanmanagement.dto;
 
+import com.example.loanmanagement.model.Money;
 import lombok.Data;
 import java.time.LocalDate;
 
 @Data
 public class LoanResponse {
     private Long id;
-    private Double amount;
+    private Money amount;
     private String loanType;
     private Integer tenureMonths;
     private String purpose;
-    private Double annualIncome;
+    private Money annualIncome;
     private String status;
     private String adminRemark;
     private LocalDate startDate;
-    private Double emi;
+    private Money emi;
+    private Money outstandingPrincipal;
+    private Integer paidInstallments;
+    private LocalDate nextDueDate;
+    private Money nextDueAmount;
+    private Integer riskScore;
+    private String riskReasons;
 
     // ✅ add these for the admin table
     private String customerName;
@@ -0,0 +1,19 @@
+package com.example.loanmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data @AllArgsConstructor @NoArgsConstructor
+public class LoanTimelineEntry {
+    private String eventType;
+    private Long repaymentId;
+    private String fromStatus;
+    private String toStatus;
+    private String actor;
+    private String remark;
+    private String previousRemark;
+    private LocalDateTime occurredAt;
+}
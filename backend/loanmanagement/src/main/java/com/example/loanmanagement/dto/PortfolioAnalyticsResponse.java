@@ -0,0 +1,28 @@
+package com.example.loanmanagement.dto;
+
+import com.example.loanmanagement.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data @AllArgsConstructor @NoArgsConstructor
+public class PortfolioAnalyticsResponse {
+    private Instant snapshotTakenAt;
+    private long loanCount;
+    private Money totalExposure;           // outstanding principal of APPROVED loans
+    private Money expectedMonthlyInflow;   // sum of EMIs still being paid
+    private Map<String, List<GroupStats>> breakdowns; // dimension -> buckets
+
+    @Data @AllArgsConstructor @NoArgsConstructor
+    public static class GroupStats {
+        private String key;
+        private long count;
+        private Money totalAmount;
+        private Money exposure;
+        private Money expectedMonthlyInflow;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.loanmanagement.dto;
+
+import com.example.loanmanagement.service.ScheduleRecalculator;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class PrepaymentRequest {
+    @NotNull @Positive
+    private Double amount;
+
+    // REDUCE_EMI keeps the remaining installment count, REDUCE_TENURE keeps the EMI
+    @NotNull
+    private ScheduleRecalculator.Mode mode = ScheduleRecalculator.Mode.REDUCE_EMI;
+}
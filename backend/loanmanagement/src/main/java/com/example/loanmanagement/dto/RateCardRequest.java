@@ -0,0 +1,21 @@
+package com.example.loanmanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+@Data
+public class RateCardRequest {
+    @NotBlank
+    private String loanType;
+
+    @NotNull @PositiveOrZero
+    private Double minAmount;
+
+    @NotNull @PositiveOrZero
+    private Integer minTenureMonths;
+
+    @NotNull @PositiveOrZero
+    private Double annualInterestRate;
+}
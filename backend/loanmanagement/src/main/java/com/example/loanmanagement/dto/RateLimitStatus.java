@@ -0,0 +1,17 @@
+package com.example.loanmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RateLimitStatus {
+    private boolean enabled;
+    private double poolWaitMs;            // moving average of getConnection() wait
+    private int poolWaiters;              // threads queued on the pool right now
+    private double shedProbability;       // share of requests currently turned away, 0..1
+    private int trackedClients;           // route/client buckets in memory
+    private List<RouteTrafficStats> routes;
+}
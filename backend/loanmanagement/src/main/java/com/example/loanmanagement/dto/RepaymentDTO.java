@@ -1,5 +1,6 @@
 package com.example.loanmanagement.dto;
 
+import com.example.loanmanagement.model.Money;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -8,7 +9,7 @@ import java.time.LocalDate;
 public class RepaymentDTO {
     private Long id;
     private LocalDate dueDate;
-    private Double principal;
-    private Double interest;
+    private Money principal;
+    private Money interest;
     private String status;
 }
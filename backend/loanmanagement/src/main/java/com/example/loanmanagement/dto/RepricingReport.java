@@ -0,0 +1,42 @@
+package com.example.loanmanagement.dto;
+
+import com.example.loanmanagement.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RepricingReport {
+    private Long runId;
+    private String benchmark;
+    private Double previousRate;
+    private Double benchmarkRate;
+    private String status;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMs;
+
+    private long loansRepriced;
+    private long loansUnchanged;           // already at the new rate, or nothing left to pay
+    private long rowsUpdated;
+    private Money emiBefore;               // sum of the repriced loans' EMIs
+    private Money emiAfter;
+    private Money interestBefore;          // unpaid interest left on their schedules
+    private Money interestAfter;
+    private List<PartitionProgress> partitions = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class PartitionProgress {
+        private int partition;
+        private long fromId;               // exclusive
+        private long toId;                 // inclusive
+        private long lastId;               // checkpoint
+        private boolean done;
+        private long loansRepriced;
+    }
+}
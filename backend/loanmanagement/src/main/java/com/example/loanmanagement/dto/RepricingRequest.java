@@ -0,0 +1,15 @@
+package com.example.loanmanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+@Data
+public class RepricingRequest {
+    @NotBlank
+    private String benchmark;
+
+    @NotNull @PositiveOrZero
+    private Double rate;            // new benchmark value, annual %
+}
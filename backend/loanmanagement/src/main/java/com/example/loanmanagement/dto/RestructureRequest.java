@@ -0,0 +1,18 @@
+package com.example.loanmanagement.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+@Data
+public class RestructureRequest {
+    // installments left after restructuring (the paid ones are kept as they are)
+    @NotNull @Min(1) @Max(600)
+    private Integer remainingMonths;
+
+    // new rate for the remaining installments; current rate if omitted
+    @PositiveOrZero
+    private Double annualInterestRate;
+}
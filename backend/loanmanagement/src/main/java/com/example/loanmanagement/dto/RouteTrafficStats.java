@@ -0,0 +1,16 @@
+package com.example.loanmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RouteTrafficStats {
+    private String route;                 // name under loan.rate-limit.routes, or "default"
+    private String pattern;               // e.g. "POST /api/loans/apply"
+    private int inFlight;
+    private long allowed;
+    private long rateLimited;             // 429, client over its bucket
+    private long overConcurrency;         // 503, route at max-concurrent
+    private long shed;                    // 503, connection pool under pressure
+}
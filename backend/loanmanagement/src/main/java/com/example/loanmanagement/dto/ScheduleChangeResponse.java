@@ -0,0 +1,15 @@
+package com.example.loanmanagement.dto;
+
+import com.example.loanmanagement.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ScheduleChangeResponse {
+    private LoanResponse loan;
+    private Money settled;          // amount taken now (prepayment, or payoff incl. accrued interest); zero for restructuring
+    private int rowsUpdated;
+    private int rowsDeleted;
+    private int rowsInserted;
+}
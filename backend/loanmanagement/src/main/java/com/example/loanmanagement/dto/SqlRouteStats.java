@@ -0,0 +1,17 @@
+package com.example.loanmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SqlRouteStats {
+    private String route;                 // e.g. "GET /api/loans/{loanId}"
+    private long requests;
+    private long statements;
+    private double statementsPerRequest;
+    private int maxStatements;
+    private long rows;
+    private long timeMs;
+    private long overBudget;              // requests above loan.sql.statement-budget
+}
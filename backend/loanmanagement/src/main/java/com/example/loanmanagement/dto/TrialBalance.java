@@ -0,0 +1,29 @@
+package com.example.loanmanagement.dto;
+
+import com.example.loanmanagement.model.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TrialBalance {
+    private LocalDate businessDate;
+    private long entriesPosted;            // by this run; 0 when the day was already closed
+    private long elapsedMs;
+    private List<AccountLine> accounts = new ArrayList<>();
+    private Money totalDebits;             // of the day, i.e. the interest accrued
+    private Money totalCredits;
+    private boolean balanced;
+
+    @Data
+    @AllArgsConstructor
+    public static class AccountLine {
+        private String account;
+        private Money debits;              // movements of the day
+        private Money credits;
+        private Money balance;             // closing balance, debit positive
+    }
+}
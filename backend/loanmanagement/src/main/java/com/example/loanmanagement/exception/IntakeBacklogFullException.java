@@ -0,0 +1,7 @@
+package com.example.loanmanagement.exception;
+
+public class IntakeBacklogFullException extends RuntimeException {
+    public IntakeBacklogFullException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.loanmanagement.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,5 +14,17 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
     }
 
+    @ExceptionHandler(IntakeBacklogFullException.class)
+    public ResponseEntity<String> handleIntakeBacklogFullException(IntakeBacklogFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(UnknownBenchmarkException.class)
+    public ResponseEntity<String> handleUnknownBenchmarkException(UnknownBenchmarkException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
+
     // You may add other exception handlers as needed
 }
\ No newline at end of file
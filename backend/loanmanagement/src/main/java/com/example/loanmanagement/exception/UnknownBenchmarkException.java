@@ -0,0 +1,7 @@
+package com.example.loanmanagement.exception;
+
+public class UnknownBenchmarkException extends RuntimeException {
+    public UnknownBenchmarkException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.loanmanagement.mapper;
+
+import com.example.loanmanagement.model.Money;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A fields= selection over LoanResponse: which attributes were asked for and the column each one
+ * reads, so the SELECT list and the JSON both carry only those. id is always included.
+ * Column names come from the fixed table below, never from the request.
+ */
+public final class LoanFieldSet {
+
+    private enum Type { LONG, INT, STRING, MONEY, DATE }
+
+    private record Column(String sql, Type type, boolean applicant) {
+    }
+
+    private static final Map<String, Column> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", new Column("l.id", Type.LONG, false));
+        COLUMNS.put("amount", new Column("l.amount_minor", Type.MONEY, false));
+        COLUMNS.put("loanType", new Column("l.loan_type", Type.STRING, false));
+        COLUMNS.put("tenureMonths", new Column("l.tenure_months", Type.INT, false));
+        COLUMNS.put("purpose", new Column("l.purpose", Type.STRING, false));
+        COLUMNS.put("annualIncome", new Column("l.annual_income_minor", Type.MONEY, false));
+        COLUMNS.put("status", new Column("l.status", Type.STRING, false));
+        COLUMNS.put("adminRemark", new Column("l.admin_remark", Type.STRING, false));
+        COLUMNS.put("startDate", new Column("l.start_date", Type.DATE, false));
+        COLUMNS.put("emi", new Column("l.emi_minor", Type.MONEY, false));
+        COLUMNS.put("outstandingPrincipal", new Column("l.outstanding_principal_minor", Type.MONEY, false));
+        COLUMNS.put("paidInstallments", new Column("l.paid_installments", Type.INT, false));
+        COLUMNS.put("nextDueDate", new Column("l.next_due_date", Type.DATE, false));
+        COLUMNS.put("nextDueAmount", new Column("l.next_due_amount_minor", Type.MONEY, false));
+        COLUMNS.put("riskScore", new Column("l.risk_score", Type.INT, false));
+        COLUMNS.put("riskReasons", new Column("l.risk_reasons", Type.STRING, false));
+        COLUMNS.put("customerName", new Column("u.name", Type.STRING, true));
+        COLUMNS.put("customerEmail", new Column("u.email", Type.STRING, true));
+    }
+
+    private final List<String> names;
+
+    private LoanFieldSet(List<String> names) {
+        this.names = names;
+    }
+
+    /** Parse a comma-separated list of LoanResponse attribute names */
+    public static LoanFieldSet parse(String fields) {
+        List<String> names = new ArrayList<>();
+        names.add("id");
+        for (String f : fields.split(",")) {
+            String name = f.trim();
+            if (name.isEmpty() || names.contains(name)) continue;
+            if (!COLUMNS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + " (allowed: " + String.join(",", COLUMNS.keySet()) + ")");
+            }
+            names.add(name);
+        }
+        return new LoanFieldSet(names);
+    }
+
+    /** SELECT ... FROM for these fields; the applicant is joined only when one of its fields is asked for */
+    public String selectFrom() {
+        StringBuilder sql = new StringBuilder("select ");
+        boolean applicant = false;
+        for (int i = 0; i < names.size(); i++) {
+            Column c = COLUMNS.get(names.get(i));
+            if (i > 0) sql.append(", ");
+            sql.append(c.sql());
+            applicant |= c.applicant();
+        }
+        sql.append(" from loan l");
+        if (applicant) sql.append(" left join users u on u.id = l.user_id");
+        return sql.toString();
+    }
+
+    /** One row of {@link #selectFrom()} as attribute name -> value, in the requested order */
+    public Map<String, Object> read(ResultSet rs) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            int col = i + 1;
+            Object value = switch (COLUMNS.get(names.get(i)).type()) {
+                case LONG -> rs.getObject(col, Long.class);
+                case INT -> rs.getObject(col, Integer.class);
+                case STRING -> rs.getString(col);
+                case MONEY -> {
+                    long minor = rs.getLong(col);
+                    yield rs.wasNull() ? null : Money.ofMinor(minor);
+                }
+                case DATE -> {
+                    Date d = rs.getDate(col);
+                    yield d == null ? null : d.toLocalDate();
+                }
+            };
+            row.put(names.get(i), value);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.loanmanagement.mapper;
+
+import com.example.loanmanagement.dto.LoanResponse;
+import com.example.loanmanagement.model.Loan;
+import org.springframework.stereotype.Component;
+
+/** The one place Loan is turned into LoanResponse; plain getter/setter copies, no reflection */
+@Component
+public class LoanMapper {
+
+    public LoanResponse toResponse(Loan loan) {
+        LoanResponse r = new LoanResponse();
+        r.setId(loan.getId());
+        r.setAmount(loan.getAmount());
+        r.setLoanType(loan.getLoanType());
+        r.setTenureMonths(loan.getTenureMonths());
+        r.setPurpose(loan.getPurpose());
+        r.setAnnualIncome(loan.getAnnualIncome());
+        r.setStatus(loan.getStatus() == null ? null : loan.getStatus().name());
+        r.setAdminRemark(loan.getAdminRemark());
+        r.setStartDate(loan.getStartDate());
+        r.setEmi(loan.getEmi());
+        r.setOutstandingPrincipal(loan.getOutstandingPrincipal());
+        r.setPaidInstallments(loan.getPaidInstallments());
+        r.setNextDueDate(loan.getNextDueDate());
+        r.setNextDueAmount(loan.getNextDueAmount());
+        r.setRiskScore(loan.getRiskScore());
+        r.setRiskReasons(loan.getRiskReasons());
+
+        if (loan.getUser() != null) {
+            r.setCustomerName(loan.getUser().getName());
+            r.setCustomerEmail(loan.getUser().getEmail());
+        }
+        return r;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.loanmanagement.mapper;
+
+import com.example.loanmanagement.dto.RepaymentDTO;
+import com.example.loanmanagement.model.Repayment;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RepaymentMapper {
+
+    public RepaymentDTO toDto(Repayment repayment) {
+        RepaymentDTO d = new RepaymentDTO();
+        d.setId(repayment.getId());
+        d.setDueDate(repayment.getDueDate());
+        d.setPrincipal(repayment.getPrincipal());
+        d.setInterest(repayment.getInterest());
+        d.setStatus(repayment.getStatus() == null ? null : repayment.getStatus().name());
+        return d;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.loanmanagement.mapper;
+
+import com.example.loanmanagement.dto.CustomerDto;
+import com.example.loanmanagement.dto.CustomerSummary;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.User;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserMapper {
+
+    public CustomerDto toCustomerDto(User user) {
+        return new CustomerDto(user.getId(), user.getName(), user.getEmail());
+    }
+
+    /** Row of UserRepository.searchCustomers: [id, name, email, loanCount, exposureMinor] */
+    public CustomerSummary toCustomerSummary(Object[] row) {
+        return new CustomerSummary(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                ((Number) row[3]).longValue(), Money.ofMinor(((Number) row[4]).longValue()));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Current value of a reference rate (e.g. REPO) that floating-rate loans are priced over */
+@Entity
+@Table(name = "benchmark_rate")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BenchmarkRate {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private Double rate;
+
+    private LocalDateTime updatedAt;
+}
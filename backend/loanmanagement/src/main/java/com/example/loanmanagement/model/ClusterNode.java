@@ -0,0 +1,22 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** A running instance; live while its heartbeat is recent. Sizes the shard count of new job runs */
+@Entity
+@Table(name = "cluster_node")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterNode {
+
+    @Id
+    @Column(length = 64)
+    private String nodeId;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,27 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/** A non-business day of one holiday calendar (weekends come from loan.calendar.weekend) */
+@Entity
+@Table(name = "holiday", uniqueConstraints = @UniqueConstraint(columnNames = {"calendar", "holidayDate"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Holiday {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String calendar;
+
+    @Column(nullable = false)
+    private LocalDate holidayDate;
+
+    private String name;
+}
@@ -0,0 +1,49 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The response to a request sent with an Idempotency-Key, kept until expiresAt so a retry gets it back.
+ * status 0 = the first request is still running.
+ */
+@Entity
+@Table(name = "idempotency_record",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"owner", "idemKey"}),
+        indexes = @Index(columnList = "expiresAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // user the key belongs to; keys from different users never collide
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false, length = 100)
+    private String idemKey;
+
+    // SHA-256 of the request body, to refuse the same key with a different request
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private int status;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(length = 8000)
+    private String body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,47 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** One execution of a cluster job (see ClusterJobScheduler); runKey makes each scheduled run happen once */
+@Entity
+@Table(name = "job_run", uniqueConstraints = @UniqueConstraint(columnNames = {"jobName", "runKey"}),
+        indexes = @Index(columnList = "status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String jobName;
+
+    @Column(nullable = false, length = 32)
+    private String runKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private int shards;
+    private int shardsDone;
+    private long items;
+
+    @Column(length = 64)
+    private String createdBy;           // node id
+
+    private String message;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** The last scheduled firing of a job that the leader turned into a run; missed firings after it are caught up */
+@Entity
+@Table(name = "job_schedule")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobSchedule {
+
+    @Id
+    @Column(length = 64)
+    private String jobName;
+
+    private LocalDateTime lastFiredAt;
+}
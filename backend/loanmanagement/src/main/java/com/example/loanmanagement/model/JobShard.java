@@ -0,0 +1,47 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** A loan-id range (fromId, toId] of a JobRun, claimed by one node at a time under a renewable lease */
+@Entity
+@Table(name = "job_shard", indexes = {@Index(columnList = "status"), @Index(columnList = "runId")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long runId;
+
+    private int shardNo;
+    private long fromId;
+    private long toId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(length = 64)
+    private String owner;               // node id while RUNNING, last owner after
+
+    private LocalDateTime leaseUntil;
+    private int attempts;
+    private long items;
+
+    private String message;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+}
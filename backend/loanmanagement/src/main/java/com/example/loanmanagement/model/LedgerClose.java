@@ -0,0 +1,38 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/** Closing position of one ledger account for a business day: the day's movements and the running balance */
+@Entity
+@Table(name = "ledger_close", uniqueConstraints = @UniqueConstraint(columnNames = {"businessDate", "account"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerClose {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate businessDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private LedgerEntry.Account account;
+
+    @Column(name = "debits_minor")
+    private Money debits;
+
+    @Column(name = "credits_minor")
+    private Money credits;
+
+    @Column(name = "balance_minor")
+    private Money balance;             // debits minus credits since the first close
+
+    private LocalDateTime closedAt;
+}
@@ -0,0 +1,52 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One double-entry posting: amount is debited to debitAccount and credited to creditAccount,
+ * so every row balances on its own. At most one entry per loan, day and type, which makes
+ * re-running a day's posting a no-op for the loans already posted.
+ */
+@Entity
+@Table(name = "ledger_entry",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"loanId", "businessDate", "entryType"}),
+        indexes = @Index(columnList = "businessDate"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate businessDate;
+
+    @Column(nullable = false)
+    private Long loanId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Account debitAccount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Account creditAccount;
+
+    @Column(name = "amount_minor", nullable = false)
+    private Money amount;
+
+    @Column(nullable = false, length = 16)
+    private String entryType;          // ACCRUAL
+
+    private LocalDateTime createdAt;
+
+    public enum Account {
+        INTEREST_RECEIVABLE, INTEREST_INCOME
+    }
+}
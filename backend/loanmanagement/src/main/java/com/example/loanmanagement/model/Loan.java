@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -17,20 +18,46 @@ public class Loan {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private Double amount;
+    // money columns hold minor units (see MoneyConverter); *_minor replaced the old double columns
+    @Column(name = "amount_minor")
+    private Money amount;
     private String loanType;
     private Integer tenureMonths;
     private String purpose;
-    private Double annualIncome;
+    @Column(name = "annual_income_minor")
+    private Money annualIncome;
     private Double annualInterestRate;
 
+    // Floating-rate loans: annualInterestRate = benchmark rate + rateSpread, reset by RepricingService.
+    // Null benchmark means a fixed rate.
+    private String benchmark;
+    private Double rateSpread;
+
     @Enumerated(EnumType.STRING)
     private Status status;
 
     private String adminRemark;
 
     private LocalDate startDate;
-    private Double emi;
+    @Column(name = "emi_minor")
+    private Money emi;
+
+    // Denormalized schedule summary, kept in step with the repayment rows
+    @Column(name = "outstanding_principal_minor")
+    private Money outstandingPrincipal;
+    private Integer paidInstallments;
+    private LocalDate nextDueDate;
+    @Column(name = "next_due_amount_minor")
+    private Money nextDueAmount;
+
+    // Filled in by LoanScoringService for PENDING loans
+    private Integer riskScore;
+    @Column(length = 1000)
+    private String riskReasons;
+    private LocalDateTime scoredAt;
+
+    // Set once the repayment rows have moved to repayment_archive (see RepaymentArchiveService)
+    private LocalDateTime archivedAt;
 
     @ManyToOne
     @JoinColumn(name = "user_id")
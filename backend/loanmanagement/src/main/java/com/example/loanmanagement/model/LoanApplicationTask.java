@@ -0,0 +1,40 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Outbox row for an application accepted through async intake; drained by LoanApplicationWorker */
+@Entity
+@Table(name = "loan_application_task", indexes = @Index(columnList = "status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanApplicationTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String trackingId;
+
+    @Column(nullable = false)
+    private Long loanId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private int attempts;
+
+    private String message;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        QUEUED, PROCESSING, COMPLETED, REJECTED, FAILED
+    }
+}
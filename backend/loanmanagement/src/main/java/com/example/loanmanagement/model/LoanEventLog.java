@@ -0,0 +1,41 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Append-only history of loan and repayment transitions; rows are never updated or deleted */
+@Entity
+@Table(name = "loan_event_log", indexes = @Index(columnList = "loanId, occurredAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanEventLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long loanId;
+    private Long repaymentId;
+
+    @Column(nullable = false)
+    private String eventType;
+    private String fromStatus;
+    private String toStatus;
+    private String actor;
+    @Column(length = 1000)
+    private String remark;
+    @Column(length = 1000)
+    private String previousRemark;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+    private LocalDateTime recordedAt;
+
+    // id of the outbox row this came from, keeps the drain idempotent
+    @Column(unique = true)
+    private Long outboxId;
+}
@@ -0,0 +1,37 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Audit events written in the business transaction, waiting for LoanEventLogService's drainer to move them */
+@Entity
+@Table(name = "loan_event_outbox", indexes = @Index(columnList = "loanId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanEventOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long loanId;
+    private Long repaymentId;
+
+    @Column(nullable = false)
+    private String eventType;
+    private String fromStatus;
+    private String toStatus;
+    private String actor;
+    @Column(length = 1000)
+    private String remark;
+    // admin remark the change replaced, when it replaced one
+    @Column(length = 1000)
+    private String previousRemark;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
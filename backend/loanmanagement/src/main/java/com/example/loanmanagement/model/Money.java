@@ -0,0 +1,76 @@
+package com.example.loanmanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exact currency amount held as a long count of minor units (cents).
+ * Stored as BIGINT through {@link MoneyConverter}; serialized to JSON as a plain decimal (e.g. 1234.50).
+ * Hot loops should work on {@link #minor()} directly and wrap the result once.
+ */
+public record Money(long minor) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    /** From a major-unit double (e.g. a validated request field), rounded half-up to the cent */
+    public static Money of(double major) {
+        return ofMinor(toMinor(major));
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal major) {
+        return ofMinor(major.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+    }
+
+    /** Major units -> minor units, half-up; for callers that keep longs in tight loops */
+    public static long toMinor(double major) {
+        return major >= 0 ? (long) Math.floor(major * 100 + 0.5) : -(long) Math.floor(-major * 100 + 0.5);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    public Money times(long factor) {
+        return ofMinor(Math.multiplyExact(minor, factor));
+    }
+
+    public boolean isZero() {
+        return minor == 0;
+    }
+
+    public boolean isPositive() {
+        return minor > 0;
+    }
+
+    /** Major units as a double; for ratios and statistics only, never for further money math */
+    public double toDouble() {
+        return minor / 100.0;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, 2);
+    }
+
+    @Override
+    public int compareTo(Money o) {
+        return Long.compare(minor, o.minor);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One cell of the pricing grid: the rate for loans of a type whose amount and tenure
+ * are at or above the given floors (up to the next floor in the same card set).
+ */
+@Entity
+@Table(name = "rate_card", uniqueConstraints = @UniqueConstraint(columnNames = {"loanType", "minAmount", "minTenureMonths"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateCard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String loanType;
+
+    @Column(nullable = false)
+    private Double minAmount;
+
+    @Column(nullable = false)
+    private Integer minTenureMonths;
+
+    @Column(nullable = false)
+    private Double annualInterestRate;
+
+    private LocalDateTime publishedAt;
+}
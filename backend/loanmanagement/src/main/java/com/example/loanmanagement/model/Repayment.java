@@ -18,13 +18,20 @@ public class Repayment {
 
     private LocalDate dueDate;
 
-    private Double principal;
+    @Column(name = "principal_minor")
+    private Money principal;
 
-    private Double interest;
+    @Column(name = "interest_minor")
+    private Money interest;
 
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    // null on rows written before the column existed, which are all installments
+    @Enumerated(EnumType.STRING)
+    @Column(name = "row_type", length = 16)
+    private Type type;
+
     @ManyToOne
     @JoinColumn(name = "loan_id")
     @JsonBackReference
@@ -33,4 +40,13 @@ public class Repayment {
     public enum Status {
         PAID, PENDING
     }
+
+    public enum Type {
+        INSTALLMENT,    // part of the amortization schedule
+        SETTLEMENT      // a prepayment or foreclosure paid outside it; never counts as an installment
+    }
+
+    public boolean isSettlement() {
+        return type == Type.SETTLEMENT;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A loan-id range (fromId, toId] of a repricing run. lastId is the checkpoint: it moves forward
+ * in the same transaction as each committed chunk, so a resumed run continues right after it.
+ */
+@Entity
+@Table(name = "repricing_partition", indexes = @Index(columnList = "runId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long runId;
+
+    private int partitionNo;
+    private long fromId;
+    private long toId;
+    private long lastId;
+    private boolean done;
+
+    // running totals, updated with the checkpoint
+    private long loansRepriced;
+    private long loansUnchanged;
+    private long rowsUpdated;
+    @Column(name = "emi_before_minor")
+    private Money emiBefore;
+    @Column(name = "emi_after_minor")
+    private Money emiAfter;
+    @Column(name = "interest_before_minor")
+    private Money interestBefore;   // unpaid interest left on the schedules before / after repricing
+    @Column(name = "interest_after_minor")
+    private Money interestAfter;
+}
@@ -0,0 +1,45 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** One benchmark change applied to the floating-rate book; progress lives in its RepricingPartition rows */
+@Entity
+@Table(name = "repricing_run", indexes = @Index(columnList = "status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepricingRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String benchmark;
+
+    private Double previousRate;
+
+    @Column(nullable = false)
+    private Double benchmarkRate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private String message;
+
+    // node running it and until when; a RUNNING run whose lease lapsed was left by a node that died
+    @Column(length = 64)
+    private String owner;
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
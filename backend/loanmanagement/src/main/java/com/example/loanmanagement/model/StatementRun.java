@@ -0,0 +1,67 @@
+package com.example.loanmanagement.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One monthly statement batch for a period and format. Customers are processed in id order;
+ * lastUserId and manifestBytes are the checkpoint a failed run resumes from.
+ */
+@Entity
+@Table(name = "statement_run", uniqueConstraints = @UniqueConstraint(columnNames = {"period", "format"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String period;              // yyyy-MM
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Format format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private String directory;
+
+    private long lastUserId;
+    private long manifestBytes;
+    private long statements;
+    private long bytesWritten;
+
+    private String message;
+
+    // node running it and until when; a RUNNING run whose lease lapsed was left by a node that died
+    @Column(length = 64)
+    private String owner;
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    public enum Format {
+        TEXT("txt", "text/plain"), CSV("csv", "text/csv"), HTML("html", "text/html");
+
+        public final String extension;
+        public final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+    }
+}
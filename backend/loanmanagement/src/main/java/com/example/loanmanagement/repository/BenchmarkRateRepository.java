@@ -0,0 +1,7 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.BenchmarkRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BenchmarkRateRepository extends JpaRepository<BenchmarkRate, String> {
+}
@@ -0,0 +1,12 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    List<ClusterNode> findByHeartbeatAtAfterOrderByNodeId(LocalDateTime since);
+}
@@ -0,0 +1,17 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+
+    List<Holiday> findByCalendarOrderByHolidayDate(String calendar);
+
+    @Modifying
+    @Query("delete from Holiday h where h.calendar = :calendar")
+    int deleteByCalendar(String calendar);
+}
@@ -0,0 +1,16 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    Optional<JobRun> findByJobNameAndRunKey(String jobName, String runKey);
+
+    List<JobRun> findByStatus(JobRun.Status status);
+
+    List<JobRun> findTop50ByOrderByIdDesc();
+}
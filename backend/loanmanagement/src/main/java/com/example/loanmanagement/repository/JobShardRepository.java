@@ -0,0 +1,11 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.JobShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface JobShardRepository extends JpaRepository<JobShard, Long> {
+
+    List<JobShard> findByRunIdOrderByShardNo(Long runId);
+}
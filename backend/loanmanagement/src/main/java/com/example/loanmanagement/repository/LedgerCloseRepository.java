@@ -0,0 +1,20 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.LedgerClose;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface LedgerCloseRepository extends JpaRepository<LedgerClose, Long> {
+
+    List<LedgerClose> findByBusinessDateOrderByAccount(LocalDate businessDate);
+
+    @Query("select max(c.businessDate) from LedgerClose c")
+    Optional<LocalDate> findLastClosedDate();
+
+    @Query("select max(c.businessDate) from LedgerClose c where c.businessDate < :date")
+    Optional<LocalDate> findLastClosedDateBefore(LocalDate date);
+}
@@ -0,0 +1,45 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.LoanApplicationTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface LoanApplicationTaskRepository extends JpaRepository<LoanApplicationTask, Long> {
+
+    Optional<LoanApplicationTask> findByTrackingId(String trackingId);
+
+    long countByStatus(LoanApplicationTask.Status status);
+
+    boolean existsByLoanIdAndStatusIn(Long loanId, Collection<LoanApplicationTask.Status> statuses);
+
+    // Row-locks up to :limit queued tasks; other workers/nodes skip them instead of blocking
+    @Query(value = "select id from loan_application_task where status = 'QUEUED' order by id limit :limit for update skip locked",
+            nativeQuery = true)
+    List<Long> lockQueued(int limit);
+
+    @Modifying
+    @Query("update LoanApplicationTask t set t.status = com.example.loanmanagement.model.LoanApplicationTask$Status.PROCESSING, " +
+            "t.attempts = t.attempts + 1, t.updatedAt = :now where t.id in :ids")
+    int markProcessing(List<Long> ids, LocalDateTime now);
+
+    // Requeue work a crashed node claimed but never finished, while it has attempts left
+    @Modifying
+    @Query("update LoanApplicationTask t set t.status = com.example.loanmanagement.model.LoanApplicationTask$Status.QUEUED " +
+            "where t.status = com.example.loanmanagement.model.LoanApplicationTask$Status.PROCESSING and t.updatedAt < :before " +
+            "and t.attempts < :maxAttempts")
+    int requeueStale(LocalDateTime before, int maxAttempts);
+
+    // Stale claims that already used their last attempt
+    @Modifying
+    @Query("update LoanApplicationTask t set t.status = com.example.loanmanagement.model.LoanApplicationTask$Status.FAILED, " +
+            "t.message = 'Gave up after the last attempt never finished', t.updatedAt = :now " +
+            "where t.status = com.example.loanmanagement.model.LoanApplicationTask$Status.PROCESSING and t.updatedAt < :before " +
+            "and t.attempts >= :maxAttempts")
+    int failStale(LocalDateTime before, int maxAttempts, LocalDateTime now);
+}
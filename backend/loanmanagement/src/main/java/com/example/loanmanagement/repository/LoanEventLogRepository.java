@@ -0,0 +1,11 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.LoanEventLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface LoanEventLogRepository extends JpaRepository<LoanEventLog, Long> {
+
+    List<LoanEventLog> findByLoanIdOrderByOccurredAtAscOutboxIdAsc(Long loanId);
+}
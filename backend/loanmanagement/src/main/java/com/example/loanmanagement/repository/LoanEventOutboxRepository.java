@@ -0,0 +1,11 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.LoanEventOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface LoanEventOutboxRepository extends JpaRepository<LoanEventOutbox, Long> {
+
+    List<LoanEventOutbox> findByLoanIdOrderByIdAsc(Long loanId);
+}
@@ -2,18 +2,64 @@ package com.example.loanmanagement.repository;
 
 import com.example.loanmanagement.model.Loan;
 import com.example.loanmanagement.model.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LoanRepository extends JpaRepository<Loan, Long> {
     List<Loan> findByUser(User user);
+
+    // applicant joined in, not one select per distinct user
+    @EntityGraph(attributePaths = "user")
     List<Loan> findByStatus(Loan.Status status);
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Loan> findAll();
+
+    // multi-get: one IN query with the applicant joined
+    @EntityGraph(attributePaths = "user")
+    List<Loan> findByIdIn(Collection<Long> ids);
+
     List<Loan> findByUserAndStatusNot(User user, Loan.Status status);
 
+    // row lock for changes that rewrite the schedule (prepayment, foreclosure, restructuring)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Loan l where l.id = :id")
+    Optional<Loan> findByIdForUpdate(Long id);
+
     long countByStatus(Loan.Status status);
 
-    @Query("select coalesce(sum(l.amount), 0) from Loan l where l.status = com.example.loanmanagement.model.Loan$Status.APPROVED")
-    Double sumApprovedAmounts();
+    // in minor units (amount is a Money column)
+    @Query(value = "select coalesce(sum(l.amount_minor), 0) from loan l where l.status = 'APPROVED'", nativeQuery = true)
+    long sumApprovedAmountsMinor();
+
+    // Flat scalar rows for the analytics snapshot; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("select l.amount, l.loanType, l.tenureMonths, l.annualIncome, l.status, l.emi, l.outstandingPrincipal from Loan l")
+    Stream<Object[]> streamAnalyticsRows();
+
+    // Repayment terms of every loan in a status, as scalar rows (no entity or user loading)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("select l.amount, l.annualInterestRate, l.tenureMonths, l.emi, l.outstandingPrincipal, " +
+            "l.paidInstallments, l.nextDueDate, l.startDate from Loan l where l.status = :status")
+    Stream<Object[]> streamTermRows(Loan.Status status);
+
+    // Keyset page of loans in a status, with the applicant fetched in the same query
+    @EntityGraph(attributePaths = "user")
+    List<Loan> findByStatusAndIdGreaterThanOrderByIdAsc(Loan.Status status, Long afterId, Limit limit);
+
+    // [userId, status, count] for a batch of applicants
+    @Query("select l.user.id, l.status, count(l) from Loan l where l.user.id in :userIds group by l.user.id, l.status")
+    List<Object[]> countByUserAndStatus(Collection<Long> userIds);
 }
@@ -0,0 +1,12 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.RateCard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface RateCardRepository extends JpaRepository<RateCard, Long> {
+
+    // every publish inserts fresh ids, so this changes whenever the card set does; 0 for none
+    @Query("select coalesce(max(c.id), 0) from RateCard c")
+    long currentVersion();
+}
@@ -3,10 +3,36 @@ package com.example.loanmanagement.repository;
 import com.example.loanmanagement.model.Loan;
 import com.example.loanmanagement.model.Repayment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface RepaymentRepository extends JpaRepository<Repayment, Long> {
 
+    @Query("select r.loan.id from Repayment r where r.id = :id")
+    Optional<Long> findLoanIdById(Long id);
+
     List<Repayment> findByLoanId(Long loanId);
+
+    // Schedule of a closed loan after RepaymentArchiveService moved it out of the hot table; read-only
+    @Query(value = "select * from repayment_archive where loan_id = :loanId order by due_date", nativeQuery = true)
+    List<Repayment> findArchivedByLoanId(Long loanId);
+
+    // [id, dueDate, principal, interest] of a loan's unpaid installments in due order
+    @Query("select r.id, r.dueDate, r.principal, r.interest from Repayment r " +
+            "where r.loan.id = :loanId and r.status = com.example.loanmanagement.model.Repayment.Status.PENDING " +
+            "order by r.dueDate, r.id")
+    List<Object[]> findPendingTerms(Long loanId);
+
+    Optional<Repayment> findFirstByLoanIdAndStatusOrderByDueDateAsc(Long loanId, Repayment.Status status);
+
+    // Pending installments of approved loans due before :to, overdue ones included, rolled up per month:
+    // [month, principal, interest] in minor units
+    @Query(value = "select cast(date_trunc('month', r.due_date) as date), sum(r.principal_minor), sum(r.interest_minor) " +
+            "from repayment r join loan l on l.id = r.loan_id " +
+            "where l.status = 'APPROVED' and r.status = 'PENDING' and r.due_date < :to " +
+            "group by 1 order by 1", nativeQuery = true)
+    List<Object[]> sumPendingByMonth(LocalDate to);
 }
\ No newline at end of file
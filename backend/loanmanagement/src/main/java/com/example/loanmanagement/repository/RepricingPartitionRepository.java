@@ -0,0 +1,11 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.RepricingPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface RepricingPartitionRepository extends JpaRepository<RepricingPartition, Long> {
+
+    List<RepricingPartition> findByRunIdOrderByPartitionNo(Long runId);
+}
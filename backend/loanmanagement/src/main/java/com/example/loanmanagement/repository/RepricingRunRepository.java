@@ -0,0 +1,16 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.RepricingRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RepricingRunRepository extends JpaRepository<RepricingRun, Long> {
+
+    boolean existsByStatusAndLeaseUntilAfter(RepricingRun.Status status, LocalDateTime time);
+
+    boolean existsByBenchmarkAndIdGreaterThan(String benchmark, Long id);
+
+    List<RepricingRun> findTop20ByOrderByIdDesc();
+}
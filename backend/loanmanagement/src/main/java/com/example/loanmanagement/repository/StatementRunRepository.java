@@ -0,0 +1,17 @@
+package com.example.loanmanagement.repository;
+
+import com.example.loanmanagement.model.StatementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface StatementRunRepository extends JpaRepository<StatementRun, Long> {
+
+    Optional<StatementRun> findByPeriodAndFormat(String period, StatementRun.Format format);
+
+    boolean existsByStatusAndLeaseUntilAfter(StatementRun.Status status, LocalDateTime time);
+
+    List<StatementRun> findTop20ByOrderByIdDesc();
+}
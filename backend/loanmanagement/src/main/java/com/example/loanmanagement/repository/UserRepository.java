@@ -2,6 +2,8 @@ package com.example.loanmanagement.repository;
 
 import com.example.loanmanagement.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +12,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // NEW: list users by role
     List<User> findByRole(User.Role role);
+
+    // which of these emails are already registered (one query per import chunk)
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    // One page of the customer directory after (afterName, afterId), with loan count and approved
+    // exposure (minor units) per row. pattern is already lower-cased with wildcards; the pg_trgm
+    // indexes from CustomerSearchIndexes serve the like filters on Postgres
+    @Query(value = "select u.id, u.name, u.email, " +
+            "(select count(*) from loan l where l.user_id = u.id), " +
+            "(select coalesce(sum(l.outstanding_principal_minor), 0) from loan l where l.user_id = u.id and l.status = 'APPROVED') " +
+            "from users u where u.role = 'CUSTOMER' " +
+            "and (lower(u.name) like :pattern or lower(u.email) like :pattern) " +
+            "and (u.name > :afterName or (u.name = :afterName and u.id > :afterId)) " +
+            "order by u.name, u.id limit :size", nativeQuery = true)
+    List<Object[]> searchCustomers(String pattern, String afterName, long afterId, int size);
+
+    @Query(value = "select count(*) from users u where u.role = 'CUSTOMER' " +
+            "and (lower(u.name) like :pattern or lower(u.email) like :pattern)", nativeQuery = true)
+    long countCustomers(String pattern);
 }
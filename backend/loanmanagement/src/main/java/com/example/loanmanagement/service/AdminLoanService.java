@@ -1,20 +1,26 @@
 package com.example.loanmanagement.service;
 
+import com.example.loanmanagement.dto.LoanLifecycleEvent;
 import com.example.loanmanagement.dto.LoanResponse;
+import com.example.loanmanagement.dto.RepaymentDTO;
 import com.example.loanmanagement.exception.LoanStatusConflictException;
+import com.example.loanmanagement.mapper.LoanMapper;
+import com.example.loanmanagement.mapper.RepaymentMapper;
 import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.LoanApplicationTask;
 import com.example.loanmanagement.model.Repayment;
+import com.example.loanmanagement.repository.LoanApplicationTaskRepository;
 import com.example.loanmanagement.repository.LoanRepository;
 import com.example.loanmanagement.repository.RepaymentRepository;
-import com.example.loanmanagement.util.DateUtil;
+import com.example.loanmanagement.security.SecurityUtils;
 import com.example.loanmanagement.util.EmiCalculator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -23,13 +29,18 @@ public class AdminLoanService {
 
     private final LoanRepository loanRepository;
     private final RepaymentRepository repaymentRepository;
+    private final LoanApplicationTaskRepository taskRepository;
+    private final RepaymentService repaymentService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanMapper loanMapper;
+    private final RepaymentMapper repaymentMapper;
 
     /** Get only PENDING loans as DTOs */
     @Transactional(readOnly = true)
     public List<LoanResponse> getPendingLoans() {
         return loanRepository.findByStatus(Loan.Status.PENDING)
                 .stream()
-                .map(this::toDto)
+                .map(loanMapper::toResponse)
                 .toList();
     }
 
@@ -38,15 +49,16 @@ public class AdminLoanService {
     public List<LoanResponse> getAllLoans() {
         return loanRepository.findAll()
                 .stream()
-                .map(this::toDto)
+                .map(loanMapper::toResponse)
                 .toList();
     }
 
     /** Approve a loan, generate repayments (if not already generated), return DTO */
     @Transactional
     public LoanResponse approveLoan(Long loanId, String remark) {
-        Loan loan = loanRepository.findById(loanId)
+        Loan loan = loanRepository.findByIdForUpdate(loanId)
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
+        checkNotUnderwriting(loanId);
 
         if (loan.getStatus() == Loan.Status.APPROVED) {
             throw new LoanStatusConflictException("ALREADY APPROVED THIS LOAN ADMIN");
@@ -56,60 +68,39 @@ public class AdminLoanService {
         }
 
         // Update loan
+        Loan.Status before = loan.getStatus();
+        String remarkBefore = loan.getAdminRemark();
         loan.setStatus(Loan.Status.APPROVED);
         loan.setAdminRemark(remark);
         loan.setStartDate(LocalDate.now());
 
-        // Calculate EMI
-        BigDecimal emi = EmiCalculator.calculateEMI(
-                BigDecimal.valueOf(loan.getAmount()),
-                loan.getAnnualInterestRate(),
-                loan.getTenureMonths()
-        );
-        loan.setEmi(emi.doubleValue());
-
-        loanRepository.save(loan);
-
         // Create repayments only if they don't exist yet
         List<Repayment> existingRepayments = repaymentRepository.findByLoanId(loanId);
 
         if (existingRepayments.isEmpty()) {
-            List<LocalDate> dueDates = DateUtil.generateDueDates(
-                    loan.getStartDate(),
-                    loan.getTenureMonths()
-            );
-
-            List<Repayment> repayments = new ArrayList<>();
-            double monthlyRate = (loan.getAnnualInterestRate() / 100.0) / 12.0;
-
-            for (LocalDate dueDate : dueDates) {
-                double interest = loan.getAmount() * monthlyRate;
-                double principal = emi.doubleValue() - interest;
-
-                Repayment repayment = new Repayment();
-                repayment.setLoan(loan);
-                repayment.setDueDate(dueDate);
-                repayment.setPrincipal(principal);
-                repayment.setInterest(interest);
-                repayment.setStatus(Repayment.Status.PENDING);
-
-                repayments.add(repayment);
-            }
-
-            repaymentRepository.saveAll(repayments);
-            loan.setRepayments(repayments);
+            loan.setRepayments(repaymentService.createSchedule(loan)); // also sets EMI
         } else {
+            loan.setEmi(EmiCalculator.calculateEMI(
+                    loan.getAmount(),
+                    loan.getAnnualInterestRate(),
+                    loan.getTenureMonths()
+            ));
             loan.setRepayments(existingRepayments); // reuse existing schedule
+            repaymentService.initSummary(loan, existingRepayments);
         }
 
-        return toDto(loan);
+        loanRepository.save(loan);
+        publish(LoanLifecycleEvent.Type.APPROVED, loan, before, remark, remarkBefore);
+
+        return loanMapper.toResponse(loan);
     }
 
     /** Reject a loan with remark, return DTO */
     @Transactional
     public LoanResponse rejectLoan(Long loanId, String remark) {
-        Loan loan = loanRepository.findById(loanId)
+        Loan loan = loanRepository.findByIdForUpdate(loanId)
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
+        checkNotUnderwriting(loanId);
 
         if (loan.getStatus() == Loan.Status.REJECTED) {
             throw new LoanStatusConflictException("ALREADY REJECTED THIS LOAN ADMIN");
@@ -118,42 +109,34 @@ public class AdminLoanService {
             throw new LoanStatusConflictException("LOAN IS ALREADY APPROVED AND CANNOT BE REJECTED");
         }
 
+        Loan.Status before = loan.getStatus();
+        String remarkBefore = loan.getAdminRemark();
         loan.setStatus(Loan.Status.REJECTED);
         loan.setAdminRemark(remark);
 
         loanRepository.save(loan);
-        return toDto(loan);
+        publish(LoanLifecycleEvent.Type.REJECTED, loan, before, remark, remarkBefore);
+        return loanMapper.toResponse(loan);
     }
 
-    /** Mark a repayment as paid (kept as entity return; change to DTO if you expose it) */
+    /** Mark a repayment as paid and update the loan's balance/next-due columns */
     @Transactional
-    public Repayment markRepaymentPaid(Long repaymentId) {
-        Repayment repayment = repaymentRepository.findById(repaymentId)
-                .orElseThrow(() -> new RuntimeException("Repayment not found"));
-        repayment.setStatus(Repayment.Status.PAID);
-        return repaymentRepository.save(repayment);
+    public RepaymentDTO markRepaymentPaid(Long repaymentId) {
+        return repaymentMapper.toDto(repaymentService.markPaid(repaymentId));
     }
 
-    /** Map Loan -> LoanResponse (includes customer name/email if available) */
-    private LoanResponse toDto(Loan l) {
-        LoanResponse r = new LoanResponse();
-        r.setId(l.getId());
-        r.setAmount(l.getAmount());
-        r.setLoanType(l.getLoanType());
-        r.setTenureMonths(l.getTenureMonths());
-        r.setPurpose(l.getPurpose());
-        r.setAnnualIncome(l.getAnnualIncome());
-        r.setStatus(l.getStatus().name());
-        r.setAdminRemark(l.getAdminRemark());
-        r.setStartDate(l.getStartDate());
-        r.setEmi(l.getEmi());
-
-        // These two lines require corresponding fields in LoanResponse.
-        if (l.getUser() != null) {
-            r.setCustomerName(l.getUser().getName());
-            r.setCustomerEmail(l.getUser().getEmail());
+    // an async application is decided by LoanApplicationWorker first; the loan lock is held,
+    // so a worker that is mid-way has either committed its task or not started
+    private void checkNotUnderwriting(Long loanId) {
+        if (taskRepository.existsByLoanIdAndStatusIn(loanId,
+                List.of(LoanApplicationTask.Status.QUEUED, LoanApplicationTask.Status.PROCESSING))) {
+            throw new LoanStatusConflictException("LOAN IS STILL IN AUTOMATED UNDERWRITING, TRY AGAIN SHORTLY");
         }
+    }
 
-        return r;
+    private void publish(LoanLifecycleEvent.Type type, Loan loan, Loan.Status before, String remark, String remarkBefore) {
+        eventPublisher.publishEvent(new LoanLifecycleEvent(type, loan.getId(), null,
+                before == null ? null : before.name(), loan.getStatus().name(),
+                SecurityUtils.currentActor(), remark, remarkBefore, LocalDateTime.now()));
     }
 }
@@ -2,6 +2,7 @@ package com.example.loanmanagement.service;
 
 import com.example.loanmanagement.dto.AdminStatsResponse;
 import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
 import com.example.loanmanagement.repository.LoanRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -15,7 +16,7 @@ public class AdminStatsService {
         long total = loanRepository.count();
         long pending = loanRepository.countByStatus(Loan.Status.PENDING);
         long approved = loanRepository.countByStatus(Loan.Status.APPROVED);
-        double disbursed = loanRepository.sumApprovedAmounts();
+        Money disbursed = Money.ofMinor(loanRepository.sumApprovedAmountsMinor());
         return new AdminStatsResponse(total, pending, approved, disbursed);
     }
 }
@@ -0,0 +1,105 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.config.BusinessCalendarProperties;
+import com.example.loanmanagement.dto.HolidayRequest;
+import com.example.loanmanagement.model.Holiday;
+import com.example.loanmanagement.repository.HolidayRepository;
+import com.example.loanmanagement.util.BusinessCalendar;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Due dates on business days. The holiday table is loaded once into one {@link BusinessCalendar}
+ * per calendar name and swapped in atomically when holidays are republished; each loan type picks
+ * its calendar, adjustment convention and month-end rule from loan.calendar.*.
+ */
+@Service
+@RequiredArgsConstructor
+public class BusinessCalendarService {
+
+    // used for calendar names that have no holidays published
+    private static final String WEEKENDS_ONLY = "";
+
+    private final HolidayRepository holidayRepository;
+    private final BusinessCalendarProperties properties;
+
+    private final AtomicReference<Map<String, BusinessCalendar>> calendars = new AtomicReference<>(Map.of());
+
+    /** n monthly due dates for a loan of this type starting on start (the first is due on start) */
+    public LocalDate[] dueDates(String loanType, LocalDate start, int n) {
+        BusinessCalendarProperties.Rule rule = rule(loanType);
+        return calendar(rule).monthlyDates(start, n, rule.getConvention(), rule.isMonthEnd());
+    }
+
+    /** The index-th due date of the same schedule, e.g. for installments appended to it */
+    public LocalDate dueDate(String loanType, LocalDate start, int index) {
+        BusinessCalendarProperties.Rule rule = rule(loanType);
+        return calendar(rule).monthlyDate(start, index, rule.getConvention(), rule.isMonthEnd());
+    }
+
+    public boolean isBusinessDay(String loanType, LocalDate date) {
+        return calendar(rule(loanType)).isBusinessDay(date);
+    }
+
+    public List<Holiday> getHolidays(String calendar) {
+        return holidayRepository.findByCalendarOrderByHolidayDate(normalize(calendar));
+    }
+
+    /** Replace one calendar's holidays; schedules built after the commit use them */
+    @Transactional
+    public List<Holiday> publish(String calendar, List<HolidayRequest> holidays) {
+        String name = normalize(calendar);
+        holidayRepository.deleteByCalendar(name);
+        List<Holiday> saved = holidayRepository.saveAll(holidays.stream()
+                .map(h -> new Holiday(null, name, h.getDate(), h.getName()))
+                .toList());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+        return saved;
+    }
+
+    /** Re-read holidays from the database, e.g. after another node published */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        Map<String, List<LocalDate>> byCalendar = new HashMap<>();
+        for (Holiday h : holidayRepository.findAll()) {
+            byCalendar.computeIfAbsent(normalize(h.getCalendar()), k -> new ArrayList<>()).add(h.getHolidayDate());
+        }
+        Map<String, BusinessCalendar> compiled = new HashMap<>();
+        byCalendar.forEach((name, dates) -> compiled.put(name, new BusinessCalendar(properties.getWeekend(), dates)));
+        compiled.put(WEEKENDS_ONLY, new BusinessCalendar(properties.getWeekend(), List.of()));
+        calendars.set(Map.copyOf(compiled));
+    }
+
+    private BusinessCalendarProperties.Rule rule(String loanType) {
+        return properties.getTypes().getOrDefault(normalize(loanType), properties.getDefaultRule());
+    }
+
+    private BusinessCalendar calendar(BusinessCalendarProperties.Rule rule) {
+        Map<String, BusinessCalendar> all = calendars.get();
+        BusinessCalendar c = all.get(normalize(rule.getCalendar()));
+        if (c == null) c = all.get(WEEKENDS_ONLY);
+        return c != null ? c : new BusinessCalendar(properties.getWeekend(), List.of()); // before the first load
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toUpperCase();
+    }
+}
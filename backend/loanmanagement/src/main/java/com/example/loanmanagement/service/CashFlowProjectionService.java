@@ -0,0 +1,193 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.CashFlowProjectionResponse;
+import com.example.loanmanagement.dto.CashFlowProjectionResponse.MonthlyInflow;
+import com.example.loanmanagement.dto.CashFlowScenario;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.util.EmiCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Expected monthly principal/interest inflows across APPROVED loans.
+ * The booked projection is a single GROUP BY over pending repayment rows; what-if
+ * scenarios re-amortize each loan from its terms with prepayment and default rates.
+ * Both expect every overdue installment in the current month.
+ */
+@Service
+@RequiredArgsConstructor
+public class CashFlowProjectionService {
+
+    public static final int MAX_MONTHS = 360;
+
+    private final LoanRepository loanRepository;
+    private final RepaymentRepository repaymentRepository;
+
+    /** Inflows straight from the stored schedule, bucketed by month in SQL; earlier months fold into the first */
+    @Transactional(readOnly = true)
+    public CashFlowProjectionResponse projectBooked(int months) {
+        LocalDate from = LocalDate.now().withDayOfMonth(1);
+        double[] principal = new double[months];
+        double[] interest = new double[months];
+
+        for (Object[] row : repaymentRepository.sumPendingByMonth(from.plusMonths(months))) {
+            int idx = (int) Math.max(0, ChronoUnit.MONTHS.between(from, toLocalDate(row[0])));
+            principal[idx] += row[1] == null ? 0 : ((Number) row[1]).longValue();
+            interest[idx] += row[2] == null ? 0 : ((Number) row[2]).longValue();
+        }
+        return toResponse("BOOKED", from, principal, interest);
+    }
+
+    /** Evaluate each scenario against the same loan terms; scenarios and loans both run in parallel */
+    @Transactional(readOnly = true)
+    public List<CashFlowProjectionResponse> projectScenarios(List<CashFlowScenario> scenarios, int months) {
+        LocalDate from = LocalDate.now().withDayOfMonth(1);
+        LoanTerms terms = loadTerms(from);
+
+        return scenarios.parallelStream()
+                .map(sc -> project(terms, sc, from, months))
+                .toList();
+    }
+
+    private CashFlowProjectionResponse project(LoanTerms t, CashFlowScenario sc, LocalDate from, int months) {
+        // annual rates -> single-month rates
+        double smm = 1 - Math.pow(1 - sc.getAnnualPrepaymentRate(), 1.0 / 12);
+        double mdr = 1 - Math.pow(1 - sc.getAnnualDefaultRate(), 1.0 / 12);
+
+        double[] acc = IntStream.range(0, t.size).parallel().collect(
+                () -> new double[2 * months],
+                (a, i) -> amortize(t, i, smm, mdr, months, a),
+                (a, b) -> Arrays.setAll(a, k -> a[k] + b[k]));
+
+        return toResponse(sc.getName(), from,
+                Arrays.copyOfRange(acc, 0, months), Arrays.copyOfRange(acc, months, 2 * months));
+    }
+
+    /**
+     * Adds one loan's expected inflows (in cents) into a[0..months) principal and a[months..2*months) interest.
+     * Scenario cash flows are probability-weighted, so they stay fractional until toResponse rounds them.
+     */
+    private static void amortize(LoanTerms t, int i, double smm, double mdr, int months, double[] a) {
+        double balance = t.balance[i];
+        double emi = t.emi[i];
+        double r = t.monthlyRate[i];
+        int remaining = t.remaining[i];
+        int catchUp = t.overdue[i];
+
+        for (int m = t.firstMonth[i]; m < months && remaining > 0 && balance >= 0.5; remaining--) {
+            balance *= 1 - mdr;
+            emi *= 1 - mdr;
+
+            double interest = balance * r;
+            double scheduled = remaining == 1 ? balance : Math.min(emi - interest, balance);
+            double prepaid = smm * (balance - scheduled);
+
+            a[m] += scheduled + prepaid;
+            a[months + m] += interest;
+
+            balance -= scheduled + prepaid;
+            emi *= 1 - smm;
+            // overdue installments all land in the current month
+            if (catchUp > 0) catchUp--;
+            else m++;
+        }
+    }
+
+    private LoanTerms loadTerms(LocalDate from) {
+        LoanTerms t = new LoanTerms((int) loanRepository.countByStatus(Loan.Status.APPROVED));
+        try (var rows = loanRepository.streamTermRows(Loan.Status.APPROVED)) {
+            rows.forEach(r -> {
+                long amount = r[0] == null ? 0 : ((Money) r[0]).minor();
+                double rate = r[1] == null ? 0 : (Double) r[1];
+                int tenure = r[2] == null ? 0 : (Integer) r[2];
+                Money emi = (Money) r[3];
+                Money outstanding = (Money) r[4];
+                int paid = r[5] == null ? 0 : (Integer) r[5];
+                LocalDate nextDue = (LocalDate) r[6];
+                LocalDate start = (LocalDate) r[7];
+
+                int i = t.append();
+                t.balance[i] = outstanding != null ? outstanding.minor() : amount;
+                t.monthlyRate[i] = rate / 100 / 12;
+                t.remaining[i] = Math.max(0, tenure - paid);
+                t.emi[i] = emi != null ? emi.minor()
+                        : EmiCalculator.calculateEmiMinor(amount, rate, Math.max(tenure, 1));
+
+                LocalDate next = nextDue != null ? nextDue
+                        : start != null ? start.plusMonths(paid) : from;
+                long offset = ChronoUnit.MONTHS.between(from, next.withDayOfMonth(1));
+                t.firstMonth[i] = (int) Math.max(0, offset);
+                // one installment fell due in each month before this one
+                t.overdue[i] = (int) Math.max(0, -offset);
+            });
+        }
+        return t;
+    }
+
+    /** principal/interest are in cents */
+    private static CashFlowProjectionResponse toResponse(String name, LocalDate from, double[] principal, double[] interest) {
+        List<MonthlyInflow> rows = new ArrayList<>(principal.length);
+        long totalP = 0, totalI = 0;
+        for (int m = 0; m < principal.length; m++) {
+            long p = Math.round(principal[m]);
+            long i = Math.round(interest[m]);
+            rows.add(new MonthlyInflow(from.plusMonths(m), Money.ofMinor(p), Money.ofMinor(i)));
+            totalP += p;
+            totalI += i;
+        }
+        return new CashFlowProjectionResponse(name, rows, Money.ofMinor(totalP), Money.ofMinor(totalI));
+    }
+
+    private static LocalDate toLocalDate(Object v) {
+        if (v instanceof LocalDate d) return d;
+        if (v instanceof java.sql.Date d) return d.toLocalDate();
+        if (v instanceof java.sql.Timestamp ts) return ts.toLocalDateTime().toLocalDate();
+        return LocalDate.parse(v.toString().substring(0, 10));
+    }
+
+    /** Struct-of-arrays view of the approved book (amounts in cents), read once per request */
+    private static final class LoanTerms {
+        int size;
+        double[] balance;
+        double[] monthlyRate;
+        double[] emi;
+        int[] remaining;
+        int[] firstMonth;
+        int[] overdue;
+
+        LoanTerms(int expected) {
+            int n = Math.max(expected, 16);
+            balance = new double[n];
+            monthlyRate = new double[n];
+            emi = new double[n];
+            remaining = new int[n];
+            firstMonth = new int[n];
+            overdue = new int[n];
+        }
+
+        /** Reserve the next row, growing if loans were approved after the count was taken */
+        int append() {
+            if (size == balance.length) {
+                int n = size * 2;
+                balance = Arrays.copyOf(balance, n);
+                monthlyRate = Arrays.copyOf(monthlyRate, n);
+                emi = Arrays.copyOf(emi, n);
+                remaining = Arrays.copyOf(remaining, n);
+                firstMonth = Arrays.copyOf(firstMonth, n);
+                overdue = Arrays.copyOf(overdue, n);
+            }
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.CustomerPage;
+import com.example.loanmanagement.dto.CustomerSummary;
+import com.example.loanmanagement.mapper.UserMapper;
+import com.example.loanmanagement.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin customer directory: keyset pages ordered by (name, id), optionally filtered by a
+ * prefix or substring of name or email. Page cost does not depend on how deep the admin scrolls;
+ * the matching total is counted once, for the first page.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerDirectoryService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    public enum Match { PREFIX, CONTAINS }
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+
+    @Transactional(readOnly = true)
+    public CustomerPage search(String query, Match match, String afterName, Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String pattern = pattern(query, match);
+        List<Object[]> rows = userRepository.searchCustomers(pattern,
+                afterName == null ? "" : afterName, afterId == null ? 0 : afterId, pageSize + 1);
+
+        boolean more = rows.size() > pageSize;
+        List<CustomerSummary> items = rows.stream().limit(pageSize).map(userMapper::toCustomerSummary).toList();
+        CustomerSummary last = more ? items.get(items.size() - 1) : null;
+        Long total = afterName == null && afterId == null ? userRepository.countCustomers(pattern) : null;
+        return new CustomerPage(items, last == null ? null : last.getName(), last == null ? null : last.getId(), total);
+    }
+
+    // lower-cased like pattern with the user's %, _ and \ taken literally
+    private static String pattern(String query, Match match) {
+        if (query == null || query.isBlank()) return "%";
+        String q = query.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return match == Match.PREFIX ? q + "%" : "%" + q + "%";
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.CustomerImportResult;
+import com.example.loanmanagement.dto.RegisterRequest;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.UserRepository;
+import com.example.loanmanagement.util.CsvReader;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk customer onboarding from partner files. Rows are read as a stream and handled in chunks:
+ * validation, one set-based query for emails already taken, BCrypt hashing fanned out over a
+ * bounded pool, then a JDBC batch insert. A bad row is reported with its line and skipped;
+ * it never fails the rest of the file. Throughput is bounded by BCrypt cost x hash threads,
+ * so partners that send BCrypt hashes ($2a$/$2b$/$2y$) skip hashing altogether; those must be
+ * well formed and at least loan.import.min-bcrypt-cost, or the row is rejected.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CustomerImportService {
+
+    private static final String INSERT_USER = "insert into users (name, email, password, role) values (?, ?, ?, ?)";
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]\\$(\\d{2})\\$[./A-Za-z0-9]{53}$");
+    // anything starting like a BCrypt hash is treated as one, never as a plain password
+    private static final Pattern BCRYPT_PREFIX = Pattern.compile("^\\$2[aby]?\\$");
+    private static final int MAX_BCRYPT_COST = 31;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${loan.import.chunk-size:500}")
+    private int chunkSize;
+
+    // 0 = one per core
+    @Value("${loan.import.hash-threads:0}")
+    private int hashThreads;
+
+    @Value("${loan.import.max-errors:1000}")
+    private int maxErrors;
+
+    // pre-hashed passwords below this cost are rejected; 10 is what our own encoder uses
+    @Value("${loan.import.min-bcrypt-cost:10}")
+    private int minBcryptCost;
+
+    private ExecutorService hashPool;
+
+    private record Row(long line, RegisterRequest request) {
+    }
+
+    @PostConstruct
+    void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger n = new AtomicInteger();
+        // bounded queue + caller-runs: concurrent imports slow down instead of piling up hashes
+        hashPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize), r -> new Thread(r, "customer-import-hash-" + n.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    /** CSV with a header row naming the name, email and password columns (any order) */
+    public CustomerImportResult importCsv(InputStream body) throws IOException {
+        Importer importer = new Importer();
+        try (CsvReader csv = new CsvReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<String> header = csv.next();
+            if (header == null) return importer.finish();
+            List<String> cols = header.stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+            int name = cols.indexOf("name"), email = cols.indexOf("email"), password = cols.indexOf("password");
+            if (name < 0 || email < 0 || password < 0) {
+                throw new IllegalArgumentException("CSV header must contain name, email and password");
+            }
+            for (List<String> f; (f = csv.next()) != null; ) {
+                RegisterRequest r = new RegisterRequest();
+                r.setName(field(f, name));
+                r.setEmail(field(f, email));
+                r.setPassword(field(f, password));
+                importer.add(new Row(csv.getLine(), r));
+            }
+        }
+        return importer.finish();
+    }
+
+    /**
+     * JSON array of {name, email, password}, read one element at a time. An element of the wrong
+     * shape is reported and skipped; broken JSON syntax ends the import at that element.
+     */
+    public CustomerImportResult importJson(InputStream body) throws IOException {
+        Importer importer = new Importer();
+        try (MappingIterator<RegisterRequest> it = objectMapper.readerFor(RegisterRequest.class).readValues(body)) {
+            for (long index = 1; ; index++) {
+                try {
+                    if (!it.hasNextValue()) break;
+                    importer.add(new Row(index, it.nextValue()));
+                } catch (DatabindException e) {
+                    // the iterator resyncs to the next element on the following hasNextValue()
+                    importer.reject(index, "Malformed element: " + e.getOriginalMessage());
+                } catch (StreamReadException e) {
+                    importer.reject(index, "Malformed JSON, import stopped here: " + e.getOriginalMessage());
+                    break;
+                }
+            }
+        }
+        return importer.finish();
+    }
+
+    private static String field(List<String> fields, int i) {
+        return i < fields.size() ? fields.get(i).trim() : null;
+    }
+
+    /** State of one import: the current chunk, emails seen so far in the file, and the running result */
+    private class Importer {
+        private final long started = System.nanoTime();
+        private final CustomerImportResult result = new CustomerImportResult();
+        private final Set<String> seen = new HashSet<>();
+        private final List<Row> chunk = new ArrayList<>(chunkSize);
+
+        void add(Row row) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) flush();
+        }
+
+        // a row that could not even be read
+        void reject(long line, String message) {
+            result.setTotal(result.getTotal() + 1);
+            fail(line, null, message);
+        }
+
+        CustomerImportResult finish() {
+            flush();
+            result.setElapsedMs((System.nanoTime() - started) / 1_000_000);
+            log.info("Customer import: {} rows, {} imported, {} failed in {} ms",
+                    result.getTotal(), result.getImported(), result.getFailed(), result.getElapsedMs());
+            return result;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) return;
+            result.setTotal(result.getTotal() + chunk.size());
+
+            List<Row> valid = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                String problem = validate(row.request());
+                if (problem == null) problem = checkHash(row.request().getPassword());
+                if (problem == null && !seen.add(row.request().getEmail())) problem = "Duplicate email in file";
+                if (problem != null) fail(row, problem);
+                else valid.add(row);
+            }
+            chunk.clear();
+            if (valid.isEmpty()) return;
+
+            Set<String> taken = new HashSet<>(userRepository.findExistingEmails(
+                    valid.stream().map(r -> r.request().getEmail()).toList()));
+            valid.removeIf(row -> {
+                if (!taken.contains(row.request().getEmail())) return false;
+                fail(row, "Email already exists");
+                return true;
+            });
+            if (valid.isEmpty()) return;
+
+            List<Object[]> params = hashAll(valid);
+            insert(valid, params);
+        }
+
+        private List<Object[]> hashAll(List<Row> rows) {
+            List<Future<String>> hashes = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                String raw = row.request().getPassword();
+                hashes.add(BCRYPT_HASH.matcher(raw).matches()
+                        ? CompletableFuture.completedFuture(raw)
+                        : hashPool.submit(() -> passwordEncoder.encode(raw)));
+            }
+            List<Object[]> params = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                RegisterRequest r = rows.get(i).request();
+                params.add(new Object[]{r.getName(), r.getEmail(), await(hashes.get(i)), User.Role.CUSTOMER.name()});
+            }
+            return params;
+        }
+
+        private void insert(List<Row> rows, List<Object[]> params) {
+            try {
+                transactionTemplate.executeWithoutResult(s -> jdbcTemplate.batchUpdate(INSERT_USER, params));
+                result.setImported(result.getImported() + rows.size());
+            } catch (DataAccessException batchFailed) {
+                // someone registered one of these emails since the check: retry row by row to find it
+                for (int i = 0; i < rows.size(); i++) {
+                    try {
+                        jdbcTemplate.update(INSERT_USER, params.get(i));
+                        result.setImported(result.getImported() + 1);
+                    } catch (DataAccessException e) {
+                        fail(rows.get(i), "Insert failed: " + e.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+
+        private void fail(Row row, String message) {
+            fail(row.line(), row.request().getEmail(), message);
+        }
+
+        private void fail(long line, String email, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxErrors) {
+                result.getErrors().add(new CustomerImportResult.RowError(line, email, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+    }
+
+    private String validate(RegisterRequest request) {
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) return null;
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // null for a plain password or an acceptable hash
+    private String checkHash(String password) {
+        if (!BCRYPT_PREFIX.matcher(password).lookingAt()) return null;
+        Matcher m = BCRYPT_HASH.matcher(password);
+        if (!m.matches()) return "password looks like a BCrypt hash but is malformed";
+        int cost = Integer.parseInt(m.group(1));
+        if (cost < minBcryptCost || cost > MAX_BCRYPT_COST) {
+            return "password hash cost " + cost + " is outside " + minBcryptCost + "-" + MAX_BCRYPT_COST;
+        }
+        return null;
+    }
+
+    private static String await(Future<String> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
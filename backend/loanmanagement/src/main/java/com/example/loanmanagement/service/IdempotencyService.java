@@ -0,0 +1,121 @@
+package com.example.loanmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per user and Idempotency-Key. The first attempt runs and its response
+ * (anything but a 5xx) is stored; retries get that response back without running anything, and a
+ * retry arriving while the first attempt is still running waits for it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long POLL_MS = 50;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    // how long a retry waits for the first attempt before giving up with 409
+    @Value("${loan.idempotency.wait-ms:5000}")
+    private long waitMs;
+
+    public ResponseEntity<?> execute(String owner, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(request);
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(owner, key, fingerprint);
+            if (claim.owned()) {
+                return run(owner, key, claim.token(), action);
+            }
+            IdempotencyStore.Entry entry = claim.existing();
+            if (!entry.fingerprint().equals(fingerprint)) {
+                return ResponseEntity.unprocessableEntity().body(HEADER + " was already used for a different request");
+            }
+            if (entry.inProgress()) {
+                entry = awaitCompletion(owner, key);
+                if (entry == null) continue;   // the first attempt failed and let go of the key
+                if (entry.inProgress()) {
+                    return ResponseEntity.status(409).header(HttpHeaders.RETRY_AFTER, "1")
+                            .body("A request with this " + HEADER + " is still being processed");
+                }
+            }
+            return ResponseEntity.status(entry.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .contentType(MediaType.parseMediaType(entry.contentType()))
+                    .body(entry.body());
+        }
+    }
+
+    private ResponseEntity<?> run(String owner, String key, long token, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            store.release(owner, key, token);
+            throw e;
+        }
+        // server errors are worth retrying for real
+        if (response.getStatusCode().is5xxServerError()) {
+            store.release(owner, key, token);
+            return response;
+        }
+        try {
+            Object body = response.getBody();
+            if (body == null || body instanceof String) {
+                store.complete(owner, key, token, response.getStatusCode().value(), MediaType.TEXT_PLAIN_VALUE, (String) body);
+            } else {
+                store.complete(owner, key, token, response.getStatusCode().value(), MediaType.APPLICATION_JSON_VALUE,
+                        objectMapper.writeValueAsString(body));
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not store the response for {} {}; a retry will run again", HEADER, key, e);
+            store.release(owner, key, token);
+        }
+        return response;
+    }
+
+    private IdempotencyStore.Entry awaitCompletion(String owner, String key) {
+        long deadline = System.currentTimeMillis() + waitMs;
+        IdempotencyStore.Entry entry = store.find(owner, key);
+        while (entry != null && entry.inProgress() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            entry = store.find(owner, key);
+        }
+        return entry;
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.loanmanagement.service;
+
+/**
+ * Responses to requests sent with an Idempotency-Key, per user and key, until they expire.
+ * {@link InMemoryIdempotencyStore} serves a single node; {@link JdbcIdempotencyStore} is shared by
+ * the cluster. Picked with loan.idempotency.store.
+ */
+public interface IdempotencyStore {
+
+    /** A stored response; status 0 while the first request is still running */
+    record Entry(String fingerprint, int status, String contentType, String body) {
+
+        public boolean inProgress() {
+            return status == 0;
+        }
+    }
+
+    /**
+     * Result of a claim: either the caller now owns the key (existing is null) and holds the token
+     * that identifies its claim, or the entry already there (running or finished).
+     */
+    record Claim(Entry existing, long token) {
+
+        public boolean owned() {
+            return existing == null;
+        }
+    }
+
+    /** Claims the key for a new request, taking over an expired or abandoned one */
+    Claim claim(String owner, String key, String fingerprint);
+
+    Entry find(String owner, String key);
+
+    /**
+     * Stores the response of the claim with this token. A no-op if the claim was taken over since,
+     * so an attempt that outlived its claim can't overwrite the new one.
+     */
+    void complete(String owner, String key, long token, int status, String contentType, String body);
+
+    /** Drops a claim whose request failed unexpectedly, so a retry runs it again; same token rule */
+    void release(String owner, String key, long token);
+}
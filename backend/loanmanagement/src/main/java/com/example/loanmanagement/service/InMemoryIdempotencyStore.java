@@ -0,0 +1,99 @@
+package com.example.loanmanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idempotency store for a single node: a map of entries plus a queue of keys in claim order.
+ * The TTL is the same for every entry, so claim order is also expiry order and eviction only ever
+ * looks at the head of the queue; past max-entries the oldest go first even if not yet expired.
+ */
+@Service
+@ConditionalOnProperty(name = "loan.idempotency.store", havingValue = "memory")
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private record Slot(Entry entry, long token, long claimedAt, long expiresAt) {
+    }
+
+    private final ConcurrentHashMap<String, Slot> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong tokens = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final long ttlMs;
+    private final long inProgressTimeoutMs;
+    private final int maxEntries;
+
+    public InMemoryIdempotencyStore(@Value("${loan.idempotency.ttl-hours:24}") long ttlHours,
+                                    @Value("${loan.idempotency.in-progress-timeout-ms:60000}") long inProgressTimeoutMs,
+                                    @Value("${loan.idempotency.max-entries:100000}") int maxEntries) {
+        this.ttlMs = ttlHours * 3_600_000;
+        this.inProgressTimeoutMs = inProgressTimeoutMs;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Claim claim(String owner, String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        String k = owner + '\n' + key;
+        Slot claimed = new Slot(new Entry(fingerprint, 0, null, null), tokens.incrementAndGet(), now, now + ttlMs);
+        while (true) {
+            Slot existing = entries.putIfAbsent(k, claimed);
+            if (existing == null) break;
+            if (!isStale(existing, now)) return new Claim(existing.entry(), 0);
+            if (entries.replace(k, existing, claimed)) break;
+        }
+        order.add(k);
+        queued.incrementAndGet();
+        evict(now);
+        return new Claim(null, claimed.token());
+    }
+
+    @Override
+    public Entry find(String owner, String key) {
+        Slot s = entries.get(owner + '\n' + key);
+        return s == null || s.expiresAt() <= System.currentTimeMillis() ? null : s.entry();
+    }
+
+    @Override
+    public void complete(String owner, String key, long token, int status, String contentType, String body) {
+        entries.computeIfPresent(owner + '\n' + key, (k, s) -> s.token() != token ? s
+                : new Slot(new Entry(s.entry().fingerprint(), status, contentType, body), token, s.claimedAt(), s.expiresAt()));
+    }
+
+    @Override
+    public void release(String owner, String key, long token) {
+        entries.computeIfPresent(owner + '\n' + key, (k, s) -> s.token() == token && s.entry().inProgress() ? null : s);
+    }
+
+    // expired, or claimed by a request that never finished (e.g. the thread died)
+    private boolean isStale(Slot s, long now) {
+        return s.expiresAt() <= now || s.entry().inProgress() && now - s.claimedAt() > inProgressTimeoutMs;
+    }
+
+    // one thread at a time, so peek-then-poll sees the same head
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) return;
+        try {
+            String head;
+            while ((head = order.peek()) != null) {
+                Slot s = entries.get(head);
+                boolean expired = s == null || s.expiresAt() <= now;
+                if (!expired && queued.get() <= maxEntries) break;
+                order.poll();
+                queued.decrementAndGet();
+                if (s != null) entries.remove(head, s);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.config.ClusterJob;
+import com.example.loanmanagement.dto.TrialBalance;
+import com.example.loanmanagement.model.LedgerClose;
+import com.example.loanmanagement.model.LedgerEntry;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.repository.LedgerCloseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-of-day interest accrual and ledger close. Each active loan accrues one day of interest on
+ * its outstanding principal (ACT/365), posted as DR INTEREST_RECEIVABLE / CR INTEREST_INCOME.
+ * Posting is set-based: one INSERT ... SELECT per chunk of loan ids, chunks grouped into id
+ * shards that run in parallel, one commit per chunk. Loans already posted for the day are
+ * skipped, so a failed run is simply run again. The close then rolls the day's movements into
+ * ledger_close, which is what the trial balance reads. Days are closed in order: a run for a day
+ * first posts and closes any days missed since the last close (downtime, a lost trigger).
+ * The nightly run is a {@link ClusterJob}: its shards spread over the cluster's nodes and the
+ * close runs once on the leader. {@link #runEndOfDay} runs a day on this node alone.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InterestAccrualService implements ClusterJob {
+
+    // loans that predate the summary columns have no outstanding principal yet: use their unpaid schedule
+    private static final String OUTSTANDING =
+            "coalesce(l.outstanding_principal_minor, " +
+            "  (select sum(r.principal_minor) from repayment r where r.loan_id = l.id and r.status <> 'PAID'))";
+
+    private static final String ACCRUING_RANGE =
+            "select min(l.id), max(l.id) from loan l where l.status = 'APPROVED' and " + OUTSTANDING + " > 0";
+
+    private static final String POST_ACCRUALS =
+            "insert into ledger_entry (business_date, loan_id, debit_account, credit_account, amount_minor, entry_type, created_at) " +
+            "select ?, l.id, 'INTEREST_RECEIVABLE', 'INTEREST_INCOME', " +
+            "  round(" + OUTSTANDING + " * l.annual_interest_rate / 36500), 'ACCRUAL', current_timestamp " +
+            "from loan l where l.status = 'APPROVED' and " + OUTSTANDING + " > 0 " +
+            "  and l.start_date <= ? and l.id > ? and l.id <= ? " +
+            "  and not exists (select 1 from ledger_entry e " +
+            "                  where e.loan_id = l.id and e.business_date = ? and e.entry_type = 'ACCRUAL')";
+
+    // the day's movements per account: debits and credits of that day's entries
+    private static final String DAY_MOVEMENTS =
+            "select account, sum(debit), sum(credit) from (" +
+            "  select debit_account as account, amount_minor as debit, 0 as credit from ledger_entry where business_date = ? " +
+            "  union all " +
+            "  select credit_account, 0, amount_minor from ledger_entry where business_date = ?) m " +
+            "group by account";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerCloseRepository ledgerCloseRepository;
+
+    @Value("${loan.accrual.enabled:true}")
+    private boolean enabled;
+
+    @Value("${loan.accrual.run-at:23:30}")
+    private LocalTime runAt;
+
+    @Value("${loan.accrual.shards:8}")
+    private int shards;
+
+    @Value("${loan.accrual.workers:4}")
+    private int workers;
+
+    @Value("${loan.accrual.chunk-size:20000}")
+    private int chunkSize;              // loan ids per INSERT ... SELECT
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService shardPool;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicInteger n = new AtomicInteger();
+        shardPool = Executors.newFixedThreadPool(workers, r -> new Thread(r, "accrual-" + n.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (shardPool != null) shardPool.shutdownNow();
+    }
+
+    @Override
+    public String name() {
+        return "interest-accrual";
+    }
+
+    @Override
+    public Trigger trigger() {
+        return enabled ? new CronTrigger(String.format("0 %d %d * * *", runAt.getMinute(), runAt.getHour())) : null;
+    }
+
+    // the business date
+    @Override
+    public String runKey(LocalDateTime firedAt) {
+        return firedAt.toLocalDate().toString();
+    }
+
+    @Override
+    public long[] idRange(String runKey) {
+        long[] range = jdbcTemplate.queryForObject(ACCRUING_RANGE, (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        return range[1] == 0 ? null : range;
+    }
+
+    // every day still open up to the run's date, so a missed night is posted along with this one
+    @Override
+    public long runShard(String runKey, long fromId, long toId) {
+        long entries = 0;
+        for (LocalDate day : openDays(LocalDate.parse(runKey))) {
+            entries += postShard(day, fromId, toId);
+        }
+        return entries;
+    }
+
+    // close the days in order once every shard has posted
+    @Override
+    public void complete(String runKey) {
+        for (LocalDate day : openDays(LocalDate.parse(runKey))) {
+            transactionTemplate.executeWithoutResult(s -> close(day));
+            TrialBalance tb = trialBalance(day);
+            log.info("Closed {}: {} accrued, balanced={}", day, tb.getTotalDebits(), tb.isBalanced());
+        }
+    }
+
+    /**
+     * Post the day's accruals and close it, after catching up any earlier days not yet closed;
+     * a day that is already closed just returns its trial balance
+     */
+    public TrialBalance runEndOfDay(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("End-of-day run already in progress");
+        }
+        try {
+            long start = System.nanoTime();
+            long posted = 0;
+            for (LocalDate day : openDays(businessDate)) {
+                long n = postAccruals(day);
+                transactionTemplate.executeWithoutResult(s -> close(day));
+                posted += n;
+                log.info("Closed {}: {} accruals posted", day, n);
+            }
+
+            TrialBalance tb = trialBalance(businessDate);
+            tb.setEntriesPosted(posted);
+            tb.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+            log.info("End of day {}: {} accruals posted, {} accrued in {} ms, balanced={}",
+                    businessDate, posted, tb.getTotalDebits(), tb.getElapsedMs(), tb.isBalanced());
+            return tb;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Closed positions of a day; empty accounts if the day hasn't been closed */
+    public TrialBalance trialBalance(LocalDate businessDate) {
+        TrialBalance tb = new TrialBalance();
+        tb.setBusinessDate(businessDate);
+        Money debits = Money.ZERO, credits = Money.ZERO;
+        for (LedgerClose c : ledgerCloseRepository.findByBusinessDateOrderByAccount(businessDate)) {
+            tb.getAccounts().add(new TrialBalance.AccountLine(c.getAccount().name(), c.getDebits(), c.getCredits(), c.getBalance()));
+            debits = debits.plus(c.getDebits());
+            credits = credits.plus(c.getCredits());
+        }
+        tb.setTotalDebits(debits);
+        tb.setTotalCredits(credits);
+        tb.setBalanced(debits.equals(credits));
+        return tb;
+    }
+
+    /**
+     * Days to post and close, oldest first, to bring the ledger up to businessDate: the day after the
+     * last close through businessDate, or just businessDate on an empty ledger. Empty once it's closed.
+     */
+    private List<LocalDate> openDays(LocalDate businessDate) {
+        LocalDate last = ledgerCloseRepository.findLastClosedDate().orElse(null);
+        if (last != null && !last.isBefore(businessDate)) {
+            if (ledgerCloseRepository.findByBusinessDateOrderByAccount(businessDate).isEmpty()) {
+                throw new IllegalStateException("Ledger is already closed up to " + last);
+            }
+            return List.of();
+        }
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate d = last == null ? businessDate : last.plusDays(1); !d.isAfter(businessDate); d = d.plusDays(1)) {
+            days.add(d);
+        }
+        return days;
+    }
+
+    // entries posted across all shards
+    private long postAccruals(LocalDate businessDate) {
+        long[] range = jdbcTemplate.queryForObject(ACCRUING_RANGE,
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        if (range[1] == 0) return 0;
+
+        long lo = range[0] - 1, span = range[1] - lo;
+        int p = (int) Math.min(Math.max(1, shards), span);
+        List<Future<Long>> futures = new ArrayList<>(p);
+        for (int i = 0; i < p; i++) {
+            long from = lo + span * i / p, to = lo + span * (i + 1) / p;
+            futures.add(shardPool.submit(() -> postShard(businessDate, from, to)));
+        }
+
+        long total = 0;
+        try {
+            for (Future<Long> f : futures) {
+                total += f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Accrual posting interrupted", e);
+        } catch (ExecutionException e) {
+            // committed chunks stay posted; the next run fills in the rest
+            throw new IllegalStateException("Accrual posting failed for " + businessDate, e.getCause());
+        }
+        return total;
+    }
+
+    // one shard's id range (from, to], walked in chunks of chunkSize ids with a commit each
+    private long postShard(LocalDate businessDate, long from, long to) {
+        Date day = Date.valueOf(businessDate);
+        long entries = 0;
+        for (long lo = from; lo < to; lo += chunkSize) {
+            long hi = Math.min(to, lo + chunkSize);
+            final long a = lo;
+            Integer n = transactionTemplate.execute(s -> jdbcTemplate.update(POST_ACCRUALS, day, day, a, hi, day));
+            entries += n == null ? 0 : n;
+        }
+        return entries;
+    }
+
+    private void close(LocalDate businessDate) {
+        Map<LedgerEntry.Account, long[]> day = new EnumMap<>(LedgerEntry.Account.class);
+        for (LedgerEntry.Account a : LedgerEntry.Account.values()) day.put(a, new long[2]);
+        Date d = Date.valueOf(businessDate);
+        jdbcTemplate.query(DAY_MOVEMENTS, rs -> {
+            long[] m = day.get(LedgerEntry.Account.valueOf(rs.getString(1)));
+            m[0] = rs.getLong(2);
+            m[1] = rs.getLong(3);
+        }, d, d);
+
+        Map<LedgerEntry.Account, Money> opening = new EnumMap<>(LedgerEntry.Account.class);
+        ledgerCloseRepository.findLastClosedDateBefore(businessDate).ifPresent(prev -> {
+            for (LedgerClose c : ledgerCloseRepository.findByBusinessDateOrderByAccount(prev)) {
+                opening.put(c.getAccount(), c.getBalance());
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        List<LedgerClose> rows = new ArrayList<>();
+        day.forEach((account, m) -> rows.add(new LedgerClose(null, businessDate, account,
+                Money.ofMinor(m[0]), Money.ofMinor(m[1]),
+                opening.getOrDefault(account, Money.ZERO).plus(Money.ofMinor(m[0] - m[1])), now)));
+        ledgerCloseRepository.saveAll(rows);
+    }
+}
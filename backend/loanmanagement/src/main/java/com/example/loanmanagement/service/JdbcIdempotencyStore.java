@@ -0,0 +1,130 @@
+package com.example.loanmanagement.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Idempotency store shared by every node, in idempotency_record. The unique (owner, key) index
+ * decides which of two concurrent first attempts runs; expired rows are purged in the background.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "loan.idempotency.store", havingValue = "table", matchIfMissing = true)
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final String INSERT = """
+            insert into idempotency_record (owner, idem_key, fingerprint, status, created_at, expires_at)
+            values (?, ?, ?, 0, ?, ?)
+            """;
+
+    private static final String FIND = """
+            select fingerprint, status, content_type, body, created_at, expires_at
+            from idempotency_record where owner = ? and idem_key = ?
+            """;
+
+    // created_at doubles as a version, so only one node takes over a stale row
+    private static final String TAKE_OVER = """
+            update idempotency_record
+            set fingerprint = ?, status = 0, content_type = null, body = null, created_at = ?, expires_at = ?
+            where owner = ? and idem_key = ? and created_at = ?
+            """;
+
+    private static final String PURGE = """
+            delete from idempotency_record where id in (
+                select id from idempotency_record where expires_at < ? order by id limit ?)
+            """;
+
+    private record Row(Entry entry, LocalDateTime createdAt, LocalDateTime expiresAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlHours;
+    private final long inProgressTimeoutMs;
+    private final int purgeBatchSize;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                @Value("${loan.idempotency.ttl-hours:24}") long ttlHours,
+                                @Value("${loan.idempotency.in-progress-timeout-ms:60000}") long inProgressTimeoutMs,
+                                @Value("${loan.idempotency.purge-batch-size:1000}") int purgeBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlHours = ttlHours;
+        this.inProgressTimeoutMs = inProgressTimeoutMs;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    @Override
+    public Claim claim(String owner, String key, String fingerprint) {
+        // whole microseconds, so the token compares equal to what the column stores
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        try {
+            jdbcTemplate.update(INSERT, owner, key, fingerprint, now, now.plusHours(ttlHours));
+            return new Claim(null, token(now));
+        } catch (DataIntegrityViolationException e) {
+            // already there; fall through and look at it
+        }
+        Row row = row(owner, key);
+        if (row == null) return claim(owner, key, fingerprint);   // purged in between
+        boolean stale = row.expiresAt().isBefore(now)
+                || row.entry().inProgress() && row.createdAt().plusNanos(inProgressTimeoutMs * 1_000_000).isBefore(now);
+        if (stale && jdbcTemplate.update(TAKE_OVER, fingerprint, now, now.plusHours(ttlHours), owner, key,
+                row.createdAt()) == 1) {
+            return new Claim(null, token(now));
+        }
+        return new Claim(stale ? find(owner, key) : row.entry(), 0);
+    }
+
+    @Override
+    public Entry find(String owner, String key) {
+        Row row = row(owner, key);
+        return row == null || row.expiresAt().isBefore(LocalDateTime.now()) ? null : row.entry();
+    }
+
+    @Override
+    public void complete(String owner, String key, long token, int status, String contentType, String body) {
+        jdbcTemplate.update("update idempotency_record set status = ?, content_type = ?, body = ? " +
+                "where owner = ? and idem_key = ? and created_at = ?", status, contentType, body, owner, key, at(token));
+    }
+
+    @Override
+    public void release(String owner, String key, long token) {
+        jdbcTemplate.update("delete from idempotency_record where owner = ? and idem_key = ? and created_at = ? and status = 0",
+                owner, key, at(token));
+    }
+
+    @Scheduled(fixedDelayString = "${loan.idempotency.purge-interval-ms:600000}")
+    void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int n;
+        do {
+            n = jdbcTemplate.update(PURGE, now, purgeBatchSize);
+            total += n;
+        } while (n == purgeBatchSize);
+        if (total > 0) log.info("Purged {} expired idempotency records", total);
+    }
+
+    // created_at is the claim's token, as epoch microseconds
+    private static long token(LocalDateTime createdAt) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), createdAt);
+    }
+
+    private static LocalDateTime at(long token) {
+        return LocalDateTime.of(1970, 1, 1, 0, 0).plus(token, ChronoUnit.MICROS);
+    }
+
+    private Row row(String owner, String key) {
+        List<Row> rows = jdbcTemplate.query(FIND, (rs, i) -> new Row(
+                new Entry(rs.getString("fingerprint"), rs.getInt("status"), rs.getString("content_type"), rs.getString("body")),
+                rs.getTimestamp("created_at").toLocalDateTime(), rs.getTimestamp("expires_at").toLocalDateTime()), owner, key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
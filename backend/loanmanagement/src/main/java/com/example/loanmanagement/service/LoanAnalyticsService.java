@@ -0,0 +1,207 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.PortfolioAnalyticsResponse;
+import com.example.loanmanagement.dto.PortfolioAnalyticsResponse.GroupStats;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.repository.LoanRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Portfolio breakdowns for risk. Reads come from an in-memory {@link LoanPortfolioSnapshot}
+ * that is rebuilt from Postgres at most once per TTL; aggregation runs as a parallel
+ * scan over its primitive columns, so requests never query the loan table. Past the TTL
+ * requests keep getting the old snapshot while a background thread builds the next one;
+ * only the very first request waits for a load.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanAnalyticsService {
+
+    private final LoanRepository loanRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${loan.analytics.snapshot-ttl-seconds:60}")
+    private long snapshotTtlSeconds;
+
+    private final AtomicReference<LoanPortfolioSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private ExecutorService refresher;
+
+    @PostConstruct
+    void start() {
+        refresher = Executors.newSingleThreadExecutor(r -> new Thread(r, "analytics-refresh"));
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
+
+    /** Breakdown dimensions an admin can group by */
+    public enum Dimension {
+        LOAN_TYPE {
+            int cardinality(LoanPortfolioSnapshot s) { return s.loanTypes.length; }
+            int key(LoanPortfolioSnapshot s, int row) { return s.loanType[row]; }
+            String label(LoanPortfolioSnapshot s, int key) { return s.loanTypes[key]; }
+        },
+        TENURE {
+            private final long[] upper = {12, 36, 60, 120};
+            private final String[] labels = {"<=12m", "13-36m", "37-60m", "61-120m", ">120m"};
+            int cardinality(LoanPortfolioSnapshot s) { return labels.length; }
+            int key(LoanPortfolioSnapshot s, int row) { return band(upper, s.tenureMonths[row]); }
+            String label(LoanPortfolioSnapshot s, int key) { return labels[key]; }
+        },
+        INCOME {
+            private final long[] upper = {25_000_000, 50_000_000, 100_000_000, 250_000_000}; // cents
+            private final String[] labels = {"<250k", "250k-500k", "500k-1M", "1M-2.5M", ">2.5M"};
+            int cardinality(LoanPortfolioSnapshot s) { return labels.length; }
+            int key(LoanPortfolioSnapshot s, int row) { return band(upper, s.annualIncome[row]); }
+            String label(LoanPortfolioSnapshot s, int key) { return labels[key]; }
+        },
+        STATUS {
+            int cardinality(LoanPortfolioSnapshot s) { return Loan.Status.values().length; }
+            int key(LoanPortfolioSnapshot s, int row) { return s.status[row]; }
+            String label(LoanPortfolioSnapshot s, int key) { return Loan.Status.values()[key].name(); }
+        };
+
+        abstract int cardinality(LoanPortfolioSnapshot s);
+        abstract int key(LoanPortfolioSnapshot s, int row);
+        abstract String label(LoanPortfolioSnapshot s, int key);
+
+        private static int band(long[] upper, long v) {
+            int i = 0;
+            while (i < upper.length && v > upper[i]) i++;
+            return i;
+        }
+    }
+
+    public PortfolioAnalyticsResponse getAnalytics(Collection<Dimension> groupBy) {
+        LoanPortfolioSnapshot s = currentSnapshot();
+
+        Map<String, List<GroupStats>> breakdowns = new LinkedHashMap<>();
+        for (Dimension d : groupBy) {
+            breakdowns.put(d.name(), aggregate(s, d));
+        }
+
+        long exposure = IntStream.range(0, s.size).parallel().mapToLong(i -> s.exposure[i]).sum();
+        long inflow = IntStream.range(0, s.size).parallel().mapToLong(i -> s.monthlyInflow[i]).sum();
+
+        return new PortfolioAnalyticsResponse(s.takenAt, s.size,
+                Money.ofMinor(exposure), Money.ofMinor(inflow), breakdowns);
+    }
+
+    private List<GroupStats> aggregate(LoanPortfolioSnapshot s, Dimension d) {
+        int k = d.cardinality(s);
+        Accumulator acc = IntStream.range(0, s.size).parallel().collect(
+                () -> new Accumulator(k),
+                (a, row) -> a.add(s, row, d.key(s, row)),
+                Accumulator::merge);
+
+        List<GroupStats> out = new ArrayList<>();
+        for (int key = 0; key < k; key++) {
+            if (acc.count[key] > 0) {
+                out.add(new GroupStats(d.label(s, key), acc.count[key], Money.ofMinor(acc.amount[key]),
+                        Money.ofMinor(acc.exposure[key]), Money.ofMinor(acc.inflow[key])));
+            }
+        }
+        return out;
+    }
+
+    private LoanPortfolioSnapshot currentSnapshot() {
+        LoanPortfolioSnapshot s = snapshot.get();
+        if (s == null) {
+            synchronized (this) {
+                s = snapshot.get();
+                if (s == null) {
+                    s = load();
+                    snapshot.set(s);
+                }
+            }
+            return s;
+        }
+        // stale: rebuild in the background, this and later callers read the old copy meanwhile
+        if (Duration.between(s.takenAt, Instant.now()).getSeconds() >= snapshotTtlSeconds
+                && refreshing.compareAndSet(false, true)) {
+            try {
+                refresher.execute(this::refresh);
+            } catch (RejectedExecutionException e) {
+                refreshing.set(false);   // shutting down
+            }
+        }
+        return s;
+    }
+
+    private void refresh() {
+        try {
+            snapshot.set(load());
+        } catch (RuntimeException e) {
+            // keep serving the old snapshot; the next stale read tries again
+            log.warn("Analytics snapshot refresh failed: {}", e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private LoanPortfolioSnapshot load() {
+        return transactionTemplate.execute(tx -> {
+            LoanPortfolioSnapshot.Builder b = LoanPortfolioSnapshot.builder();
+            try (var rows = loanRepository.streamAnalyticsRows()) {
+                rows.forEach(r -> b.add((Money) r[0], (String) r[1], (Integer) r[2], (Money) r[3],
+                        (Loan.Status) r[4], (Money) r[5], (Money) r[6]));
+            }
+            return b.build();
+        });
+    }
+
+    private static final class Accumulator {
+        final long[] count;
+        final long[] amount;
+        final long[] exposure;
+        final long[] inflow;
+
+        Accumulator(int k) {
+            count = new long[k];
+            amount = new long[k];
+            exposure = new long[k];
+            inflow = new long[k];
+        }
+
+        void add(LoanPortfolioSnapshot s, int row, int key) {
+            count[key]++;
+            amount[key] += s.amount[row];
+            exposure[key] += s.exposure[row];
+            inflow[key] += s.monthlyInflow[row];
+        }
+
+        void merge(Accumulator o) {
+            for (int i = 0; i < count.length; i++) {
+                count[i] += o.count[i];
+                amount[i] += o.amount[i];
+                exposure[i] += o.exposure[i];
+                inflow[i] += o.inflow[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.LoanLifecycleEvent;
+import com.example.loanmanagement.exception.IntakeBacklogFullException;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.LoanApplicationTask;
+import com.example.loanmanagement.repository.LoanApplicationTaskRepository;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.util.EmiCalculator;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the loan_application_task outbox. A single poller claims only as many QUEUED rows
+ * as the bounded worker pool has room for; each claimed application is underwritten and
+ * scheduled in its own transaction. Intake is refused once the queued backlog passes a limit.
+ * A task that fails, or whose claim goes stale, is retried until it has used max-attempts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanApplicationWorker {
+
+    private final LoanApplicationTaskRepository taskRepository;
+    private final LoanRepository loanRepository;
+    private final LoanService loanService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${loan.intake.workers:4}")
+    private int workers;
+
+    @Value("${loan.intake.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${loan.intake.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${loan.intake.max-backlog:10000}")
+    private long maxBacklog;
+
+    @Value("${loan.intake.max-emi-to-income:0.5}")
+    private double maxEmiToIncome;
+
+    @Value("${loan.intake.max-attempts:3}")
+    private int maxAttempts;
+
+    // a PROCESSING claim older than this is taken to belong to a node that died
+    @Value("${loan.intake.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    private final AtomicLong queued = new AtomicLong();
+    private ScheduledExecutorService poller;
+    private ThreadPoolExecutor pool;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+        poller = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "loan-intake-poller"));
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) poller.shutdownNow();
+        if (pool != null) pool.shutdown();
+    }
+
+    /** Fast-fail intake when the worker pool is falling behind */
+    public void checkCapacity() {
+        if (queued.get() >= maxBacklog) {
+            throw new IntakeBacklogFullException("Loan intake is busy, please retry shortly");
+        }
+    }
+
+    private void poll() {
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000);
+            transactionTemplate.executeWithoutResult(tx -> {
+                taskRepository.failStale(staleBefore, maxAttempts, LocalDateTime.now());
+                taskRepository.requeueStale(staleBefore, maxAttempts);
+            });
+            queued.set(taskRepository.countByStatus(LoanApplicationTask.Status.QUEUED));
+
+            int free = pool.getQueue().remainingCapacity();
+            if (free == 0) {
+                return;
+            }
+            List<Long> claimed = transactionTemplate.execute(tx -> {
+                List<Long> ids = taskRepository.lockQueued(free);
+                if (!ids.isEmpty()) {
+                    taskRepository.markProcessing(ids, LocalDateTime.now());
+                }
+                return ids;
+            });
+            for (Long id : claimed) {
+                pool.execute(() -> process(id));
+            }
+        } catch (Exception e) {
+            log.warn("Loan intake poll failed", e);
+        }
+    }
+
+    private void process(Long taskId) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> underwrite(taskId));
+        } catch (Exception e) {
+            log.warn("Loan application task {} failed", taskId, e);
+            transactionTemplate.executeWithoutResult(tx -> taskRepository.findById(taskId).ifPresent(t -> {
+                t.setStatus(t.getAttempts() >= maxAttempts
+                        ? LoanApplicationTask.Status.FAILED
+                        : LoanApplicationTask.Status.QUEUED);
+                t.setMessage(e.getMessage());
+                t.setUpdatedAt(LocalDateTime.now());
+            }));
+        }
+    }
+
+    private void underwrite(Long taskId) {
+        LoanApplicationTask task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        // same lock the admin approve/reject path takes, so the two never both decide the loan
+        Loan loan = loanRepository.findByIdForUpdate(task.getLoanId())
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        if (loan.getStatus() != Loan.Status.PENDING) {
+            finish(task, LoanApplicationTask.Status.COMPLETED, "Loan was already " + loan.getStatus());
+            return;
+        }
+
+        String rejection = eligibilityFailure(loan);
+        if (rejection != null) {
+            Loan.Status before = loan.getStatus();
+            String remarkBefore = loan.getAdminRemark();
+            loan.setStatus(Loan.Status.REJECTED);
+            loan.setAdminRemark(rejection);
+            loanRepository.save(loan);
+            eventPublisher.publishEvent(new LoanLifecycleEvent(LoanLifecycleEvent.Type.REJECTED, loan.getId(), null,
+                    before.name(), Loan.Status.REJECTED.name(), "system", rejection, remarkBefore, LocalDateTime.now()));
+            finish(task, LoanApplicationTask.Status.REJECTED, rejection);
+            return;
+        }
+
+        loanService.generateSchedule(loan);
+        finish(task, LoanApplicationTask.Status.COMPLETED, null);
+    }
+
+    /** Same duplicate rule as the synchronous path, plus an EMI-to-monthly-income cap */
+    private String eligibilityFailure(Loan loan) {
+        // the earliest open application wins, so two queued ones can't reject each other
+        boolean duplicate = loanRepository.findByUserAndStatusNot(loan.getUser(), Loan.Status.REJECTED)
+                .stream()
+                .anyMatch(other -> other.getId() < loan.getId());
+        if (duplicate) {
+            return "User has already applied for a loan.";
+        }
+
+        long emi = EmiCalculator.calculateEmiMinor(
+                loan.getAmount().minor(),
+                loan.getAnnualInterestRate(),
+                loan.getTenureMonths()
+        );
+        double monthlyIncome = loan.getAnnualIncome().minor() / 12.0;
+        if (emi > monthlyIncome * maxEmiToIncome) {
+            return "EMI exceeds " + Math.round(maxEmiToIncome * 100) + "% of monthly income";
+        }
+        return null;
+    }
+
+    private void finish(LoanApplicationTask task, LoanApplicationTask.Status status, String message) {
+        task.setStatus(status);
+        task.setMessage(message);
+        task.setUpdatedAt(LocalDateTime.now());
+        taskRepository.save(task);
+    }
+}
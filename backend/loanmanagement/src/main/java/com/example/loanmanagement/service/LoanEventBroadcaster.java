@@ -0,0 +1,214 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.LoanEvent;
+import com.example.loanmanagement.dto.LoanLifecycleEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed loan lifecycle events to admin dashboards over SSE.
+ * <ul>
+ *   <li>a ring buffer of recent events lets clients resume from Last-Event-ID;</li>
+ *   <li>each subscriber holds at most one pending event per loan (newer replaces older);</li>
+ *   <li>a subscriber whose backlog overflows is told to "resync" instead of queueing more;</li>
+ *   <li>writes run on a small sender pool, one at a time per subscriber, and a subscriber whose
+ *       write has not returned within the send timeout is dropped, so one stalled client cannot
+ *       hold up the rest. It reconnects with Last-Event-ID.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class LoanEventBroadcaster {
+
+    @Value("${loan.events.replay-buffer-size:1000}")
+    private int replaySize;
+
+    @Value("${loan.events.max-pending-per-subscriber:500}")
+    private int maxPending;
+
+    @Value("${loan.events.flush-interval-ms:250}")
+    private long flushIntervalMs;
+
+    @Value("${loan.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${loan.events.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${loan.events.send-threads:4}")
+    private int sendThreads;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private LoanEvent[] ring;
+    private long nextId = 1;
+    private ScheduledExecutorService flusher;
+    private ExecutorService senders;
+
+    @PostConstruct
+    void start() {
+        ring = new LoanEvent[replaySize];
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "loan-events-flusher"));
+        AtomicInteger n = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(sendThreads, r -> new Thread(r, "loan-events-sender-" + n.incrementAndGet()));
+        flusher.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    /** Open a stream; events newer than lastEventId (if still buffered) are replayed first */
+    public SseEmitter subscribe(Long lastEventId) {
+        Subscriber sub = new Subscriber(new SseEmitter(emitterTimeoutMs));
+        sub.emitter.onCompletion(() -> subscribers.remove(sub));
+        sub.emitter.onTimeout(() -> subscribers.remove(sub));
+        sub.emitter.onError(e -> subscribers.remove(sub));
+
+        synchronized (this) {
+            if (lastEventId != null) {
+                long oldest = Math.max(1, nextId - replaySize);
+                if (lastEventId + 1 < oldest) {
+                    sub.overflowed = true; // gap is no longer in the buffer
+                } else {
+                    for (long id = lastEventId + 1; id < nextId; id++) {
+                        sub.offer(ring[(int) (id % replaySize)], maxPending);
+                    }
+                }
+            }
+            subscribers.add(sub);
+        }
+        return sub.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLifecycleEvent(LoanLifecycleEvent e) {
+        LoanEvent event;
+        synchronized (this) {
+            event = new LoanEvent(nextId, e.type().name(), e.loanId(), e.repaymentId(), e.toStatus(), e.occurredAt());
+            ring[(int) (nextId % replaySize)] = event;
+            nextId++;
+        }
+        for (Subscriber s : subscribers) {
+            s.offer(event, maxPending);
+        }
+    }
+
+    private void flushAll() {
+        long now = System.nanoTime();
+        for (Subscriber s : subscribers) {
+            if (s.sending) {
+                if (now - s.sendStarted > sendTimeoutMs * 1_000_000) drop(s);
+                continue;
+            }
+            if (!s.hasWork()) continue;
+            s.sendStarted = now;
+            s.sending = true;
+            try {
+                senders.execute(() -> send(s));
+            } catch (RejectedExecutionException ex) {
+                return; // shutting down
+            }
+        }
+    }
+
+    private void send(Subscriber s) {
+        try {
+            s.flush();
+            if (s.dropped) s.emitter.complete();
+        } catch (IOException | IllegalStateException ex) {
+            subscribers.remove(s);
+            s.emitter.completeWithError(ex);
+        } catch (Exception ex) {
+            log.warn("Failed to flush loan events", ex);
+        } finally {
+            s.sending = false;
+        }
+    }
+
+    // stop feeding it; the stuck write fails or returns on its own, and send() then closes the stream
+    private void drop(Subscriber s) {
+        if (subscribers.remove(s)) {
+            s.drop();
+            log.info("Dropped a loan event subscriber whose write took over {} ms", sendTimeoutMs);
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        // keyed by loan so repeated changes to one loan coalesce into the newest event
+        private Map<Long, LoanEvent> pending = new LinkedHashMap<>();
+        boolean overflowed;
+        volatile boolean dropped;
+        // written by the flusher before handing off, cleared by the sender
+        volatile boolean sending;
+        volatile long sendStarted;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized boolean hasWork() {
+            return overflowed || !pending.isEmpty();
+        }
+
+        synchronized void drop() {
+            dropped = true;
+            pending.clear();
+        }
+
+        synchronized void offer(LoanEvent e, int max) {
+            if (overflowed || dropped) {
+                return;
+            }
+            pending.remove(e.loanId());
+            pending.put(e.loanId(), e);
+            if (pending.size() > max) {
+                pending.clear();
+                overflowed = true;
+            }
+        }
+
+        void flush() throws IOException {
+            List<LoanEvent> batch;
+            boolean resync;
+            synchronized (this) {
+                if (pending.isEmpty() && !overflowed) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+                resync = overflowed;
+                overflowed = false;
+            }
+            if (resync) {
+                // client fell too far behind: it should refetch the lists instead
+                emitter.send(SseEmitter.event().name("resync").data(""));
+            }
+            for (LoanEvent e : batch) {
+                emitter.send(SseEmitter.event().id(String.valueOf(e.id())).name(e.type()).data(e));
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.LoanLifecycleEvent;
+import com.example.loanmanagement.dto.LoanTimelineEntry;
+import com.example.loanmanagement.repository.LoanEventLogRepository;
+import com.example.loanmanagement.repository.LoanEventOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit trail for loans. Each lifecycle event costs the business transaction one small
+ * outbox insert; a background thread moves outbox rows into the append-only
+ * loan_event_log in set-based batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanEventLogService {
+
+    private static final String INSERT_OUTBOX =
+            "insert into loan_event_outbox (loan_id, repayment_id, event_type, from_status, to_status, actor, remark, previous_remark, occurred_at) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Move one batch in a single statement; skip locked rows so several nodes can drain
+    private static final String DRAIN_BATCH =
+            "with moved as (" +
+            "  delete from loan_event_outbox where id in (" +
+            "    select id from loan_event_outbox order by id limit ? for update skip locked) " +
+            "  returning id, loan_id, repayment_id, event_type, from_status, to_status, actor, remark, previous_remark, occurred_at) " +
+            "insert into loan_event_log (outbox_id, loan_id, repayment_id, event_type, from_status, to_status, actor, remark, previous_remark, occurred_at, recorded_at) " +
+            "select id, loan_id, repayment_id, event_type, from_status, to_status, actor, remark, previous_remark, occurred_at, now() " +
+            "from moved order by id " +
+            "on conflict (outbox_id) do nothing";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoanEventLogRepository logRepository;
+    private final LoanEventOutboxRepository outboxRepository;
+
+    @Value("${loan.audit.drain-interval-ms:1000}")
+    private long drainIntervalMs;
+
+    @Value("${loan.audit.batch-size:500}")
+    private int batchSize;
+
+    private ScheduledExecutorService drainer;
+
+    /** Runs inside the publisher's transaction, so the audit row commits or rolls back with the change */
+    @EventListener
+    public void record(LoanLifecycleEvent e) {
+        jdbcTemplate.update(INSERT_OUTBOX, e.loanId(), e.repaymentId(), e.type().name(),
+                e.fromStatus(), e.toStatus(), e.actor(), e.remark(), e.previousRemark(), Timestamp.valueOf(e.occurredAt()));
+    }
+
+    /**
+     * Full history of one loan, including events not yet moved out of the outbox. Ordered by
+     * occurredAt, then by outbox id (the order the events were written in), which logged and
+     * still-queued events share; log ids may not follow it when several nodes drain at once.
+     */
+    @Transactional(readOnly = true)
+    public List<LoanTimelineEntry> getTimeline(Long loanId) {
+        List<Sequenced> all = new ArrayList<>();
+        logRepository.findByLoanIdOrderByOccurredAtAscOutboxIdAsc(loanId).forEach(l -> all.add(new Sequenced(
+                l.getOutboxId(), new LoanTimelineEntry(l.getEventType(), l.getRepaymentId(), l.getFromStatus(),
+                l.getToStatus(), l.getActor(), l.getRemark(), l.getPreviousRemark(), l.getOccurredAt()))));
+        outboxRepository.findByLoanIdOrderByIdAsc(loanId).forEach(o -> all.add(new Sequenced(
+                o.getId(), new LoanTimelineEntry(o.getEventType(), o.getRepaymentId(), o.getFromStatus(),
+                o.getToStatus(), o.getActor(), o.getRemark(), o.getPreviousRemark(), o.getOccurredAt()))));
+        all.sort(Comparator.comparing((Sequenced s) -> s.entry().getOccurredAt())
+                .thenComparing(Sequenced::outboxId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return all.stream().map(Sequenced::entry).toList();
+    }
+
+    private record Sequenced(Long outboxId, LoanTimelineEntry entry) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        drainer = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "loan-audit-drainer"));
+        drainer.scheduleWithFixedDelay(this::drain, drainIntervalMs, drainIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (drainer != null) drainer.shutdownNow();
+    }
+
+    private void drain() {
+        try {
+            int moved;
+            do {
+                moved = jdbcTemplate.update(DRAIN_BATCH, batchSize); // autocommit: one transaction per batch
+            } while (moved == batchSize);
+        } catch (Exception e) {
+            log.warn("Draining loan audit outbox failed", e);
+        }
+    }
+}
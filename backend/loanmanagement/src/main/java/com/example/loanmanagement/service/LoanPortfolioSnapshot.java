@@ -0,0 +1,104 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable column-per-field copy of the loan table used by {@link LoanAnalyticsService}.
+ * Every row is an index into the parallel primitive arrays; loan types are dictionary-encoded.
+ */
+public final class LoanPortfolioSnapshot {
+
+    final Instant takenAt;
+    final int size;
+    final long[] amount;          // minor units, like every money column below
+    final long[] annualIncome;
+    final int[] tenureMonths;
+    final byte[] status;          // Loan.Status ordinal
+    final int[] loanType;         // index into loanTypes
+    final String[] loanTypes;
+    final long[] exposure;        // outstanding principal, 0 unless APPROVED
+    final long[] monthlyInflow;   // EMI still being collected, 0 otherwise
+
+    private LoanPortfolioSnapshot(Builder b) {
+        this.takenAt = Instant.now();
+        this.size = b.size;
+        this.amount = Arrays.copyOf(b.amount, b.size);
+        this.annualIncome = Arrays.copyOf(b.annualIncome, b.size);
+        this.tenureMonths = Arrays.copyOf(b.tenureMonths, b.size);
+        this.status = Arrays.copyOf(b.status, b.size);
+        this.loanType = Arrays.copyOf(b.loanType, b.size);
+        String[] types = new String[b.typeCodes.size()];
+        b.typeCodes.forEach((name, code) -> types[code] = name);
+        this.loanTypes = types;
+        this.exposure = Arrays.copyOf(b.exposure, b.size);
+        this.monthlyInflow = Arrays.copyOf(b.monthlyInflow, b.size);
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /** Appends rows into growable arrays; not thread-safe, used only while loading. */
+    static final class Builder {
+        private int size;
+        private long[] amount = new long[1024];
+        private long[] annualIncome = new long[1024];
+        private int[] tenureMonths = new int[1024];
+        private byte[] status = new byte[1024];
+        private int[] loanType = new int[1024];
+        private long[] exposure = new long[1024];
+        private long[] monthlyInflow = new long[1024];
+        private final Map<String, Integer> typeCodes = new HashMap<>();
+
+        void add(Money amt, String type, Integer tenure, Money income,
+                 Loan.Status st, Money emi, Money outstanding) {
+            if (size == amount.length) {
+                grow();
+            }
+            long a = amt == null ? 0 : amt.minor();
+            amount[size] = a;
+            annualIncome[size] = income == null ? 0 : income.minor();
+            tenureMonths[size] = tenure == null ? 0 : tenure;
+            Loan.Status s = st == null ? Loan.Status.PENDING : st;
+            status[size] = (byte) s.ordinal();
+            String t = type == null ? "UNKNOWN" : type.trim().toUpperCase();
+            loanType[size] = typeCodes.computeIfAbsent(t, k -> typeCodes.size());
+
+            if (s == Loan.Status.APPROVED) {
+                long out = outstanding == null ? a : outstanding.minor();
+                exposure[size] = out;
+                monthlyInflow[size] = out > 0 && emi != null ? emi.minor() : 0;
+            }
+            size++;
+        }
+
+        LoanPortfolioSnapshot build() {
+            return new LoanPortfolioSnapshot(this);
+        }
+
+        private void grow() {
+            int n = amount.length * 2;
+            amount = Arrays.copyOf(amount, n);
+            annualIncome = Arrays.copyOf(annualIncome, n);
+            tenureMonths = Arrays.copyOf(tenureMonths, n);
+            status = Arrays.copyOf(status, n);
+            loanType = Arrays.copyOf(loanType, n);
+            exposure = Arrays.copyOf(exposure, n);
+            monthlyInflow = Arrays.copyOf(monthlyInflow, n);
+        }
+    }
+}
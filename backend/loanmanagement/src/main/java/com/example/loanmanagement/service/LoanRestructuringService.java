@@ -0,0 +1,147 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.LoanLifecycleEvent;
+import com.example.loanmanagement.dto.ScheduleChangeResponse;
+import com.example.loanmanagement.exception.LoanStatusConflictException;
+import com.example.loanmanagement.mapper.LoanMapper;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.security.SecurityUtils;
+import com.example.loanmanagement.util.Amortization;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Part-prepayment, foreclosure and restructuring of approved loans. Each one locks the loan,
+ * recomputes only its unpaid installments (ScheduleRecalculator) and writes the difference.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoanRestructuringService {
+
+    private final LoanRepository loanRepository;
+    private final ScheduleRecalculator recalculator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanMapper loanMapper;
+
+    /** Take a part-prepayment against principal and re-plan the rest (smaller EMI or shorter tenure) */
+    @Transactional
+    public ScheduleChangeResponse prepay(Long loanId, Money amount, ScheduleRecalculator.Mode mode) {
+        Loan loan = lockApproved(loanId);
+        ScheduleRecalculator.Pending pending = requirePending(loan);
+        long balance = pending.balance();
+        if (amount.minor() >= balance) {
+            throw new IllegalArgumentException("Prepayment covers the whole outstanding balance; foreclose the loan instead");
+        }
+
+        recalculator.insertSettlement(loan, amount.minor(), 0);
+        Amortization.Plan plan = recalculator.plan(loan, pending, balance - amount.minor(), loan.getAnnualInterestRate(), mode);
+        ScheduleRecalculator.Diff diff = recalculator.apply(loan, pending, plan);
+
+        loanRepository.save(loan);
+        publish(LoanLifecycleEvent.Type.PREPAID, loan, "Prepaid " + amount + " (" + mode + ")");
+        return response(loan, amount, diff);
+    }
+
+    /**
+     * Settle the outstanding principal, the interest of every unpaid installment already due, and
+     * interest accrued so far in the current period
+     */
+    @Transactional
+    public ScheduleChangeResponse foreclose(Long loanId) {
+        Loan loan = lockApproved(loanId);
+        ScheduleRecalculator.Pending pending = requirePending(loan);
+        long balance = pending.balance();
+        long accrued = interestDue(loan, pending, LocalDate.now());
+
+        recalculator.insertSettlement(loan, balance, accrued);
+        int deleted = recalculator.deleteAll(pending);
+
+        loan.setOutstandingPrincipal(Money.ZERO);
+        loan.setNextDueDate(null);
+        loan.setNextDueAmount(null);
+        loanRepository.save(loan);
+
+        Money settled = Money.ofMinor(balance + accrued);
+        publish(LoanLifecycleEvent.Type.FORECLOSED, loan, "Foreclosed for " + settled);
+        return response(loan, settled, new ScheduleRecalculator.Diff(0, deleted, 0));
+    }
+
+    /** Spread the outstanding balance over a new number of remaining installments, optionally at a new rate */
+    @Transactional
+    public ScheduleChangeResponse restructure(Long loanId, int remainingMonths, Double annualInterestRate) {
+        Loan loan = lockApproved(loanId);
+        ScheduleRecalculator.Pending pending = requirePending(loan);
+        double rate = annualInterestRate != null ? annualInterestRate : loan.getAnnualInterestRate();
+
+        Amortization.Plan plan = Amortization.byInstallments(pending.balance(), rate, remainingMonths);
+        if (loan.getBenchmark() != null && loan.getRateSpread() != null) {
+            // floating loan: keep the new rate across repricings by moving the spread with it
+            loan.setRateSpread(loan.getRateSpread() + rate - loan.getAnnualInterestRate());
+        }
+        loan.setAnnualInterestRate(rate);
+        ScheduleRecalculator.Diff diff = recalculator.apply(loan, pending, plan);
+
+        loanRepository.save(loan);
+        publish(LoanLifecycleEvent.Type.RESTRUCTURED, loan,
+                "Restructured to " + remainingMonths + " installments at " + rate + "%");
+        return response(loan, Money.ZERO, diff);
+    }
+
+    /**
+     * Full interest of the installments due on or before today, plus the current period's interest
+     * pro rata on its opening balance (capped at that installment's interest)
+     */
+    private static long interestDue(Loan loan, ScheduleRecalculator.Pending pending, LocalDate today) {
+        long interest = 0;
+        long overduePrincipal = 0;
+        int i = 0;
+        while (i < pending.size() && !pending.dueDates()[i].isAfter(today)) {
+            interest += pending.interest()[i];
+            overduePrincipal += pending.principal()[i];
+            i++;
+        }
+        if (i == pending.size()) return interest;
+
+        // the current period started at the previous due date, or a month before its own
+        LocalDate periodStart = i > 0 ? pending.dueDates()[i - 1] : pending.dueDates()[i].minusMonths(1);
+        long days = Math.max(0, ChronoUnit.DAYS.between(periodStart, today));
+        long opening = pending.balance() - overduePrincipal;
+        return interest + Math.min(pending.interest()[i],
+                Math.round(opening * (loan.getAnnualInterestRate() / 100) * days / 365));
+    }
+
+    private Loan lockApproved(Long loanId) {
+        Loan loan = loanRepository.findByIdForUpdate(loanId)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        if (loan.getStatus() != Loan.Status.APPROVED) {
+            throw new LoanStatusConflictException("ONLY APPROVED LOANS CAN BE PREPAID, FORECLOSED OR RESTRUCTURED");
+        }
+        return loan;
+    }
+
+    private ScheduleRecalculator.Pending requirePending(Loan loan) {
+        ScheduleRecalculator.Pending pending = recalculator.loadPending(loan.getId());
+        if (pending.size() == 0) {
+            throw new LoanStatusConflictException("LOAN HAS NO UNPAID INSTALLMENTS");
+        }
+        return pending;
+    }
+
+    private ScheduleChangeResponse response(Loan loan, Money settled, ScheduleRecalculator.Diff diff) {
+        return new ScheduleChangeResponse(loanMapper.toResponse(loan), settled,
+                diff.updated(), diff.deleted(), diff.inserted());
+    }
+
+    private void publish(LoanLifecycleEvent.Type type, Loan loan, String remark) {
+        eventPublisher.publishEvent(new LoanLifecycleEvent(type, loan.getId(), null,
+                loan.getStatus().name(), loan.getStatus().name(), SecurityUtils.currentActor(), remark, LocalDateTime.now()));
+    }
+}
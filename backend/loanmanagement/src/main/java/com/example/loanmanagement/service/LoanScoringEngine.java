@@ -0,0 +1,116 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.config.LoanScoringProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable rule evaluator. Rules are built once from {@link LoanScoringProperties};
+ * {@link #evaluate(Facts)} only reads primitives and is safe to call from many threads.
+ * A loan starts at 100 and each failing rule subtracts a penalty and adds a reason.
+ */
+public final class LoanScoringEngine {
+
+    /** Everything a rule may look at, flattened so evaluation never touches JPA entities */
+    public record Facts(double amount, int tenureMonths, double annualIncome, double emi, String loanType,
+                        long priorRejected, long activeApproved, long otherPending) {
+    }
+
+    public record Result(int score, List<String> reasons) {
+    }
+
+    @FunctionalInterface
+    private interface Rule {
+        /** @return penalty (0 = pass); adds a reason when it fails */
+        int apply(Facts f, List<String> reasons);
+    }
+
+    private record Limits(double maxAmount, int maxTenureMonths) {
+    }
+
+    private final Rule[] rules;
+
+    private LoanScoringEngine(Rule[] rules) {
+        this.rules = rules;
+    }
+
+    public static LoanScoringEngine compile(LoanScoringProperties props) {
+        double maxDti = props.getMaxDti();
+        Map<String, Limits> limits = new HashMap<>();
+        props.getLimits().forEach((type, l) ->
+                limits.put(type.trim().toUpperCase(), new Limits(l.getMaxAmount(), l.getMaxTenureMonths())));
+        Map<String, Limits> byType = Map.copyOf(limits);
+
+        List<Rule> rules = new ArrayList<>();
+
+        // debt-to-income: EMI against monthly income
+        rules.add((f, reasons) -> {
+            double monthlyIncome = f.annualIncome() / 12;
+            double dti = monthlyIncome <= 0 ? Double.POSITIVE_INFINITY : f.emi() / monthlyIncome;
+            if (dti > maxDti) {
+                reasons.add("EMI is " + pct(dti) + " of monthly income (max " + pct(maxDti) + ")");
+                return 50;
+            }
+            if (dti > maxDti * 0.8) {
+                reasons.add("EMI is close to the income limit (" + pct(dti) + ")");
+                return 15;
+            }
+            return 0;
+        });
+
+        // per-type amount and tenure limits
+        rules.add((f, reasons) -> {
+            Limits l = byType.get(f.loanType());
+            if (l == null) {
+                reasons.add("No limits configured for loan type " + f.loanType());
+                return 10;
+            }
+            int penalty = 0;
+            if (f.amount() > l.maxAmount()) {
+                reasons.add("Amount exceeds " + f.loanType() + " limit of " + (long) l.maxAmount());
+                penalty += 40;
+            }
+            if (f.tenureMonths() > l.maxTenureMonths()) {
+                reasons.add("Tenure exceeds " + f.loanType() + " limit of " + l.maxTenureMonths() + " months");
+                penalty += 20;
+            }
+            return penalty;
+        });
+
+        // applicant history
+        rules.add((f, reasons) -> {
+            int penalty = 0;
+            if (f.priorRejected() > 0) {
+                reasons.add(f.priorRejected() + " previously rejected application(s)");
+                penalty += (int) Math.min(30, 10 * f.priorRejected());
+            }
+            if (f.activeApproved() > 0) {
+                reasons.add("Already has an approved loan");
+                penalty += 20;
+            }
+            if (f.otherPending() > 0) {
+                reasons.add("Has another pending application");
+                penalty += 10;
+            }
+            return penalty;
+        });
+
+        return new LoanScoringEngine(rules.toArray(new Rule[0]));
+    }
+
+    public Result evaluate(Facts facts) {
+        List<String> reasons = new ArrayList<>(2);
+        int score = 100;
+        for (Rule rule : rules) {
+            score -= rule.apply(facts, reasons);
+        }
+        return new Result(Math.max(0, score), reasons);
+    }
+
+    private static String pct(double v) {
+        return Math.round(v * 100) + "%";
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.config.LoanScoringProperties;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.util.EmiCalculator;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Scores PENDING loans in keyset-ordered batches: one query for the loans, one GROUP BY
+ * for the applicants' history, then the rules run in parallel over plain facts.
+ */
+@Service
+public class LoanScoringService {
+
+    private final LoanRepository loanRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final LoanScoringEngine engine;
+    private final int batchSize;
+
+    public LoanScoringService(LoanRepository loanRepository,
+                              TransactionTemplate transactionTemplate,
+                              LoanScoringProperties properties) {
+        this.loanRepository = loanRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.engine = LoanScoringEngine.compile(properties);
+        this.batchSize = properties.getBatchSize();
+    }
+
+    /** Score (or re-score) every pending loan; returns how many were scored */
+    public int scorePendingLoans() {
+        long afterId = 0;
+        int total = 0;
+        while (true) {
+            final long from = afterId;
+            List<Loan> batch = transactionTemplate.execute(tx -> scoreBatch(from));
+            if (batch.isEmpty()) {
+                return total;
+            }
+            total += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    private List<Loan> scoreBatch(long afterId) {
+        List<Loan> loans = loanRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                Loan.Status.PENDING, afterId, Limit.of(batchSize));
+        if (loans.isEmpty()) {
+            return loans;
+        }
+
+        // userId -> [rejected, approved, pending]
+        Map<Long, long[]> history = new HashMap<>();
+        List<Long> userIds = loans.stream().map(l -> l.getUser().getId()).distinct().toList();
+        for (Object[] row : loanRepository.countByUserAndStatus(userIds)) {
+            long[] counts = history.computeIfAbsent((Long) row[0], k -> new long[3]);
+            Loan.Status status = (Loan.Status) row[1];
+            int slot = status == Loan.Status.REJECTED ? 0 : status == Loan.Status.APPROVED ? 1 : 2;
+            counts[slot] = (Long) row[2];
+        }
+
+        LoanScoringEngine.Facts[] facts = new LoanScoringEngine.Facts[loans.size()];
+        for (int i = 0; i < facts.length; i++) {
+            Loan l = loans.get(i);
+            long[] h = history.getOrDefault(l.getUser().getId(), new long[3]);
+            facts[i] = new LoanScoringEngine.Facts(
+                    l.getAmount().toDouble(), l.getTenureMonths(), l.getAnnualIncome().toDouble(), emiOf(l),
+                    l.getLoanType() == null ? "" : l.getLoanType().trim().toUpperCase(),
+                    h[0], h[1], Math.max(0, h[2] - 1));
+        }
+
+        LoanScoringEngine.Result[] results = new LoanScoringEngine.Result[facts.length];
+        IntStream.range(0, facts.length).parallel().forEach(i -> results[i] = engine.evaluate(facts[i]));
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < results.length; i++) {
+            Loan l = loans.get(i);
+            l.setRiskScore(results[i].score());
+            l.setRiskReasons(String.join("; ", results[i].reasons()));
+            l.setScoredAt(now);
+        }
+        return loans;
+    }
+
+    private static double emiOf(Loan l) {
+        if (l.getEmi() != null) {
+            return l.getEmi().toDouble();
+        }
+        return EmiCalculator.calculateEmiMinor(
+                l.getAmount().minor(), l.getAnnualInterestRate(), l.getTenureMonths()) / 100.0;
+    }
+}
@@ -1,22 +1,35 @@
 package com.example.loanmanagement.service;
 
+import com.example.loanmanagement.dto.LoanApplicationStatusResponse;
+import com.example.loanmanagement.dto.LoanLifecycleEvent;
 import com.example.loanmanagement.dto.LoanResponse;
+import com.example.loanmanagement.dto.RepaymentDTO;
+import com.example.loanmanagement.mapper.LoanFieldSet;
+import com.example.loanmanagement.mapper.LoanMapper;
+import com.example.loanmanagement.mapper.RepaymentMapper;
 import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.LoanApplicationTask;
 import com.example.loanmanagement.model.Repayment;
 import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanApplicationTaskRepository;
 import com.example.loanmanagement.repository.LoanRepository;
 import com.example.loanmanagement.repository.RepaymentRepository;
 import com.example.loanmanagement.repository.UserRepository;
-import com.example.loanmanagement.util.DateUtil;
+import com.example.loanmanagement.security.SecurityUtils;
 import com.example.loanmanagement.util.EmiCalculator;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +38,15 @@ public class LoanService {
     private final LoanRepository loanRepository;
     private final RepaymentRepository repaymentRepository;
     private final UserRepository userRepository;
+    private final RepaymentService repaymentService;
+    private final LoanApplicationTaskRepository loanApplicationTaskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanMapper loanMapper;
+    private final RepaymentMapper repaymentMapper;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${loan.batch.max-ids:100}")
+    private int maxBatchIds;
 
     /* =========================
        NEW: fetch current user's loans
@@ -34,7 +56,7 @@ public class LoanService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         List<Loan> loans = loanRepository.findByUser(user);
-        return loans.stream().map(this::toDto).toList();
+        return loans.stream().map(loanMapper::toResponse).toList();
     }
 
     /* Optional: ensure a user can only see their own loan by id */
@@ -45,7 +67,7 @@ public class LoanService {
         if (loan.getUser() == null || !loan.getUser().getEmail().equalsIgnoreCase(email)) {
             throw new RuntimeException("Unauthorized to view this loan");
         }
-        return toDto(loan);
+        return loanMapper.toResponse(loan);
     }
 
     /* =========================
@@ -61,12 +83,11 @@ public class LoanService {
             throw new IllegalArgumentException("Annual Interest Rate and Tenure must be provided");
         }
 
-        BigDecimal emi = EmiCalculator.calculateEMI(
-                BigDecimal.valueOf(loan.getAmount()),
+        loan.setEmi(EmiCalculator.calculateEMI(
+                loan.getAmount(),
                 loan.getAnnualInterestRate(),
                 loan.getTenureMonths()
-        );
-        loan.setEmi(emi.doubleValue());
+        ));
         loanRepository.save(loan);
 
         return loan;
@@ -80,40 +101,49 @@ public class LoanService {
         loan.setStartDate(LocalDate.now());
         loan.setStatus(Loan.Status.APPROVED);
 
-        BigDecimal emi = EmiCalculator.calculateEMI(
-                BigDecimal.valueOf(loan.getAmount()),
-                loan.getAnnualInterestRate(),
-                loan.getTenureMonths()
-        );
-        loan.setEmi(emi.doubleValue());
+        repaymentService.createSchedule(loan);
         loanRepository.save(loan);
 
-        List<LocalDate> dueDates = DateUtil.generateDueDates(
-                loan.getStartDate(),
-                loan.getTenureMonths()
-        );
-
-        List<Repayment> repayments = new ArrayList<>();
-        double monthlyRate = (loan.getAnnualInterestRate() / 100) / 12;
-
-        for (LocalDate dueDate : dueDates) {
-            double interest = loan.getAmount() * monthlyRate;
-            double principal = emi.doubleValue() - interest;
-
-            Repayment repayment = new Repayment();
-            repayment.setLoan(loan);
-            repayment.setDueDate(dueDate);
-            repayment.setPrincipal(principal);
-            repayment.setInterest(interest);
-            repayment.setStatus(Repayment.Status.PENDING);
+        return loanRepository.findById(loan.getId())
+                .orElseThrow(() -> new RuntimeException("Loan reload failed after approval"));
+    }
 
-            repayments.add(repayment);
+    /**
+     * Several loans by id in one query, in the order asked (unknown ids are left out).
+     * With fields, only those LoanResponse attributes are selected and returned, as maps.
+     * ownerEmail limits the result to that customer's loans; null (admins) returns any of them.
+     */
+    @Transactional
+    public List<?> getLoansByIds(List<Long> ids, String fields, String ownerEmail) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        if (distinct.isEmpty() || distinct.size() > maxBatchIds) {
+            throw new IllegalArgumentException("Between 1 and " + maxBatchIds + " ids per request");
         }
 
-        repaymentRepository.saveAll(repayments);
+        if (fields == null || fields.isBlank()) {
+            Map<Long, Loan> byId = new HashMap<>();
+            for (Loan l : loanRepository.findByIdIn(distinct)) {
+                if (ownerEmail == null || l.getUser() != null && ownerEmail.equalsIgnoreCase(l.getUser().getEmail())) {
+                    byId.put(l.getId(), l);
+                }
+            }
+            return distinct.stream().filter(byId::containsKey).map(id -> loanMapper.toResponse(byId.get(id))).toList();
+        }
 
-        return loanRepository.findById(loan.getId())
-                .orElseThrow(() -> new RuntimeException("Loan reload failed after approval"));
+        LoanFieldSet fieldSet = LoanFieldSet.parse(fields);
+        Map<Long, Map<String, Object>> byId = new HashMap<>();
+        String sql = fieldSet.selectFrom() + " where l.id in (:ids)";
+        Map<String, Object> params = new HashMap<>(Map.of("ids", distinct));
+        if (ownerEmail != null) {
+            // case-insensitive, like the ownership checks on the single-loan lookups
+            sql += " and l.user_id in (select id from users where lower(email) = lower(:email))";
+            params.put("email", ownerEmail);
+        }
+        jdbcTemplate.query(sql, params, rs -> {
+            Map<String, Object> row = fieldSet.read(rs);
+            byId.put((Long) row.get("id"), row);
+        });
+        return distinct.stream().filter(byId::containsKey).map(byId::get).toList();
     }
 
     /* Your original by-id fetch (kept as-is) */
@@ -122,8 +152,14 @@ public class LoanService {
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
     }
 
-    public List<Repayment> getRepayments(Long loanId) {
-        return repaymentRepository.findByLoanId(loanId);
+    public List<RepaymentDTO> getRepayments(Long loanId) {
+        List<Repayment> rows = repaymentRepository.findByLoanId(loanId);
+        if (rows.isEmpty()) {
+            rows = repaymentRepository.findArchivedByLoanId(loanId); // closed loan, schedule archived
+        }
+        return rows.stream()
+                .map(repaymentMapper::toDto)
+                .toList();
     }
 
     @Transactional
@@ -142,71 +178,56 @@ public class LoanService {
         loanEntity.setStartDate(LocalDate.now());
 
         Loan savedLoan = loanRepository.save(loanEntity);
-
-        if (savedLoan.getAnnualInterestRate() == null || savedLoan.getTenureMonths() == null) {
-            throw new IllegalArgumentException("Annual Interest Rate and Tenure must be provided");
-        }
-        BigDecimal emi = EmiCalculator.calculateEMI(
-                BigDecimal.valueOf(savedLoan.getAmount()),
-                savedLoan.getAnnualInterestRate(),
-                savedLoan.getTenureMonths()
-        );
-        savedLoan.setEmi(emi.doubleValue());
-        loanRepository.save(savedLoan);
-
-        List<LocalDate> dueDates = DateUtil.generateDueDates(
-                savedLoan.getStartDate(),
-                savedLoan.getTenureMonths()
-        );
-
-        List<Repayment> repayments = new ArrayList<>();
-        double monthlyRate = (savedLoan.getAnnualInterestRate() / 100) / 12;
-
-        for (LocalDate dueDate : dueDates) {
-            double interest = savedLoan.getAmount() * monthlyRate;
-            double principal = emi.doubleValue() - interest;
-
-            Repayment repayment = new Repayment();
-            repayment.setLoan(savedLoan);
-            repayment.setDueDate(dueDate);
-            repayment.setPrincipal(principal);
-            repayment.setInterest(interest);
-            repayment.setStatus(Repayment.Status.PENDING);
-
-            repayments.add(repayment);
-        }
-
-        repaymentRepository.saveAll(repayments);
+        generateSchedule(savedLoan);
+        publishApplied(savedLoan);
 
         return savedLoan;
     }
 
+    /** Compute EMI and write the repayment schedule for a persisted loan (caller owns the transaction) */
+    public void generateSchedule(Loan loan) {
+        repaymentService.createSchedule(loan);
+        loanRepository.save(loan);
+    }
+
     /* =========================
-       Mapping helper
+       Async intake: persist + enqueue, worker does the rest
        ========================= */
-    private LoanResponse toDto(Loan loan) {
-        LoanResponse r = new LoanResponse();
-        r.setId(loan.getId());
-        r.setAmount(loan.getAmount());
-        r.setLoanType(loan.getLoanType());
-        r.setTenureMonths(loan.getTenureMonths());
-        r.setPurpose(loan.getPurpose());
-        r.setAnnualIncome(loan.getAnnualIncome());
-        r.setStatus(loan.getStatus().name());
-        r.setAdminRemark(loan.getAdminRemark());
-        r.setStartDate(loan.getStartDate());
-        r.setEmi(loan.getEmi());
-        if (loan.getUser() != null) {
-            // only if you added these fields to LoanResponse
-            try {
-                r.getClass().getDeclaredField("customerName");
-                r.getClass().getDeclaredField("customerEmail");
-                r.setCustomerName(loan.getUser().getName());
-                r.setCustomerEmail(loan.getUser().getEmail());
-            } catch (NoSuchFieldException ignored) {
-                // fields not present; safe to ignore
-            }
+    @Transactional
+    public LoanApplicationTask submitLoanApplication(Loan loanEntity, String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        loanEntity.setUser(user);
+        loanEntity.setStatus(Loan.Status.PENDING);
+        loanEntity.setStartDate(LocalDate.now());
+        Loan saved = loanRepository.save(loanEntity);
+        publishApplied(saved);
+
+        LocalDateTime now = LocalDateTime.now();
+        LoanApplicationTask task = new LoanApplicationTask();
+        task.setTrackingId(UUID.randomUUID().toString());
+        task.setLoanId(saved.getId());
+        task.setStatus(LoanApplicationTask.Status.QUEUED);
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+        return loanApplicationTaskRepository.save(task);
+    }
+
+    @Transactional
+    public LoanApplicationStatusResponse getApplicationStatus(String trackingId, String email) {
+        LoanApplicationTask task = loanApplicationTaskRepository.findByTrackingId(trackingId)
+                .orElseThrow(() -> new RuntimeException("Application not found"));
+        Loan loan = getLoanById(task.getLoanId());
+        if (loan.getUser() == null || !loan.getUser().getEmail().equalsIgnoreCase(email)) {
+            throw new RuntimeException("Unauthorized to view this application");
         }
-        return r;
+        return new LoanApplicationStatusResponse(task.getTrackingId(), task.getStatus().name(),
+                task.getLoanId(), task.getMessage(), task.getCreatedAt(), task.getUpdatedAt());
+    }
+
+    private void publishApplied(Loan loan) {
+        eventPublisher.publishEvent(new LoanLifecycleEvent(LoanLifecycleEvent.Type.APPLIED, loan.getId(), null,
+                null, loan.getStatus().name(), SecurityUtils.currentActor(), null, LocalDateTime.now()));
     }
 }
@@ -0,0 +1,173 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.RateCardRequest;
+import com.example.loanmanagement.model.BenchmarkRate;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.RateCard;
+import com.example.loanmanagement.repository.BenchmarkRateRepository;
+import com.example.loanmanagement.repository.RateCardRepository;
+import com.example.loanmanagement.exception.UnknownBenchmarkException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Interest-rate pricing by loan type, amount band and tenure band.
+ * The rate_card table is compiled into an immutable grid per loan type and swapped in
+ * atomically, so {@link #resolveRate} is a map lookup plus two binary searches, no query.
+ * A cell with no card of its own takes the rate of the nearest lower band that has one.
+ * Every node polls the card-set version and reloads when another node has published.
+ */
+@Service
+@RequiredArgsConstructor
+public class RateCardService {
+
+    private final RateCardRepository rateCardRepository;
+    private final BenchmarkRateRepository benchmarkRateRepository;
+
+    @Value("${loan.pricing.default-rate:10.0}")
+    private double defaultRate;
+
+    private final AtomicReference<Map<String, Grid>> grids = new AtomicReference<>(Map.of());
+
+    // version of the card set behind grids, see RateCardRepository.currentVersion
+    private volatile long loadedVersion;
+
+    /** Annual rate in % for an application; falls back to the default when no card is at or below it */
+    public double resolveRate(String loanType, double amount, int tenureMonths) {
+        Grid g = grids.get().get(normalize(loanType));
+        if (g == null) {
+            return defaultRate;
+        }
+        double rate = g.rate(amount, tenureMonths);
+        return Double.isNaN(rate) ? defaultRate : rate;
+    }
+
+    /** Make a priced application floating: today's rate becomes a spread over the benchmark's current value */
+    public void floatOver(Loan loan, String benchmark) {
+        BenchmarkRate b = benchmarkRateRepository.findById(normalize(benchmark))
+                .orElseThrow(() -> new UnknownBenchmarkException("Unknown benchmark: " + benchmark));
+        loan.setBenchmark(b.getName());
+        loan.setRateSpread(loan.getAnnualInterestRate() - b.getRate());
+    }
+
+    public List<RateCard> getRateCards() {
+        return rateCardRepository.findAll();
+    }
+
+    /** Replace the whole card set; the new grid goes live once the transaction commits. Rejects duplicate cells */
+    @Transactional
+    public List<RateCard> publish(List<RateCardRequest> cards) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RateCard> rows = cards.stream()
+                .map(c -> new RateCard(null, normalize(c.getLoanType()), c.getMinAmount(),
+                        c.getMinTenureMonths(), c.getAnnualInterestRate(), now))
+                .toList();
+        Map<String, Grid> compiled = compile(rows);
+
+        rateCardRepository.deleteAllInBatch();
+        List<RateCard> saved = rateCardRepository.saveAll(rows);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                grids.set(compiled);
+                loadedVersion = version(saved);
+            }
+        });
+        return saved;
+    }
+
+    /** Re-read cards from the database on this node */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        List<RateCard> cards = rateCardRepository.findAll();
+        grids.set(compile(cards));
+        loadedVersion = version(cards);
+    }
+
+    /** Pick up a card set published on another node; one cheap query while nothing changed */
+    @Scheduled(fixedDelayString = "${loan.pricing.reload-poll-ms:5000}")
+    public void reloadIfChanged() {
+        if (rateCardRepository.currentVersion() != loadedVersion) {
+            reload();
+        }
+    }
+
+    private static long version(List<RateCard> cards) {
+        return cards.stream().mapToLong(RateCard::getId).max().orElse(0);
+    }
+
+    private static Map<String, Grid> compile(List<RateCard> cards) {
+        Map<String, List<RateCard>> byType = new HashMap<>();
+        for (RateCard c : cards) {
+            byType.computeIfAbsent(normalize(c.getLoanType()), k -> new ArrayList<>()).add(c);
+        }
+        Map<String, Grid> out = new HashMap<>();
+        byType.forEach((type, rows) -> out.put(type, Grid.of(rows)));
+        return Map.copyOf(out);
+    }
+
+    private static String normalize(String loanType) {
+        return loanType == null ? "" : loanType.trim().toUpperCase();
+    }
+
+    /** Rates for one loan type laid out as amountBands x tenureBands; NaN = no card at or below that cell */
+    private record Grid(double[] amountFloors, int[] tenureFloors, double[] rates) {
+
+        static Grid of(List<RateCard> rows) {
+            double[] amounts = rows.stream().mapToDouble(RateCard::getMinAmount).distinct().sorted().toArray();
+            int[] tenures = rows.stream().mapToInt(RateCard::getMinTenureMonths).distinct().sorted().toArray();
+            double[] rates = new double[amounts.length * tenures.length];
+            Arrays.fill(rates, Double.NaN);
+            for (RateCard r : rows) {
+                int a = Arrays.binarySearch(amounts, r.getMinAmount());
+                int t = Arrays.binarySearch(tenures, r.getMinTenureMonths());
+                int cell = a * tenures.length + t;
+                if (!Double.isNaN(rates[cell])) {
+                    throw new IllegalArgumentException("Duplicate rate card: " + r.getLoanType() + " from amount "
+                            + r.getMinAmount() + " and " + r.getMinTenureMonths() + " months");
+                }
+                rates[cell] = r.getAnnualInterestRate();
+            }
+            // empty cells: the lower tenure band in the same amount band, else the lower amount band
+            for (int a = 0; a < amounts.length; a++) {
+                for (int t = 0; t < tenures.length; t++) {
+                    int cell = a * tenures.length + t;
+                    if (!Double.isNaN(rates[cell])) continue;
+                    if (t > 0 && !Double.isNaN(rates[cell - 1])) rates[cell] = rates[cell - 1];
+                    else if (a > 0) rates[cell] = rates[cell - tenures.length];
+                }
+            }
+            return new Grid(amounts, tenures, rates);
+        }
+
+        double rate(double amount, int tenureMonths) {
+            int a = floorIndex(Arrays.binarySearch(amountFloors, amount));
+            int t = floorIndex(Arrays.binarySearch(tenureFloors, tenureMonths));
+            if (a < 0 || t < 0) {
+                return Double.NaN;
+            }
+            return rates[a * tenureFloors.length + t];
+        }
+
+        // binarySearch returns -(insertionPoint) - 1 on a miss; the band is the floor just below
+        private static int floorIndex(int found) {
+            return found >= 0 ? found : -found - 2;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.config.ClusterJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Moves the repayment rows of closed loans (rejected, or approved and fully paid) from the
+ * partitioned repayment table into repayment_archive, so the hot table and its loan_id index
+ * only hold live schedules. Loans stay in place with archived_at set; their schedule is still
+ * served by LoanService.getRepayments. One transaction per chunk of loans. Runs periodically as
+ * a {@link ClusterJob}, sharded by loan id across the cluster's nodes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RepaymentArchiveService implements ClusterJob {
+
+    private static final String NEXT_CHUNK =
+            "select l.id from loan l where l.archived_at is null and l.id > ? and l.id <= ? and (l.status = 'REJECTED' " +
+            "  or (l.status = 'APPROVED' and l.outstanding_principal_minor = 0 " +
+            "      and not exists (select 1 from repayment r where r.loan_id = l.id and r.status <> 'PAID'))) " +
+            "order by l.id limit ?";
+
+    private static final String MOVE_REPAYMENTS =
+            "with moved as (delete from repayment where loan_id = any(?) " +
+            "  returning id, due_date, principal_minor, interest_minor, status, row_type, loan_id) " +
+            "insert into repayment_archive (id, due_date, principal_minor, interest_minor, status, row_type, loan_id) " +
+            "select id, due_date, principal_minor, interest_minor, status, row_type, loan_id from moved";
+
+    private static final String MARK_ARCHIVED = "update loan set archived_at = now() where id = any(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${loan.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${loan.archive.interval-minutes:60}")
+    private long intervalMinutes;
+
+    @Value("${loan.archive.batch-size:200}")
+    private int batchSize;
+
+    @Override
+    public String name() {
+        return "repayment-archive";
+    }
+
+    @Override
+    public Trigger trigger() {
+        if (!enabled) return null;
+        PeriodicTrigger trigger = new PeriodicTrigger(Duration.ofMinutes(intervalMinutes));
+        trigger.setInitialDelay(Duration.ofMinutes(intervalMinutes));
+        return trigger;
+    }
+
+    @Override
+    public String runKey(LocalDateTime firedAt) {
+        return firedAt.truncatedTo(ChronoUnit.MINUTES).toString();
+    }
+
+    @Override
+    public long[] idRange(String runKey) {
+        long[] range = jdbcTemplate.queryForObject("select min(id), max(id) from loan where archived_at is null",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        return range[1] == 0 ? null : range;
+    }
+
+    @Override
+    public long runShard(String runKey, long fromId, long toId) {
+        return archiveRange(fromId, toId);
+    }
+
+    /** Archive every eligible loan, chunk by chunk; returns how many loans were archived */
+    public int archiveClosedLoans() {
+        return archiveRange(0, Long.MAX_VALUE);
+    }
+
+    // eligible loans with ids in (fromId, toId]
+    private int archiveRange(long fromId, long toId) {
+        int total = 0;
+        long afterId = fromId;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(NEXT_CHUNK, Long.class, afterId, toId, batchSize);
+            if (ids.isEmpty()) break;
+
+            Long[] chunk = ids.toArray(new Long[0]);
+            int moved = transactionTemplate.execute(s -> {
+                int rows = jdbcTemplate.update(MOVE_REPAYMENTS, ps -> ps.setArray(1, bigintArray(ps.getConnection(), chunk)));
+                jdbcTemplate.update(MARK_ARCHIVED, ps -> ps.setArray(1, bigintArray(ps.getConnection(), chunk)));
+                return rows;
+            });
+            total += ids.size();
+            afterId = ids.get(ids.size() - 1);
+            log.debug("Archived {} loans ({} repayments) up to id {}", ids.size(), moved, afterId);
+        }
+        if (total > 0) log.info("Archived repayment schedules of {} closed loans", total);
+        return total;
+    }
+
+    private static Array bigintArray(Connection c, Long[] ids) throws SQLException {
+        return c.createArrayOf("bigint", ids);
+    }
+}
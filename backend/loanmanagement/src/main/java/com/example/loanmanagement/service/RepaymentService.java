@@ -1,4 +1,143 @@
 package com.example.loanmanagement.service;
 
+import com.example.loanmanagement.dto.LoanLifecycleEvent;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.Repayment;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.security.SecurityUtils;
+import com.example.loanmanagement.util.Amortization;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds repayment schedules and keeps the summary columns on {@link Loan}
+ * (outstanding principal, paid count, next due) in sync with its repayment rows,
+ * so list screens never have to read the schedule.
+ */
+@Service
+@RequiredArgsConstructor
 public class RepaymentService {
+
+    private final LoanRepository loanRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessCalendarService calendarService;
+
+    /**
+     * Set the loan's EMI and save a declining-balance schedule for it, computed in cents.
+     * The last installment absorbs rounding so principal sums exactly to the loan amount.
+     * Due dates fall on business days per the loan type's calendar rule.
+     * Also initialises the summary columns; the caller saves the loan.
+     */
+    public List<Repayment> createSchedule(Loan loan) {
+        if (loan.getAnnualInterestRate() == null || loan.getTenureMonths() == null) {
+            throw new IllegalArgumentException("Annual Interest Rate and Tenure must be provided");
+        }
+        int n = loan.getTenureMonths();
+        Amortization.Plan plan = Amortization.byInstallments(
+                loan.getAmount().minor(), loan.getAnnualInterestRate(), n);
+        loan.setEmi(Money.ofMinor(plan.emi()));
+
+        LocalDate[] dueDates = calendarService.dueDates(loan.getLoanType(), loan.getStartDate(), n);
+        List<Repayment> repayments = new ArrayList<>(n);
+
+        for (int i = 0; i < n; i++) {
+            Repayment repayment = new Repayment();
+            repayment.setLoan(loan);
+            repayment.setDueDate(dueDates[i]);
+            repayment.setPrincipal(Money.ofMinor(plan.principal()[i]));
+            repayment.setInterest(Money.ofMinor(plan.interest()[i]));
+            repayment.setStatus(Repayment.Status.PENDING);
+            repayment.setType(Repayment.Type.INSTALLMENT);
+
+            repayments.add(repayment);
+        }
+
+        repaymentRepository.saveAll(repayments);
+        initSummary(loan, repayments);
+        return repayments;
+    }
+
+    /** Recompute the loan's summary from a full schedule (call right after generating it) */
+    public void initSummary(Loan loan, List<Repayment> schedule) {
+        long outstanding = 0;
+        int paid = 0;
+        Repayment next = null;
+
+        for (Repayment r : schedule) {
+            if (r.isSettlement()) continue;
+            if (r.getStatus() == Repayment.Status.PAID) {
+                paid++;
+                continue;
+            }
+            outstanding += r.getPrincipal().minor();
+            if (next == null || r.getDueDate().isBefore(next.getDueDate())) {
+                next = r;
+            }
+        }
+
+        loan.setOutstandingPrincipal(Money.ofMinor(outstanding));
+        loan.setPaidInstallments(paid);
+        setNextDue(loan, next);
+    }
+
+    /**
+     * Mark one installment paid and roll the loan's summary forward in the same transaction.
+     * The loan is locked before the row is read, the same order repricing and restructuring use,
+     * so the two never deadlock and the row's amounts are the current ones.
+     */
+    @Transactional
+    public Repayment markPaid(Long repaymentId) {
+        Long loanId = repaymentRepository.findLoanIdById(repaymentId)
+                .orElseThrow(() -> new RuntimeException("Repayment not found"));
+        loanRepository.findByIdForUpdate(loanId)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+        Repayment repayment = repaymentRepository.findById(repaymentId)
+                .orElseThrow(() -> new RuntimeException("Repayment not found"));
+
+        if (repayment.getStatus() == Repayment.Status.PAID) {
+            return repayment; // already counted, don't decrement twice
+        }
+        Repayment.Status before = repayment.getStatus();
+        repayment.setStatus(Repayment.Status.PAID);
+        repaymentRepository.save(repayment);
+
+        Loan loan = repayment.getLoan();
+        if (loan.getOutstandingPrincipal() == null || loan.getPaidInstallments() == null) {
+            // loan predates the summary columns: backfill from its schedule once
+            initSummary(loan, repaymentRepository.findByLoanId(loan.getId()));
+        } else {
+            long left = loan.getOutstandingPrincipal().minor() - repayment.getPrincipal().minor();
+            loan.setOutstandingPrincipal(Money.ofMinor(Math.max(0, left)));
+            loan.setPaidInstallments(loan.getPaidInstallments() + 1);
+            setNextDue(loan, repaymentRepository
+                    .findFirstByLoanIdAndStatusOrderByDueDateAsc(loan.getId(), Repayment.Status.PENDING)
+                    .orElse(null));
+        }
+        loanRepository.save(loan);
+
+        eventPublisher.publishEvent(new LoanLifecycleEvent(LoanLifecycleEvent.Type.REPAYMENT_PAID, loan.getId(),
+                repayment.getId(), before == null ? null : before.name(), Repayment.Status.PAID.name(),
+                SecurityUtils.currentActor(), null, LocalDateTime.now()));
+        return repayment;
+    }
+
+    private void setNextDue(Loan loan, Repayment next) {
+        if (next == null) {
+            loan.setNextDueDate(null);
+            loan.setNextDueAmount(null);
+        } else {
+            loan.setNextDueDate(next.getDueDate());
+            loan.setNextDueAmount(next.getPrincipal().plus(next.getInterest()));
+        }
+    }
 }
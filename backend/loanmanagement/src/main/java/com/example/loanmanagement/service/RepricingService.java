@@ -0,0 +1,401 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.config.ClusterProperties;
+import com.example.loanmanagement.dto.RepricingReport;
+import com.example.loanmanagement.model.BenchmarkRate;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.RepricingPartition;
+import com.example.loanmanagement.model.RepricingRun;
+import com.example.loanmanagement.repository.BenchmarkRateRepository;
+import com.example.loanmanagement.repository.RepricingPartitionRepository;
+import com.example.loanmanagement.repository.RepricingRunRepository;
+import com.example.loanmanagement.util.Amortization;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Reprices the floating-rate book after a benchmark moves. The affected loans are split into
+ * loan-id ranges that are worked in parallel; each range is walked in chunks, one transaction per
+ * chunk: lock the chunk's loans, read their unpaid rows in one query, recompute EMI and schedule
+ * on a fork-join pool, then write changed rows, loans and the range's checkpoint as JDBC batches.
+ * A failed or interrupted run resumes from its checkpoints; the running node renews a lease on
+ * the run, so one left RUNNING by a node that died can be resumed once the lease lapses.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RepricingService {
+
+    private static final String AFFECTED_RANGE =
+            "select min(id), max(id) from loan where benchmark = ? and status = 'APPROVED' and archived_at is null";
+
+    private static final String LOCK_CHUNK =
+            "select id, rate_spread, annual_interest_rate, emi_minor from loan " +
+            "where benchmark = ? and status = 'APPROVED' and archived_at is null and id > ? and id <= ? " +
+            "order by id limit ? for update";
+
+    private static final String PENDING_ROWS =
+            "select r.loan_id, r.id, r.due_date, r.principal_minor, r.interest_minor from repayment r " +
+            "join loan l on l.id = r.loan_id " +
+            "where l.benchmark = ? and l.status = 'APPROVED' and l.archived_at is null and l.id > ? and l.id <= ? " +
+            "and r.status = 'PENDING' order by r.loan_id, r.due_date, r.id";
+
+    private static final String UPDATE_LOAN =
+            "update loan set annual_interest_rate = ?, emi_minor = ?, next_due_amount_minor = ? where id = ?";
+
+    private static final String CHECKPOINT =
+            "update repricing_partition set last_id = ?, done = ?, loans_repriced = loans_repriced + ?, " +
+            "loans_unchanged = loans_unchanged + ?, rows_updated = rows_updated + ?, " +
+            "emi_before_minor = emi_before_minor + ?, emi_after_minor = emi_after_minor + ?, " +
+            "interest_before_minor = interest_before_minor + ?, interest_after_minor = interest_after_minor + ? " +
+            "where id = ?";
+
+    /** What the chunk query locked for one loan */
+    record LoanTerms(long id, double spread, double rate, long emi) {
+    }
+
+    /** New rate and schedule for one loan, plus the row updates that get it there */
+    record Repriced(double rate, Amortization.Plan plan, List<Object[]> rows, long interestBefore) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BenchmarkRateRepository benchmarkRateRepository;
+    private final RepricingRunRepository runRepository;
+    private final RepricingPartitionRepository partitionRepository;
+    private final ScheduleRecalculator recalculator;
+    private final ClusterProperties clusterProperties;
+
+    @Value("${loan.repricing.partitions:16}")
+    private int partitions;
+
+    @Value("${loan.repricing.workers:4}")
+    private int workers;
+
+    @Value("${loan.repricing.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${loan.repricing.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private String nodeId;
+    private ExecutorService coordinator;
+    private ExecutorService partitionPool;
+    private ForkJoinPool computePool;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        nodeId = clusterProperties.resolvedNodeId();
+        AtomicInteger n = new AtomicInteger();
+        coordinator = Executors.newSingleThreadExecutor(r -> new Thread(r, "repricing"));
+        partitionPool = Executors.newFixedThreadPool(workers, r -> new Thread(r, "repricing-" + n.incrementAndGet()));
+        computePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // keep our running run's lease; it can be resumed elsewhere once it lapses
+    @Scheduled(fixedDelayString = "${loan.cluster.heartbeat-ms:5000}")
+    public void renewLease() {
+        if (running.get()) {
+            jdbcTemplate.update("update repricing_run set lease_until = ? where owner = ? and status = 'RUNNING'",
+                    leaseUntil(), nodeId);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (coordinator != null) coordinator.shutdownNow();
+        if (partitionPool != null) partitionPool.shutdownNow();
+        if (computePool != null) computePool.shutdownNow();
+    }
+
+    /** Record the benchmark's new value and reprice its loans in the background */
+    public RepricingReport reprice(String benchmark, double rate) {
+        String name = benchmark.trim().toUpperCase();
+        claim();
+        try {
+            RepricingRun run = transactionTemplate.execute(s -> createRun(name, rate));
+            if (run.getStatus() == RepricingRun.Status.RUNNING) {
+                coordinator.execute(() -> execute(run.getId()));
+            } else {
+                running.set(false);
+            }
+            return report(run.getId());
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    /** Continue a failed run, or one whose node stopped renewing its lease, from its checkpoints */
+    public RepricingReport resume(Long runId) {
+        claim();
+        try {
+            transactionTemplate.executeWithoutResult(s -> {
+                RepricingRun run = runRepository.findById(runId)
+                        .orElseThrow(() -> new RuntimeException("Repricing run not found"));
+                boolean stale = run.getStatus() == RepricingRun.Status.RUNNING
+                        && (run.getLeaseUntil() == null || run.getLeaseUntil().isBefore(LocalDateTime.now()));
+                if (run.getStatus() != RepricingRun.Status.FAILED && !stale) {
+                    throw new IllegalStateException("Only failed runs can be resumed");
+                }
+                if (runRepository.existsByBenchmarkAndIdGreaterThan(run.getBenchmark(), runId)) {
+                    throw new IllegalStateException("Run was superseded by a later change of " + run.getBenchmark());
+                }
+                run.setStatus(RepricingRun.Status.RUNNING);
+                run.setMessage(null);
+                run.setOwner(nodeId);
+                run.setLeaseUntil(leaseUntil());
+                run.setFinishedAt(null);
+                runRepository.save(run);
+            });
+            coordinator.execute(() -> execute(runId));
+            return report(runId);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public List<RepricingRun> recentRuns() {
+        return runRepository.findTop20ByOrderByIdDesc();
+    }
+
+    /** Progress so far, or the final summary once the run is done */
+    public RepricingReport report(Long runId) {
+        RepricingRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Repricing run not found"));
+        RepricingReport report = new RepricingReport();
+        report.setRunId(run.getId());
+        report.setBenchmark(run.getBenchmark());
+        report.setPreviousRate(run.getPreviousRate());
+        report.setBenchmarkRate(run.getBenchmarkRate());
+        report.setStatus(run.getStatus().name());
+        report.setMessage(run.getMessage());
+        report.setStartedAt(run.getStartedAt());
+        report.setFinishedAt(run.getFinishedAt());
+        LocalDateTime end = run.getFinishedAt() != null ? run.getFinishedAt() : LocalDateTime.now();
+        report.setElapsedMs(Duration.between(run.getStartedAt(), end).toMillis());
+
+        Money emiBefore = Money.ZERO, emiAfter = Money.ZERO, interestBefore = Money.ZERO, interestAfter = Money.ZERO;
+        for (RepricingPartition p : partitionRepository.findByRunIdOrderByPartitionNo(runId)) {
+            report.setLoansRepriced(report.getLoansRepriced() + p.getLoansRepriced());
+            report.setLoansUnchanged(report.getLoansUnchanged() + p.getLoansUnchanged());
+            report.setRowsUpdated(report.getRowsUpdated() + p.getRowsUpdated());
+            emiBefore = emiBefore.plus(p.getEmiBefore());
+            emiAfter = emiAfter.plus(p.getEmiAfter());
+            interestBefore = interestBefore.plus(p.getInterestBefore());
+            interestAfter = interestAfter.plus(p.getInterestAfter());
+            report.getPartitions().add(new RepricingReport.PartitionProgress(p.getPartitionNo(),
+                    p.getFromId(), p.getToId(), p.getLastId(), p.isDone(), p.getLoansRepriced()));
+        }
+        report.setEmiBefore(emiBefore);
+        report.setEmiAfter(emiAfter);
+        report.setInterestBefore(interestBefore);
+        report.setInterestAfter(interestAfter);
+        return report;
+    }
+
+    private void claim() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A repricing run is already in progress");
+        }
+    }
+
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plus(Duration.ofMillis(clusterProperties.getLeaseMs()));
+    }
+
+    private RepricingRun createRun(String name, double rate) {
+        if (runRepository.existsByStatusAndLeaseUntilAfter(RepricingRun.Status.RUNNING, LocalDateTime.now())) {
+            throw new IllegalStateException("A repricing run is already in progress");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Double previous = benchmarkRateRepository.findById(name).map(BenchmarkRate::getRate).orElse(null);
+        benchmarkRateRepository.save(new BenchmarkRate(name, rate, now));
+        RepricingRun run = runRepository.save(new RepricingRun(null, name, previous, rate,
+                RepricingRun.Status.RUNNING, null, nodeId, leaseUntil(), now, null));
+
+        long[] range = jdbcTemplate.queryForObject(AFFECTED_RANGE,
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)}, name);
+        if (range[1] == 0) {
+            run.setStatus(RepricingRun.Status.COMPLETED);
+            run.setMessage("No active loans on " + name);
+            run.setFinishedAt(now);
+            return runRepository.save(run);
+        }
+
+        // equal id ranges (from, to] over the affected loans
+        long lo = range[0] - 1, span = range[1] - lo;
+        int p = (int) Math.min(Math.max(1, partitions), span);
+        List<RepricingPartition> parts = new ArrayList<>(p);
+        for (int i = 0; i < p; i++) {
+            long from = lo + span * i / p, to = lo + span * (i + 1) / p;
+            parts.add(new RepricingPartition(null, run.getId(), i, from, to, from, false,
+                    0, 0, 0, Money.ZERO, Money.ZERO, Money.ZERO, Money.ZERO));
+        }
+        partitionRepository.saveAll(parts);
+        return run;
+    }
+
+    private void execute(Long runId) {
+        String failure = null;
+        try {
+            RepricingRun run = runRepository.findById(runId).orElseThrow();
+            List<Future<?>> futures = new ArrayList<>();
+            for (RepricingPartition part : partitionRepository.findByRunIdOrderByPartitionNo(runId)) {
+                if (!part.isDone()) {
+                    futures.add(partitionPool.submit(() -> repricePartition(run, part)));
+                }
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    log.warn("Repricing run {} partition failed", runId, e.getCause());
+                    failure = String.valueOf(e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Interrupted";
+        } catch (Exception e) {
+            log.warn("Repricing run {} failed", runId, e);
+            failure = String.valueOf(e.getMessage());
+        } finally {
+            finish(runId, failure);
+            running.set(false);
+        }
+    }
+
+    private void finish(Long runId, String failure) {
+        runRepository.findById(runId).ifPresent(run -> {
+            run.setStatus(failure == null ? RepricingRun.Status.COMPLETED : RepricingRun.Status.FAILED);
+            run.setMessage(failure);
+            run.setFinishedAt(LocalDateTime.now());
+            runRepository.save(run);
+        });
+        RepricingReport r = report(runId);
+        log.info("Repricing run {} {}: {} {}% -> {}%, {} loans repriced, {} unchanged, {} rows, EMI {} -> {}, in {} ms",
+                runId, r.getStatus(), r.getBenchmark(), r.getPreviousRate(), r.getBenchmarkRate(),
+                r.getLoansRepriced(), r.getLoansUnchanged(), r.getRowsUpdated(), r.getEmiBefore(), r.getEmiAfter(),
+                r.getElapsedMs());
+    }
+
+    private void repricePartition(RepricingRun run, RepricingPartition part) {
+        Long lastId = part.getLastId();
+        while (lastId != null) {
+            final long after = lastId;
+            lastId = transactionTemplate.execute(s -> repriceChunk(run, part, after));
+        }
+    }
+
+    /** One committed chunk; returns the new checkpoint, or null once the range is done */
+    private Long repriceChunk(RepricingRun run, RepricingPartition part, long afterId) {
+        List<LoanTerms> loans = jdbcTemplate.query(LOCK_CHUNK,
+                (rs, i) -> new LoanTerms(rs.getLong(1), rs.getDouble(2), rs.getDouble(3), rs.getLong(4)),
+                run.getBenchmark(), afterId, part.getToId(), chunkSize);
+        if (loans.isEmpty()) {
+            jdbcTemplate.update(CHECKPOINT, afterId, true, 0, 0, 0, 0, 0, 0, 0, part.getId());
+            return null;
+        }
+        long upTo = loans.get(loans.size() - 1).id();
+        Map<Long, ScheduleRecalculator.Pending> pending = loadPending(run.getBenchmark(), afterId, upTo);
+
+        double benchmarkRate = run.getBenchmarkRate();
+        Repriced[] out = new Repriced[loans.size()];
+        computePool.submit(() -> IntStream.range(0, out.length).parallel()
+                .forEach(i -> out[i] = reprice(loans.get(i), pending.get(loans.get(i).id()), benchmarkRate))).join();
+
+        List<Object[]> rowUpdates = new ArrayList<>();
+        List<Object[]> loanUpdates = new ArrayList<>();
+        long repriced = 0, unchanged = 0, emiBefore = 0, emiAfter = 0, interestBefore = 0, interestAfter = 0;
+        for (int i = 0; i < out.length; i++) {
+            Repriced r = out[i];
+            if (r == null) {
+                unchanged++;
+                continue;
+            }
+            Amortization.Plan plan = r.plan();
+            repriced++;
+            rowUpdates.addAll(r.rows());
+            loanUpdates.add(new Object[]{r.rate(), plan.emi(), plan.principal()[0] + plan.interest()[0], loans.get(i).id()});
+            emiBefore += loans.get(i).emi();
+            emiAfter += plan.emi();
+            interestBefore += r.interestBefore();
+            interestAfter += sum(plan.interest());
+        }
+
+        recalculator.updateRows(rowUpdates);
+        if (!loanUpdates.isEmpty()) jdbcTemplate.batchUpdate(UPDATE_LOAN, loanUpdates);
+        boolean done = loans.size() < chunkSize;
+        jdbcTemplate.update(CHECKPOINT, upTo, done, repriced, unchanged, rowUpdates.size(),
+                emiBefore, emiAfter, interestBefore, interestAfter, part.getId());
+        return done ? null : upTo;
+    }
+
+    /** New terms for one loan at benchmark + spread, or null if its rate doesn't change or nothing is unpaid */
+    static Repriced reprice(LoanTerms loan, ScheduleRecalculator.Pending pending, double benchmarkRate) {
+        double rate = Math.max(0, Math.round((benchmarkRate + loan.spread()) * 10_000) / 10_000.0);
+        if (pending == null || pending.size() == 0 || rate == loan.rate()) {
+            return null;
+        }
+        Amortization.Plan plan = Amortization.byInstallments(pending.balance(), rate, pending.size());
+        return new Repriced(rate, plan, ScheduleRecalculator.changedRows(pending, plan), sum(pending.interest()));
+    }
+
+    // unpaid rows of the locked chunk, grouped per loan (rows arrive ordered by loan, then due date)
+    private Map<Long, ScheduleRecalculator.Pending> loadPending(String benchmark, long afterId, long upTo) {
+        List<Object[]> rows = jdbcTemplate.query(PENDING_ROWS,
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate(), rs.getLong(4), rs.getLong(5)},
+                benchmark, afterId, upTo);
+        Map<Long, ScheduleRecalculator.Pending> byLoan = new HashMap<>();
+        int start = 0;
+        for (int i = 1; i <= rows.size(); i++) {
+            if (i < rows.size() && rows.get(i)[0].equals(rows.get(start)[0])) continue;
+            int n = i - start;
+            ScheduleRecalculator.Pending p = new ScheduleRecalculator.Pending(
+                    new long[n], new LocalDate[n], new long[n], new long[n]);
+            for (int j = 0; j < n; j++) {
+                Object[] r = rows.get(start + j);
+                p.ids()[j] = (Long) r[1];
+                p.dueDates()[j] = (LocalDate) r[2];
+                p.principal()[j] = (Long) r[3];
+                p.interest()[j] = (Long) r[4];
+            }
+            byLoan.put((Long) rows.get(start)[0], p);
+            start = i;
+        }
+        return byLoan;
+    }
+
+    private static long sum(long[] values) {
+        long s = 0;
+        for (long v : values) s += v;
+        return s;
+    }
+}
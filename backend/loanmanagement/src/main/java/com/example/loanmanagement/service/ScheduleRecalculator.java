@@ -0,0 +1,150 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.util.Amortization;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recomputes only the unpaid tail of a schedule and writes the difference: rows whose amounts
+ * changed are updated, surplus rows deleted and extra rows inserted, each as one JDBC batch.
+ * Paid rows and unchanged pending rows are never touched. Caller holds the loan lock and
+ * the transaction, and saves the loan afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleRecalculator {
+
+    private static final String UPDATE_ROW =
+            "update repayment set principal_minor = ?, interest_minor = ? where id = ? and due_date = ?";
+    private static final String DELETE_ROW = "delete from repayment where id = ? and due_date = ?";
+    private static final String INSERT_ROW =
+            "insert into repayment (due_date, principal_minor, interest_minor, status, row_type, loan_id) values (?, ?, ?, ?, ?, ?)";
+
+    public enum Mode {
+        REDUCE_EMI,     // same number of installments left, smaller EMI
+        REDUCE_TENURE   // same EMI, fewer installments
+    }
+
+    /** How many pending rows a recompute touched */
+    public record Diff(int updated, int deleted, int inserted) {
+    }
+
+    /** Unpaid installments in due order, as (id, dueDate, principal, interest) */
+    public record Pending(long[] ids, LocalDate[] dueDates, long[] principal, long[] interest) {
+        public int size() {
+            return ids.length;
+        }
+
+        public long balance() {
+            long sum = 0;
+            for (long p : principal) sum += p;
+            return sum;
+        }
+    }
+
+    private final RepaymentRepository repaymentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BusinessCalendarService calendarService;
+
+    public Pending loadPending(Long loanId) {
+        List<Object[]> rows = repaymentRepository.findPendingTerms(loanId);
+        int n = rows.size();
+        Pending p = new Pending(new long[n], new LocalDate[n], new long[n], new long[n]);
+        for (int i = 0; i < n; i++) {
+            Object[] r = rows.get(i);
+            p.ids()[i] = (Long) r[0];
+            p.dueDates()[i] = (LocalDate) r[1];
+            p.principal()[i] = ((Money) r[2]).minor();
+            p.interest()[i] = ((Money) r[3]).minor();
+        }
+        return p;
+    }
+
+    /** New plan for the pending tail after reducing its balance to newBalance */
+    public Amortization.Plan plan(Loan loan, Pending pending, long newBalance, double annualRate, Mode mode) {
+        return mode == Mode.REDUCE_TENURE
+                ? Amortization.byEmi(newBalance, annualRate, loan.getEmi().minor(), pending.size())
+                : Amortization.byInstallments(newBalance, annualRate, pending.size());
+    }
+
+    /**
+     * Write plan over the pending rows (row i of the plan replaces pending row i) and roll the
+     * loan's EMI, tenure and summary columns forward. Extra plan rows continue the loan's monthly
+     * schedule on its business-day calendar.
+     */
+    public Diff apply(Loan loan, Pending pending, Amortization.Plan plan) {
+        int m = pending.size(), k = plan.size();
+        List<Object[]> updates = changedRows(pending, plan);
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+
+        for (int i = k; i < m; i++) {
+            deletes.add(new Object[]{pending.ids()[i], Date.valueOf(pending.dueDates()[i])});
+        }
+        int paid = loan.getPaidInstallments() == null ? 0 : loan.getPaidInstallments();
+        LocalDate start = loan.getStartDate() != null ? loan.getStartDate() : LocalDate.now();
+        LocalDate firstDue = m > 0 ? pending.dueDates()[0] : null;
+        for (int i = m; i < k; i++) {
+            // the pending rows are installments paid..paid+m-1 of the original schedule
+            LocalDate due = calendarService.dueDate(loan.getLoanType(), start, paid + i);
+            if (firstDue == null) firstDue = due;
+            inserts.add(new Object[]{Date.valueOf(due), plan.principal()[i], plan.interest()[i], "PENDING", "INSTALLMENT", loan.getId()});
+        }
+
+        updateRows(updates);
+        if (!deletes.isEmpty()) jdbcTemplate.batchUpdate(DELETE_ROW, deletes);
+        if (!inserts.isEmpty()) jdbcTemplate.batchUpdate(INSERT_ROW, inserts);
+
+        long outstanding = 0;
+        for (long p : plan.principal()) outstanding += p;
+        loan.setEmi(Money.ofMinor(plan.emi()));
+        loan.setTenureMonths(paid + k);
+        loan.setOutstandingPrincipal(Money.ofMinor(outstanding));
+        loan.setNextDueDate(firstDue);
+        loan.setNextDueAmount(Money.ofMinor(plan.principal()[0] + plan.interest()[0]));
+        return new Diff(updates.size(), deletes.size(), inserts.size());
+    }
+
+    /** UPDATE parameters for the pending rows whose amounts differ in plan (row i replaces pending row i) */
+    public static List<Object[]> changedRows(Pending pending, Amortization.Plan plan) {
+        List<Object[]> updates = new ArrayList<>();
+        for (int i = 0; i < Math.min(pending.size(), plan.size()); i++) {
+            if (pending.principal()[i] != plan.principal()[i] || pending.interest()[i] != plan.interest()[i]) {
+                updates.add(new Object[]{plan.principal()[i], plan.interest()[i], pending.ids()[i], Date.valueOf(pending.dueDates()[i])});
+            }
+        }
+        return updates;
+    }
+
+    /** Write rows collected by {@link #changedRows}, possibly from many loans, as one batch */
+    public void updateRows(List<Object[]> updates) {
+        if (!updates.isEmpty()) jdbcTemplate.batchUpdate(UPDATE_ROW, updates);
+    }
+
+    /** Drop every pending row (loan settled in full) */
+    public int deleteAll(Pending pending) {
+        List<Object[]> deletes = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            deletes.add(new Object[]{pending.ids()[i], Date.valueOf(pending.dueDates()[i])});
+        }
+        if (!deletes.isEmpty()) jdbcTemplate.batchUpdate(DELETE_ROW, deletes);
+        return deletes.size();
+    }
+
+    /**
+     * A settled prepayment/foreclosure, kept in the schedule as a PAID SETTLEMENT row dated today.
+     * It is not an installment, so paidInstallments and tenureMonths don't count it.
+     */
+    public void insertSettlement(Loan loan, long principal, long interest) {
+        jdbcTemplate.update(INSERT_ROW, Date.valueOf(LocalDate.now()), principal, interest, "PAID", "SETTLEMENT", loan.getId());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.model.StatementRun;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders one customer's monthly statement as text, CSV or HTML. Works on plain rows
+ * (amounts in minor units) so a batch can render without entities or a persistence context.
+ */
+final class StatementRenderer {
+
+    /** One customer and their active loans, in loan id order */
+    record Statement(long customerId, String name, String email, List<Account> accounts) {
+    }
+
+    /** One loan with the installments falling due in the period */
+    record Account(long loanId, long userId, String loanType, long amount, double rate, long emi,
+                   long outstanding, LocalDate nextDueDate, long nextDueAmount, List<Line> lines) {
+
+        Account(long loanId, long userId, String loanType, long amount, double rate, long emi,
+                long outstanding, LocalDate nextDueDate, long nextDueAmount) {
+            this(loanId, userId, loanType, amount, rate, emi, outstanding, nextDueDate, nextDueAmount, new ArrayList<>());
+        }
+    }
+
+    record Line(LocalDate dueDate, long principal, long interest, String status) {
+    }
+
+    private StatementRenderer() {
+    }
+
+    static byte[] render(Statement s, YearMonth period, StatementRun.Format format) {
+        StringBuilder out = new StringBuilder(512 + 160 * s.accounts().size());
+        switch (format) {
+            case TEXT -> text(s, period, out);
+            case CSV -> csv(s, out);
+            case HTML -> html(s, period, out);
+        }
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void text(Statement s, YearMonth period, StringBuilder out) {
+        out.append("Loan statement ").append(period).append('\n');
+        out.append(s.name()).append(" <").append(s.email()).append(">\n");
+        for (Account a : s.accounts()) {
+            out.append('\n').append("Loan #").append(a.loanId()).append(' ').append(a.loanType())
+                    .append("  amount ").append(money(a.amount())).append("  rate ").append(a.rate()).append("%")
+                    .append("  EMI ").append(money(a.emi())).append('\n');
+            for (Line l : a.lines()) {
+                out.append("  ").append(l.dueDate()).append("  principal ").append(money(l.principal()))
+                        .append("  interest ").append(money(l.interest()))
+                        .append("  total ").append(money(l.principal() + l.interest()))
+                        .append("  ").append(l.status()).append('\n');
+            }
+            if (a.lines().isEmpty()) out.append("  no installments due this period\n");
+            out.append("  outstanding principal ").append(money(a.outstanding()));
+            if (a.nextDueDate() != null) {
+                out.append("  next due ").append(a.nextDueDate()).append(' ').append(money(a.nextDueAmount()));
+            }
+            out.append('\n');
+        }
+    }
+
+    // one row per installment; loans without installments in the period get one row with empty installment columns
+    private static void csv(Statement s, StringBuilder out) {
+        out.append("loan_id,loan_type,due_date,principal,interest,total,status,outstanding_principal,next_due_date,next_due_amount\n");
+        for (Account a : s.accounts()) {
+            if (a.lines().isEmpty()) {
+                csvRow(a, null, out);
+            }
+            for (Line l : a.lines()) {
+                csvRow(a, l, out);
+            }
+        }
+    }
+
+    private static void csvRow(Account a, Line l, StringBuilder out) {
+        out.append(a.loanId()).append(',');
+        csvField(a.loanType(), out);
+        out.append(',');
+        if (l != null) {
+            out.append(l.dueDate()).append(',').append(money(l.principal())).append(',')
+                    .append(money(l.interest())).append(',').append(money(l.principal() + l.interest()))
+                    .append(',').append(l.status());
+        } else {
+            out.append(",,,,");
+        }
+        out.append(',').append(money(a.outstanding())).append(',');
+        if (a.nextDueDate() != null) out.append(a.nextDueDate()).append(',').append(money(a.nextDueAmount()));
+        else out.append(',');
+        out.append('\n');
+    }
+
+    private static void html(Statement s, YearMonth period, StringBuilder out) {
+        out.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Loan statement ")
+                .append(period).append("</title></head><body>\n");
+        out.append("<h1>Loan statement ").append(period).append("</h1>\n<p>");
+        escape(s.name(), out);
+        out.append(" &lt;");
+        escape(s.email(), out);
+        out.append("&gt;</p>\n");
+        for (Account a : s.accounts()) {
+            out.append("<h2>Loan #").append(a.loanId()).append(' ');
+            escape(a.loanType(), out);
+            out.append("</h2>\n<p>Amount ").append(money(a.amount())).append(", rate ").append(a.rate())
+                    .append("%, EMI ").append(money(a.emi())).append("</p>\n");
+            out.append("<table><tr><th>Due date</th><th>Principal</th><th>Interest</th><th>Total</th><th>Status</th></tr>\n");
+            for (Line l : a.lines()) {
+                out.append("<tr><td>").append(l.dueDate()).append("</td><td>").append(money(l.principal()))
+                        .append("</td><td>").append(money(l.interest())).append("</td><td>")
+                        .append(money(l.principal() + l.interest())).append("</td><td>").append(l.status())
+                        .append("</td></tr>\n");
+            }
+            out.append("</table>\n<p>Outstanding principal ").append(money(a.outstanding()));
+            if (a.nextDueDate() != null) {
+                out.append(", next due ").append(a.nextDueDate()).append(' ').append(money(a.nextDueAmount()));
+            }
+            out.append("</p>\n");
+        }
+        out.append("</body></html>\n");
+    }
+
+    // minor units as a plain decimal, without going through BigDecimal
+    static String money(long minor) {
+        long abs = Math.abs(minor);
+        long cents = abs % 100;
+        return (minor < 0 ? "-" : "") + abs / 100 + (cents < 10 ? ".0" : ".") + cents;
+    }
+
+    private static void csvField(String value, StringBuilder out) {
+        if (value == null) return;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static void escape(String value, StringBuilder out) {
+        if (value == null) return;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.config.ClusterJob;
+import com.example.loanmanagement.config.ClusterProperties;
+import com.example.loanmanagement.model.StatementRun;
+import com.example.loanmanagement.repository.StatementRunRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Monthly customer statements. Customers with approved loans are read a page at a time in id
+ * order (one query each for customers, their loans and the period's installments); each page is
+ * rendered and written on a fixed pool while the next page is read. Files go to
+ * {dir}/{period}/{format}/{shard}/customer-{id}.{ext}, and every page appends its lines to
+ * manifest.csv before the run's checkpoint (last customer id, manifest length) is committed.
+ * A failed run resumes after the checkpoint, cutting the manifest back to the committed length.
+ * The monthly run is a single-shard {@link ClusterJob}, so one node in the cluster runs it.
+ * The running node renews a lease on its run; a RUNNING run whose lease lapsed can be resumed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatementService implements ClusterJob {
+
+    private static final String CUSTOMER_PAGE =
+            "select u.id, u.name, u.email from users u " +
+            "where u.role = 'CUSTOMER' and u.id > ? " +
+            "  and exists (select 1 from loan l where l.user_id = u.id and l.status = 'APPROVED') " +
+            "order by u.id limit ?";
+
+    private static final String PAGE_LOANS =
+            "select l.id, l.user_id, l.loan_type, l.amount_minor, l.annual_interest_rate, l.emi_minor, " +
+            "  l.outstanding_principal_minor, l.next_due_date, l.next_due_amount_minor " +
+            "from loan l where l.status = 'APPROVED' and l.user_id >= ? and l.user_id <= ? " +
+            "order by l.user_id, l.id";
+
+    private static final String PAGE_INSTALLMENTS =
+            "select r.loan_id, r.due_date, r.principal_minor, r.interest_minor, r.status from repayment r " +
+            "join loan l on l.id = r.loan_id " +
+            "where l.status = 'APPROVED' and l.user_id >= ? and l.user_id <= ? " +
+            "  and r.due_date >= ? and r.due_date <= ? " +
+            "order by r.loan_id, r.due_date, r.id";
+
+    private static final String CHECKPOINT =
+            "update statement_run set last_user_id = ?, manifest_bytes = ?, " +
+            "statements = statements + ?, bytes_written = bytes_written + ? where id = ?";
+
+    private static final String MANIFEST = "manifest.csv";
+    private static final String MANIFEST_HEADER = "customer_id,file,loans,bytes,crc32\n";
+
+    /** One rendered slice of a page: its manifest lines and totals */
+    private record Written(String manifest, int statements, long bytes) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatementRunRepository runRepository;
+    private final ClusterProperties clusterProperties;
+
+    @Value("${loan.statements.enabled:true}")
+    private boolean enabled;
+
+    @Value("${loan.statements.dir:statements}")
+    private String baseDir;
+
+    @Value("${loan.statements.day-of-month:1}")
+    private int dayOfMonth;
+
+    @Value("${loan.statements.run-at:02:00}")
+    private LocalTime runAt;
+
+    @Value("${loan.statements.format:CSV}")
+    private StatementRun.Format defaultFormat;
+
+    @Value("${loan.statements.page-size:1000}")
+    private int pageSize;               // customers per query and per checkpoint
+
+    @Value("${loan.statements.workers:4}")
+    private int workers;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private String nodeId;
+    private ExecutorService coordinator;
+    private ExecutorService renderPool;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        nodeId = clusterProperties.resolvedNodeId();
+        AtomicInteger n = new AtomicInteger();
+        coordinator = Executors.newSingleThreadExecutor(r -> new Thread(r, "statements"));
+        renderPool = Executors.newFixedThreadPool(workers, r -> new Thread(r, "statements-" + n.incrementAndGet()));
+    }
+
+    // keep our running run's lease; other nodes may take the run over once it lapses
+    @Scheduled(fixedDelayString = "${loan.cluster.heartbeat-ms:5000}")
+    public void renewLease() {
+        if (running.get()) {
+            jdbcTemplate.update("update statement_run set lease_until = ? where owner = ? and status = 'RUNNING'",
+                    leaseUntil(), nodeId);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (coordinator != null) coordinator.shutdownNow();
+        if (renderPool != null) renderPool.shutdownNow();
+    }
+
+    @Override
+    public String name() {
+        return "monthly-statements";
+    }
+
+    @Override
+    public Trigger trigger() {
+        return enabled
+                ? new CronTrigger(String.format("0 %d %d %d * *", runAt.getMinute(), runAt.getHour(), dayOfMonth))
+                : null;
+    }
+
+    // the month before the one the run fires in
+    @Override
+    public String runKey(LocalDateTime firedAt) {
+        return YearMonth.from(firedAt).minusMonths(1).toString();
+    }
+
+    @Override
+    public boolean sharded() {
+        return false;
+    }
+
+    @Override
+    public long[] idRange(String runKey) {
+        return null;
+    }
+
+    // the whole month on this node, in the calling thread
+    @Override
+    public long runShard(String runKey, long fromId, long toId) {
+        StatementRun run = prepare(YearMonth.parse(runKey), defaultFormat, true);
+        if (run.getStatus() == StatementRun.Status.RUNNING) {
+            execute(run.getId());
+            run = getRun(run.getId());
+        }
+        if (run.getStatus() == StatementRun.Status.FAILED) {
+            throw new IllegalStateException("Statement run " + run.getId() + " failed: " + run.getMessage());
+        }
+        return run.getStatements();
+    }
+
+    /**
+     * Start statements for a month in the background. A period that is already done is returned
+     * as is; one that failed is resumed.
+     */
+    public StatementRun generate(YearMonth period, StatementRun.Format format) {
+        StatementRun run = prepare(period, format, false);
+        if (run.getStatus() == StatementRun.Status.RUNNING) {
+            coordinator.execute(() -> execute(run.getId()));
+        }
+        return run;
+    }
+
+    /** Continue a failed run after its last committed page */
+    public StatementRun resume(Long runId) {
+        StatementRun run = reopen(runId, false);
+        coordinator.execute(() -> execute(runId));
+        return run;
+    }
+
+    /**
+     * The period's run, claimed and RUNNING for the caller to execute, or already COMPLETED.
+     * A run left RUNNING is picked up once its lease lapsed, or at once with takeover (the cluster
+     * shard lease already guarantees the node that ran it is gone).
+     */
+    private StatementRun prepare(YearMonth period, StatementRun.Format format, boolean takeover) {
+        if (period.isAfter(YearMonth.now())) {
+            throw new IllegalArgumentException("Statement period " + period + " is in the future");
+        }
+        StatementRun existing = runRepository.findByPeriodAndFormat(period.toString(), format).orElse(null);
+        if (existing != null && existing.getStatus() == StatementRun.Status.COMPLETED) {
+            return existing;
+        }
+        if (existing != null) {
+            return reopen(existing.getId(), takeover);
+        }
+        claim();
+        try {
+            if (runRepository.existsByStatusAndLeaseUntilAfter(StatementRun.Status.RUNNING, LocalDateTime.now())) {
+                throw new IllegalStateException("A statement run is already in progress");
+            }
+            Path dir = Path.of(baseDir, period.toString(), format.name().toLowerCase()).toAbsolutePath();
+            return runRepository.save(new StatementRun(null, period.toString(), format,
+                    StatementRun.Status.RUNNING, dir.toString(), 0, 0, 0, 0, null, nodeId, leaseUntil(),
+                    LocalDateTime.now(), null));
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    private StatementRun reopen(Long runId, boolean takeover) {
+        claim();
+        try {
+            StatementRun run = runRepository.findById(runId)
+                    .orElseThrow(() -> new RuntimeException("Statement run not found"));
+            boolean stale = run.getStatus() == StatementRun.Status.RUNNING
+                    && (takeover || run.getLeaseUntil() == null || run.getLeaseUntil().isBefore(LocalDateTime.now()));
+            if (run.getStatus() != StatementRun.Status.FAILED && !stale) {
+                throw new IllegalStateException(run.getStatus() == StatementRun.Status.RUNNING
+                        ? "A statement run is already in progress" : "Only failed runs can be resumed");
+            }
+            run.setStatus(StatementRun.Status.RUNNING);
+            run.setMessage(null);
+            run.setOwner(nodeId);
+            run.setLeaseUntil(leaseUntil());
+            run.setFinishedAt(null);
+            return runRepository.save(run);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public List<StatementRun> recentRuns() {
+        return runRepository.findTop20ByOrderByIdDesc();
+    }
+
+    public StatementRun getRun(Long runId) {
+        return runRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("Statement run not found"));
+    }
+
+    /** A customer's statement file from a run */
+    public byte[] statementFile(Long runId, Long customerId) {
+        StatementRun run = getRun(runId);
+        Path file = Path.of(run.getDirectory()).resolve(relativePath(customerId, run.getFormat()));
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Statement not found");
+        }
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void claim() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A statement run is already in progress");
+        }
+    }
+
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plus(Duration.ofMillis(clusterProperties.getLeaseMs()));
+    }
+
+    private void execute(Long runId) {
+        String failure = null;
+        try {
+            writeStatements(runRepository.findById(runId).orElseThrow());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Interrupted";
+        } catch (ExecutionException e) {
+            log.warn("Statement run {} failed", runId, e.getCause());
+            failure = String.valueOf(e.getCause().getMessage());
+        } catch (Exception e) {
+            log.warn("Statement run {} failed", runId, e);
+            failure = String.valueOf(e.getMessage());
+        } finally {
+            finish(runId, failure);
+            running.set(false);
+        }
+    }
+
+    private void writeStatements(StatementRun run) throws IOException, InterruptedException, ExecutionException {
+        YearMonth period = YearMonth.parse(run.getPeriod());
+        Path dir = Path.of(run.getDirectory());
+        Files.createDirectories(dir);
+
+        try (FileChannel manifest = FileChannel.open(dir.resolve(MANIFEST),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // lines past the checkpoint belong to a page that never committed
+            manifest.truncate(run.getManifestBytes());
+            manifest.position(run.getManifestBytes());
+            if (run.getManifestBytes() == 0) {
+                write(manifest, MANIFEST_HEADER);
+            }
+
+            List<StatementRenderer.Statement> page = loadPage(run.getLastUserId(), period);
+            while (!page.isEmpty()) {
+                List<Future<Written>> slices = submit(page, period, run.getFormat(), dir);
+                long lastUserId = page.get(page.size() - 1).customerId();
+                List<StatementRenderer.Statement> next = loadPage(lastUserId, period);   // overlaps the rendering
+
+                int statements = 0;
+                long bytes = 0;
+                for (Future<Written> f : slices) {
+                    Written w = f.get();
+                    write(manifest, w.manifest());
+                    statements += w.statements();
+                    bytes += w.bytes();
+                }
+                manifest.force(false);
+                jdbcTemplate.update(CHECKPOINT, lastUserId, manifest.position(), statements, bytes, run.getId());
+                page = next;
+            }
+        }
+    }
+
+    // a page split into one slice per worker, each rendering and writing its customers' files
+    private List<Future<Written>> submit(List<StatementRenderer.Statement> page, YearMonth period,
+                                         StatementRun.Format format, Path dir) {
+        int slices = Math.min(workers, page.size());
+        List<Future<Written>> futures = new ArrayList<>(slices);
+        for (int i = 0; i < slices; i++) {
+            List<StatementRenderer.Statement> slice =
+                    page.subList(page.size() * i / slices, page.size() * (i + 1) / slices);
+            futures.add(renderPool.submit(() -> writeSlice(slice, period, format, dir)));
+        }
+        return futures;
+    }
+
+    private Written writeSlice(List<StatementRenderer.Statement> slice, YearMonth period,
+                               StatementRun.Format format, Path dir) throws IOException {
+        StringBuilder lines = new StringBuilder(slice.size() * 64);
+        CRC32 crc = new CRC32();
+        long bytes = 0;
+        for (StatementRenderer.Statement s : slice) {
+            byte[] content = StatementRenderer.render(s, period, format);
+            String relative = relativePath(s.customerId(), format);
+            Path file = dir.resolve(relative);
+            Files.createDirectories(file.getParent());
+            Files.write(file, content);
+
+            crc.reset();
+            crc.update(content);
+            lines.append(s.customerId()).append(',').append(relative).append(',').append(s.accounts().size())
+                    .append(',').append(content.length).append(',').append(Long.toHexString(crc.getValue())).append('\n');
+            bytes += content.length;
+        }
+        return new Written(lines.toString(), slice.size(), bytes);
+    }
+
+    // at most 1000 files per directory
+    private static String relativePath(long customerId, StatementRun.Format format) {
+        return String.format("%06d/customer-%d.%s", customerId / 1000, customerId, format.extension);
+    }
+
+    private static void write(FileChannel channel, String text) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buf.hasRemaining()) channel.write(buf);
+    }
+
+    // the next page of customers after afterUserId, with their loans and the period's installments
+    private List<StatementRenderer.Statement> loadPage(long afterUserId, YearMonth period) {
+        List<StatementRenderer.Statement> page = jdbcTemplate.query(CUSTOMER_PAGE,
+                (rs, i) -> new StatementRenderer.Statement(rs.getLong(1), rs.getString(2), rs.getString(3), new ArrayList<>()),
+                afterUserId, pageSize);
+        if (page.isEmpty()) return page;
+
+        long first = page.get(0).customerId(), last = page.get(page.size() - 1).customerId();
+        Map<Long, StatementRenderer.Statement> byCustomer = new HashMap<>();
+        for (StatementRenderer.Statement s : page) byCustomer.put(s.customerId(), s);
+
+        Map<Long, StatementRenderer.Account> byLoan = new HashMap<>();
+        jdbcTemplate.query(PAGE_LOANS, rs -> {
+            StatementRenderer.Statement s = byCustomer.get(rs.getLong(2));
+            if (s == null) return;      // an admin's loan within the id range
+            Date next = rs.getDate(8);
+            StatementRenderer.Account a = new StatementRenderer.Account(rs.getLong(1), rs.getLong(2),
+                    rs.getString(3), rs.getLong(4), rs.getDouble(5), rs.getLong(6), rs.getLong(7),
+                    next == null ? null : next.toLocalDate(), rs.getLong(9));
+            s.accounts().add(a);
+            byLoan.put(a.loanId(), a);
+        }, first, last);
+
+        jdbcTemplate.query(PAGE_INSTALLMENTS, rs -> {
+            StatementRenderer.Account a = byLoan.get(rs.getLong(1));
+            if (a == null) return;
+            a.lines().add(new StatementRenderer.Line(rs.getDate(2).toLocalDate(), rs.getLong(3), rs.getLong(4),
+                    rs.getString(5)));
+        }, first, last, Date.valueOf(period.atDay(1)), Date.valueOf(period.atEndOfMonth()));
+        return page;
+    }
+
+    private void finish(Long runId, String failure) {
+        runRepository.findById(runId).ifPresent(run -> {
+            run.setStatus(failure == null ? StatementRun.Status.COMPLETED : StatementRun.Status.FAILED);
+            run.setMessage(failure);
+            run.setFinishedAt(LocalDateTime.now());
+            runRepository.save(run);
+            log.info("Statement run {} {} {} {}: {} statements, {} bytes in {} ms", runId, run.getPeriod(),
+                    run.getFormat(), run.getStatus(), run.getStatements(), run.getBytesWritten(),
+                    Duration.between(run.getStartedAt(), run.getFinishedAt()).toMillis());
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.loanmanagement.util;
+
+/**
+ * Declining-balance amortization in minor units. Interest is charged on the running balance each
+ * month and rounded to the cent; the last installment takes whatever principal is left, so the
+ * rows always sum exactly to the starting balance. Shared by new schedules and by recomputing
+ * the unpaid tail of an existing one.
+ */
+public final class Amortization {
+
+    private Amortization() {
+    }
+
+    /** Rows of one plan: emi is the regular installment, the last row may differ */
+    public record Plan(long emi, long[] principal, long[] interest) {
+        public int size() {
+            return principal.length;
+        }
+    }
+
+    /** Fixed number of installments; the EMI follows from the balance, rate and count */
+    public static Plan byInstallments(long balance, double annualRate, int installments) {
+        long emi = EmiCalculator.calculateEmiMinor(balance, annualRate, installments);
+        return amortize(balance, annualRate, emi, installments, installments);
+    }
+
+    /**
+     * Keep the EMI and pay the balance off as early as it allows (at most maxInstallments rows;
+     * if the EMI can't clear it by then, the last row takes the rest).
+     */
+    public static Plan byEmi(long balance, double annualRate, long emi, int maxInstallments) {
+        return amortize(balance, annualRate, emi, installmentsAt(balance, annualRate, emi, maxInstallments), maxInstallments);
+    }
+
+    private static Plan amortize(long balance, double annualRate, long emi, int n, int cap) {
+        int rows = Math.max(1, Math.min(n, cap));
+        double monthlyRate = (annualRate / 100) / 12;
+        long[] principal = new long[rows];
+        long[] interest = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            long in = Math.round(balance * monthlyRate);
+            long pr = i == rows - 1 ? balance : Math.max(0, Math.min(emi - in, balance));
+            balance -= pr;
+            principal[i] = pr;
+            interest[i] = in;
+        }
+        return new Plan(emi, principal, interest);
+    }
+
+    // months until the balance reaches zero at this EMI, walking the same rounding as amortize()
+    private static int installmentsAt(long balance, double annualRate, long emi, int cap) {
+        double monthlyRate = (annualRate / 100) / 12;
+        int n = 0;
+        while (balance > 0 && n < cap) {
+            long pr = Math.max(0, Math.min(emi - Math.round(balance * monthlyRate), balance));
+            balance -= pr;
+            n++;
+        }
+        return n;
+    }
+}
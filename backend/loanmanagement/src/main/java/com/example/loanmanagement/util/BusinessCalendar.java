@@ -0,0 +1,173 @@
+package com.example.loanmanagement.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Weekends and holidays of one calendar as one bitset per year (bit = day of year - 1, six longs),
+ * so a business-day test is an array index and a mask. Years are built on first use and then only
+ * read. Date generation works on (year, day-of-year) ints and allocates just the returned dates.
+ */
+public final class BusinessCalendar {
+
+    public enum Convention {
+        NONE,                   // keep the date as is
+        FOLLOWING,              // next business day
+        MODIFIED_FOLLOWING,     // next business day unless that is in the next month, then the previous one
+        PRECEDING               // previous business day
+    }
+
+    private static final int FIRST_YEAR = 1900;
+    private static final int LAST_YEAR = 2299;
+    private static final int MAX_STEPS = 366;   // a fully closed calendar leaves the date unadjusted
+
+    private final boolean[] weekend = new boolean[8];   // indexed by DayOfWeek.getValue()
+    private final Map<Integer, long[]> holidays = new HashMap<>();
+    private final AtomicReferenceArray<long[]> years = new AtomicReferenceArray<>(LAST_YEAR - FIRST_YEAR + 1);
+
+    public BusinessCalendar(Set<DayOfWeek> weekendDays, Collection<LocalDate> holidayDates) {
+        for (DayOfWeek d : weekendDays) weekend[d.getValue()] = true;
+        for (LocalDate h : holidayDates) {
+            long[] bits = holidays.computeIfAbsent(h.getYear(), y -> new long[6]);
+            set(bits, h.getDayOfYear());
+        }
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        return !closed(date.getYear(), date.getDayOfYear());
+    }
+
+    public LocalDate adjust(LocalDate date, Convention convention) {
+        return adjust(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), convention);
+    }
+
+    /**
+     * n monthly due dates from start (the first one is start itself), each adjusted by the convention.
+     * Dates keep start's day of month, clamped to shorter months; with monthEnd and a start on the
+     * last day of its month, every date is the last day of its month.
+     */
+    public LocalDate[] monthlyDates(LocalDate start, int n, Convention convention, boolean monthEnd) {
+        LocalDate[] out = new LocalDate[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = monthlyDate(start, i, convention, monthEnd);
+        }
+        return out;
+    }
+
+    /** The index-th date of {@link #monthlyDates} on its own */
+    public LocalDate monthlyDate(LocalDate start, int index, Convention convention, boolean monthEnd) {
+        int d0 = start.getDayOfMonth();
+        boolean eom = monthEnd && d0 == start.lengthOfMonth();
+        int mm = start.getMonthValue() - 1 + index;
+        int y = start.getYear() + Math.floorDiv(mm, 12);
+        int m = Math.floorMod(mm, 12) + 1;
+        int len = monthLength(y, m);
+        return adjust(y, m, eom ? len : Math.min(d0, len), convention);
+    }
+
+    private LocalDate adjust(int y, int m, int d, Convention convention) {
+        int doy = dayOfYear(y, m, d);
+        if (convention == Convention.NONE || !closed(y, doy)) {
+            return LocalDate.of(y, m, d);
+        }
+        long packed = switch (convention) {
+            case FOLLOWING -> roll(y, doy, 1);
+            case PRECEDING -> roll(y, doy, -1);
+            case MODIFIED_FOLLOWING -> {
+                long next = roll(y, doy, 1);
+                yield monthOf(next) == m ? next : roll(y, doy, -1);
+            }
+            case NONE -> pack(y, doy);
+        };
+        return LocalDate.ofYearDay((int) (packed >>> 16), (int) (packed & 0xFFFF));
+    }
+
+    // step a day at a time until open; result packed as year << 16 | dayOfYear
+    private long roll(int y, int doy, int step) {
+        int oy = y, od = doy;
+        for (int i = 0; i < MAX_STEPS && closed(y, doy); i++) {
+            doy += step;
+            if (doy > yearLength(y)) {
+                y++;
+                doy = 1;
+            } else if (doy < 1) {
+                y--;
+                doy = yearLength(y);
+            }
+        }
+        return closed(y, doy) ? pack(oy, od) : pack(y, doy);
+    }
+
+    private boolean closed(int year, int dayOfYear) {
+        long[] bits = year(year);
+        int i = dayOfYear - 1;
+        return (bits[i >>> 6] & (1L << (i & 63))) != 0;
+    }
+
+    private long[] year(int year) {
+        if (year < FIRST_YEAR || year > LAST_YEAR) {
+            return build(year);
+        }
+        long[] bits = years.get(year - FIRST_YEAR);
+        if (bits == null) {
+            bits = build(year);
+            years.set(year - FIRST_YEAR, bits);   // racing builders produce identical arrays
+        }
+        return bits;
+    }
+
+    private long[] build(int year) {
+        long[] bits = new long[6];
+        int dow = LocalDate.of(year, 1, 1).getDayOfWeek().getValue();
+        for (int doy = 1, len = yearLength(year); doy <= len; doy++) {
+            if (weekend[dow]) set(bits, doy);
+            dow = dow == 7 ? 1 : dow + 1;
+        }
+        long[] h = holidays.get(year);
+        if (h != null) {
+            for (int i = 0; i < bits.length; i++) bits[i] |= h[i];
+        }
+        return bits;
+    }
+
+    private static void set(long[] bits, int dayOfYear) {
+        int i = dayOfYear - 1;
+        bits[i >>> 6] |= 1L << (i & 63);
+    }
+
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+    private static int dayOfYear(int y, int m, int d) {
+        return DAYS_BEFORE_MONTH[m - 1] + d + (m > 2 && Year.isLeap(y) ? 1 : 0);
+    }
+
+    private static int monthOf(long packed) {
+        int y = (int) (packed >>> 16), doy = (int) (packed & 0xFFFF);
+        int leap = Year.isLeap(y) ? 1 : 0;
+        int m = 12;
+        while (m > 1 && doy <= DAYS_BEFORE_MONTH[m - 1] + (m > 2 ? leap : 0)) m--;
+        return m;
+    }
+
+    private static int monthLength(int y, int m) {
+        return switch (m) {
+            case 2 -> Year.isLeap(y) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static int yearLength(int y) {
+        return Year.isLeap(y) ? 366 : 365;
+    }
+
+    private static long pack(int y, int doy) {
+        return ((long) y << 16) | doy;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.loanmanagement.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming CSV reader (RFC 4180): comma separated, double-quoted fields may contain
+ * commas, line breaks and "" escapes. Reads one record at a time, so files of any size are fine.
+ */
+public class CsvReader implements Closeable {
+
+    private final BufferedReader in;
+    private long line;          // line the last returned record started on (1-based)
+    private long nextLine = 1;
+
+    public CsvReader(Reader reader) {
+        this.in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+    }
+
+    /** Next record's fields, or null at end of input; blank lines are skipped */
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false, any = false;
+        line = nextLine;
+
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        field.append('"');
+                    } else {
+                        in.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') nextLine++;
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r') {
+                // swallowed; \n ends the record
+            } else if (c == '\n') {
+                nextLine++;
+                if (fields.isEmpty() && field.isEmpty()) {
+                    line = nextLine;
+                    any = false;
+                    continue;
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!any) return null;
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
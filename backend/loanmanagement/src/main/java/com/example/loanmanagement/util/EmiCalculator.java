@@ -1,7 +1,6 @@
 package com.example.loanmanagement.util;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import com.example.loanmanagement.model.Money;
 
 public class EmiCalculator {
 
@@ -12,21 +11,24 @@ public class EmiCalculator {
      * @param principal           Loan amount (P)
      * @param annualInterestRate  Annual interest rate in % (e.g., 12 for 12%)
      * @param tenureMonths        Loan tenure in months (N)
-     * @return EMI amount as BigDecimal
+     * @return EMI rounded half-up to the cent
      */
-    public static BigDecimal calculateEMI(BigDecimal principal, double annualInterestRate, int tenureMonths) {
+    public static Money calculateEMI(Money principal, double annualInterestRate, int tenureMonths) {
+        return Money.ofMinor(calculateEmiMinor(principal.minor(), annualInterestRate, tenureMonths));
+    }
+
+    /** Same formula on raw minor units, for loops that shouldn't allocate */
+    public static long calculateEmiMinor(long principalMinor, double annualInterestRate, int tenureMonths) {
         // Convert annual interest rate to monthly decimal
         double monthlyRate = (annualInterestRate / 100) / 12;
 
         if (monthlyRate == 0) {
             // No interest case
-            return principal.divide(BigDecimal.valueOf(tenureMonths), 2, RoundingMode.HALF_UP);
+            return Math.round((double) principalMinor / tenureMonths);
         }
 
         // Apply EMI formula: P * R * (1+R)^N / ((1+R)^N - 1)
         double pow = Math.pow(1 + monthlyRate, tenureMonths);
-        double emi = (principal.doubleValue() * monthlyRate * pow) / (pow - 1);
-
-        return BigDecimal.valueOf(emi).setScale(2, RoundingMode.HALF_UP);
+        return Math.round(principalMinor * monthlyRate * pow / (pow - 1));
     }
 }
@@ -0,0 +1,238 @@
+package com.example.loanmanagement.config;
+
+import com.example.loanmanagement.model.JobRun;
+import com.example.loanmanagement.model.JobShard;
+import com.example.loanmanagement.repository.JobRunRepository;
+import com.example.loanmanagement.repository.JobShardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// fast heartbeats and short leases so requeueing happens within the test
+@SpringBootTest(properties = {"loan.cluster.heartbeat-ms=100", "loan.cluster.poll-ms=50", "loan.cluster.lease-ms=500",
+        "loan.cluster.max-attempts=2", "loan.accrual.enabled=false", "loan.archive.enabled=false",
+        "loan.statements.enabled=false"})
+class ClusterJobSchedulerTest {
+
+    /** Sums the ids of its shards; fails every shard of a run whose key starts with "fail" */
+    static class RangeJob implements ClusterJob {
+        final Map<String, List<long[]>> ranges = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> completions = new ConcurrentHashMap<>();
+
+        @Override
+        public String name() {
+            return "test-range";
+        }
+
+        @Override
+        public Trigger trigger() {
+            return null;
+        }
+
+        @Override
+        public String runKey(LocalDateTime firedAt) {
+            return firedAt.toString();
+        }
+
+        @Override
+        public long[] idRange(String runKey) {
+            return new long[]{1, 1000};
+        }
+
+        @Override
+        public long runShard(String runKey, long fromId, long toId) {
+            if (runKey.startsWith("fail")) throw new IllegalStateException("boom");
+            ranges.computeIfAbsent(runKey, k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(new long[]{fromId, toId});
+            return toId - fromId;
+        }
+
+        @Override
+        public void complete(String runKey) {
+            completions.computeIfAbsent(runKey, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    /** Fires hourly; runs have no shards and complete at once */
+    static class HourlyJob implements ClusterJob {
+        @Override
+        public String name() {
+            return "test-hourly";
+        }
+
+        @Override
+        public Trigger trigger() {
+            return new CronTrigger("0 0 * * * *");
+        }
+
+        @Override
+        public String runKey(LocalDateTime firedAt) {
+            return "h-" + firedAt;
+        }
+
+        @Override
+        public long[] idRange(String runKey) {
+            return null;
+        }
+
+        @Override
+        public long runShard(String runKey, long fromId, long toId) {
+            return 0;
+        }
+    }
+
+    @TestConfiguration
+    static class Jobs {
+        @Bean
+        RangeJob rangeJob() {
+            return new RangeJob();
+        }
+
+        @Bean
+        HourlyJob hourlyJob() {
+            return new HourlyJob();
+        }
+    }
+
+    @Autowired ClusterJobScheduler scheduler;
+    @Autowired RangeJob job;
+    @Autowired JobRunRepository runRepository;
+    @Autowired JobShardRepository shardRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired TransactionTemplate tx;
+
+    final List<Long> runs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Long id : runs) {
+            shardRepository.deleteAllInBatch(shardRepository.findByRunIdOrderByShardNo(id));
+            runRepository.deleteById(id);
+        }
+        jdbcTemplate.update("delete from job_run where job_name = 'test-hourly'");
+        jdbcTemplate.update("delete from job_schedule where job_name = 'test-hourly'");
+    }
+
+    @Test
+    void shardsCoverTheRangeOnceAndCompleteRunsOnce() throws Exception {
+        String key = "k-" + System.nanoTime();
+        JobRun run = track(scheduler.trigger("test-range", key));
+        assertEquals(run.getId(), scheduler.trigger("test-range", key).getId());   // same key, same run
+
+        run = await(run.getId());
+        assertEquals(JobRun.Status.COMPLETED, run.getStatus());
+        assertEquals(1000, run.getItems());
+        assertEquals(run.getShards(), run.getShardsDone());
+        assertTrue(run.getShards() >= 4, "shards " + run.getShards());
+        assertTrue(run.getDurationMs() != null);
+        assertEquals(1, job.completions.get(key).get());
+
+        List<long[]> ranges = new ArrayList<>(job.ranges.get(key));
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        long next = 0;
+        for (long[] r : ranges) {
+            assertEquals(next, r[0]);
+            next = r[1];
+        }
+        assertEquals(1000, next);
+        for (JobShard s : shardRepository.findByRunIdOrderByShardNo(run.getId())) {
+            assertEquals(JobShard.Status.DONE, s.getStatus());
+            assertTrue(s.getDurationMs() != null);
+        }
+    }
+
+    @Test
+    void requeuesShardsWhoseNodeStoppedRenewing() throws Exception {
+        String key = "dead-" + System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        // together, as createRun does, so the leader never sees the run without its shard
+        JobRun run = track(tx.execute(s -> {
+            JobRun r = runRepository.save(new JobRun(null, "test-range", key, JobRun.Status.RUNNING,
+                    1, 0, 0, "dead-node", null, now, null, null));
+            shardRepository.save(new JobShard(null, r.getId(), 0, 0, 1000, JobShard.Status.RUNNING, "dead-node",
+                    now.minusSeconds(5), 1, 0, null, now.minusSeconds(10), null, null));
+            return r;
+        }));
+
+        run = await(run.getId());
+        assertEquals(JobRun.Status.COMPLETED, run.getStatus());
+        JobShard shard = shardRepository.findByRunIdOrderByShardNo(run.getId()).get(0);
+        assertEquals(scheduler.nodeId(), shard.getOwner());
+        assertEquals(2, shard.getAttempts());
+    }
+
+    @Test
+    void failsAfterMaxAttemptsAndResumes() throws Exception {
+        JobRun run = track(scheduler.trigger("test-range", "fail-" + System.nanoTime()));
+        run = await(run.getId());
+        assertEquals(JobRun.Status.FAILED, run.getStatus());
+        for (JobShard s : shardRepository.findByRunIdOrderByShardNo(run.getId())) {
+            assertEquals(JobShard.Status.FAILED, s.getStatus());
+            assertEquals(2, s.getAttempts());
+        }
+
+        assertEquals(JobRun.Status.RUNNING, scheduler.resume(run.getId()).getStatus());
+        assertEquals(JobRun.Status.FAILED, await(run.getId()).getStatus());
+    }
+
+    @Test
+    void firingsMissedWithoutALeaderAreCaughtUp() throws Exception {
+        // as if the last leader went away three hours ago
+        awaitSchedule();
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        jdbcTemplate.update("update job_schedule set last_fired_at = ? where job_name = 'test-hourly'", hour.minusHours(3));
+
+        for (int i = 0; i < 200 && !awaitSchedule().equals(hour); i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(hour, awaitSchedule());
+        for (int h = 2; h >= 0; h--) {
+            assertTrue(runRepository.findByJobNameAndRunKey("test-hourly", "h-" + hour.minusHours(h)).isPresent());
+        }
+        assertTrue(runRepository.findByJobNameAndRunKey("test-hourly", "h-" + hour.minusHours(3)).isEmpty());
+    }
+
+    // the job's schedule row, once the leader has recorded it
+    private LocalDateTime awaitSchedule() throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            List<LocalDateTime> last = jdbcTemplate.queryForList(
+                    "select last_fired_at from job_schedule where job_name = 'test-hourly'", LocalDateTime.class);
+            if (!last.isEmpty()) return last.get(0);
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Job schedule not recorded");
+    }
+
+    private JobRun track(JobRun run) {
+        runs.add(run.getId());
+        return run;
+    }
+
+    private JobRun await(Long runId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            JobRun run = runRepository.findById(runId).orElseThrow();
+            if (run.getStatus() != JobRun.Status.RUNNING) return run;
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Job run did not finish");
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.loanmanagement.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// buckets of two that barely refill, so the third request inside a test is always over
+@SpringBootTest(properties = {
+        "loan.rate-limit.routes.login.capacity=2", "loan.rate-limit.routes.login.refill-per-second=0.001",
+        "loan.rate-limit.routes.stats.method=GET", "loan.rate-limit.routes.stats.path=/api/admin/stats",
+        "loan.rate-limit.routes.stats.capacity=2", "loan.rate-limit.routes.stats.refill-per-second=0.001",
+        "loan.rate-limit.shed-pool-wait-ms=100"})
+@AutoConfigureMockMvc
+class RateLimitFilterTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired RateLimiter rateLimiter;
+    @Autowired ConnectionWaitTracker waitTracker;
+
+    @AfterEach
+    void calmPool() {
+        // one tracker per context; pull it back down so the other tests here aren't shed
+        for (int i = 0; i < 50; i++) waitTracker.record(0);
+    }
+
+    @Test
+    void anonymousClientsAreLimitedPerAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/auth/login").with(from("10.0.0.1"))).andExpect(status().is4xxClientError())
+                    .andExpect(header().doesNotExist("Retry-After"));
+        }
+        mockMvc.perform(post("/api/auth/login").with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        mockMvc.perform(post("/api/auth/login").with(from("10.0.0.2")))
+                .andExpect(header().doesNotExist("Retry-After"));
+    }
+
+    @Test
+    void authenticatedClientsAreLimitedPerUserNotAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/admin/stats").with(user("limit-a").roles("ADMIN")).with(from("10.0.1.1")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/admin/stats").with(user("limit-a").roles("ADMIN")).with(from("10.0.1.2")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/admin/stats").with(user("limit-b").roles("ADMIN")).with(from("10.0.1.1")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/rate-limits").with(user("limit-b").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.routes[?(@.route == 'stats')].rateLimited").value(1));
+    }
+
+    @Test
+    void shedsWhileConnectionWaitsAreHighButKeepsStatusReachable() throws Exception {
+        for (int i = 0; i < 30; i++) waitTracker.record(1_000_000_000L);
+        assertTrue(rateLimiter.shedProbability() == 1, "p=" + rateLimiter.shedProbability());
+
+        mockMvc.perform(get("/api/loans/batch").param("ids", "1").with(user("limit-d").roles("ADMIN")).with(from("10.0.2.1")))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        mockMvc.perform(get("/api/admin/rate-limits").with(user("limit-c").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shedProbability").value(1.0))
+                .andExpect(jsonPath("$.routes[?(@.route == 'default')].shed").value(1));
+
+        calmPool();
+        mockMvc.perform(get("/api/loans/batch").param("ids", "1").with(user("limit-d").roles("ADMIN")).with(from("10.0.2.1")))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.loanmanagement.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    @Test
+    void newClientsAreRefusedWhileEveryBucketIsActive() throws Exception {
+        RateLimitProperties props = new RateLimitProperties();
+        props.setMaxClients(2);
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setCapacity(1);
+        route.setRefillPerSecond(1000);
+        RateLimiter.Rule rule = new RateLimiter.Rule("r", route);
+        RateLimiter limiter = new RateLimiter(props, null, new ConnectionWaitTracker());
+
+        assertEquals(0, limiter.tryAcquire(rule, "a"));
+        assertEquals(0, limiter.tryAcquire(rule, "b"));
+        assertTrue(limiter.tryAcquire(rule, "c") > 0);
+
+        Thread.sleep(5);   // both buckets refill and count as idle
+        limiter.sweep();
+        assertEquals(0, limiter.tryAcquire(rule, "c"));
+    }
+}
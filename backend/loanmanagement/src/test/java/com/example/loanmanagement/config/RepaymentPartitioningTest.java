@@ -0,0 +1,104 @@
+package com.example.loanmanagement.config;
+
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.Repayment;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// a row due past the last yearly partition waits in repayment_default until its year is created
+@SpringBootTest
+class RepaymentPartitioningTest {
+
+    private static final int BEYOND = 40;
+
+    @Autowired RepaymentPartitioning partitioning;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    User user;
+    Loan loan;
+    int yearsAhead;
+
+    @BeforeEach
+    void setUp() {
+        // partitioning only exists on PostgreSQL
+        assumeTrue(Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) c ->
+                c.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres"))));
+        yearsAhead = (int) ReflectionTestUtils.getField(partitioning, "yearsAhead");
+
+        User u = new User();
+        u.setName("Partitioned customer");
+        u.setEmail("partition-" + UUID.randomUUID() + "@example.com");
+        u.setPassword("x");
+        u.setRole(User.Role.CUSTOMER);
+        user = userRepository.save(u);
+
+        Loan l = new Loan();
+        l.setUser(user);
+        l.setAmount(Money.of(100_000));
+        l.setLoanType("HOME");
+        l.setTenureMonths(12);
+        l.setStatus(Loan.Status.APPROVED);
+        loan = loanRepository.save(l);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (loan == null) return;
+        ReflectionTestUtils.setField(partitioning, "yearsAhead", yearsAhead);
+        repaymentRepository.deleteAllInBatch(repaymentRepository.findByLoanId(loan.getId()));
+        loanRepository.deleteAllByIdInBatch(List.of(loan.getId()));
+        userRepository.deleteAllByIdInBatch(List.of(user.getId()));
+        int thisYear = LocalDate.now().getYear();
+        for (int y = thisYear + yearsAhead + 1; y <= thisYear + BEYOND; y++) {
+            jdbcTemplate.execute("drop table if exists repayment_y" + y);
+        }
+    }
+
+    @Test
+    void settlementRowKeepsItsTypeWhenMovedOutOfTheDefaultPartition() {
+        int year = LocalDate.now().getYear() + BEYOND;
+        Repayment r = new Repayment();
+        r.setLoan(loan);
+        r.setDueDate(LocalDate.of(year, 3, 15));
+        r.setPrincipal(Money.ofMinor(12_345_67));
+        r.setInterest(Money.ofMinor(0));
+        r.setStatus(Repayment.Status.PAID);
+        r.setType(Repayment.Type.SETTLEMENT);
+        Long id = repaymentRepository.save(r).getId();
+        assertEquals("repayment_default", partitionOf(id));
+
+        ReflectionTestUtils.setField(partitioning, "yearsAhead", BEYOND);
+        partitioning.ensurePartitions();
+
+        assertEquals("repayment_y" + year, partitionOf(id));
+        Repayment moved = repaymentRepository.findById(id).orElseThrow();
+        assertEquals(Repayment.Type.SETTLEMENT, moved.getType());
+        assertEquals(12_345_67, moved.getPrincipal().minor());
+        assertEquals(Repayment.Status.PAID, moved.getStatus());
+    }
+
+    private String partitionOf(Long id) {
+        return jdbcTemplate.queryForObject("select tableoid::regclass::text from repayment where id = ?", String.class, id);
+    }
+}
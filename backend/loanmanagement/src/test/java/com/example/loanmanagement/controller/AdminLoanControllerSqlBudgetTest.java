@@ -0,0 +1,90 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import com.example.loanmanagement.service.RepaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.example.loanmanagement.support.SqlStatementAssertions.assertMaxStatements;
+import static com.example.loanmanagement.support.SqlStatementAssertions.reset;
+import static com.example.loanmanagement.support.SqlStatementAssertions.stop;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class AdminLoanControllerSqlBudgetTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+    @Autowired RepaymentService repaymentService;
+    @Autowired TransactionTemplate tx;
+
+    SqlBudgetTestData data;
+
+    @BeforeEach
+    void setUp() {
+        // distinct applicants, so an eager per-user fetch would show up as extra statements
+        data = new SqlBudgetTestData(userRepository, loanRepository, repaymentRepository, repaymentService, tx)
+                .customers(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stop();
+        data.cleanUp();
+    }
+
+    @Test
+    void allLoansIsOneQuery() throws Exception {
+        reset();
+        mockMvc.perform(get("/api/admin/loans")).andExpect(status().isOk());
+        assertMaxStatements(1);
+    }
+
+    @Test
+    void stats() throws Exception {
+        reset();
+        mockMvc.perform(get("/api/admin/stats")).andExpect(status().isOk());
+        assertMaxStatements(4);
+    }
+
+    @Test
+    void timeline() throws Exception {
+        reset();
+        mockMvc.perform(get("/api/admin/loans/{id}/timeline", data.loans.get(0).getId()))
+                .andExpect(status().isOk());
+        assertMaxStatements(2); // drained log + undrained outbox
+    }
+
+    @Test
+    void customerDirectoryCountsTheTotalOnTheFirstPageOnly() throws Exception {
+        reset();
+        mockMvc.perform(get("/api/admin/customers").param("q", "sql-budget-").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.nextAfterId").isNumber());
+        assertMaxStatements(2); // page + count
+
+        reset();
+        mockMvc.perform(get("/api/admin/customers").param("q", "sql-budget-").param("size", "2")
+                        .param("afterName", "Budget 1").param("afterId", String.valueOf(Long.MAX_VALUE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").doesNotExist());
+        assertMaxStatements(1);
+    }
+}
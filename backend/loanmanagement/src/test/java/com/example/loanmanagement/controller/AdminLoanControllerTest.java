@@ -0,0 +1,51 @@
+package com.example.loanmanagement.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminLoanControllerTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @Test
+    void invalidScenarioInTheListIsRejected() throws Exception {
+        mockMvc.perform(scenarios("""
+                        [{"name": "base", "annualPrepaymentRate": 0.05, "annualDefaultRate": 0.01},
+                         {"name": "bad", "annualPrepaymentRate": -0.5, "annualDefaultRate": 0.01}]
+                        """))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("annualPrepaymentRate")));
+        mockMvc.perform(scenarios("""
+                        [{"name": "", "annualPrepaymentRate": 0.05, "annualDefaultRate": 1.5}]
+                        """))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void validScenariosAreProjected() throws Exception {
+        mockMvc.perform(scenarios("""
+                        [{"name": "base", "annualPrepaymentRate": 0.05, "annualDefaultRate": 0.01}]
+                        """))
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder scenarios(String body) {
+        return post("/api/admin/cashflow/scenarios")
+                .with(user("admin").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import com.example.loanmanagement.service.RepaymentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Accept: application/cbor gets the same document as JSON, read back with a real CBOR parser
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoanControllerCborTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+    @Autowired RepaymentService repaymentService;
+    @Autowired TransactionTemplate tx;
+    @Autowired ObjectMapper objectMapper;
+
+    SqlBudgetTestData data;
+
+    @BeforeEach
+    void setUp() {
+        data = new SqlBudgetTestData(userRepository, loanRepository, repaymentRepository, repaymentService, tx)
+                .customers(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        data.cleanUp();
+    }
+
+    @Test
+    void cborCarriesTheSameLoanAsJson() throws Exception {
+        Long id = data.loans.get(0).getId();
+        byte[] json = mockMvc.perform(get("/api/loans/{id}", id).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/api/loans/{id}", id).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode fromJson = objectMapper.readTree(json);
+        JsonNode fromCbor = new CBORMapper().readTree(cbor);
+        assertEquals(fromJson.get("id").asLong(), fromCbor.get("id").asLong());
+        assertEquals(fromJson.get("loanType"), fromCbor.get("loanType"));
+        // money stays exact: decimal in JSON, a decimal fraction in CBOR
+        assertEquals(fromJson.get("amount").decimalValue().compareTo(fromCbor.get("amount").decimalValue()), 0);
+        assertEquals(fromJson.get("emi").decimalValue().compareTo(fromCbor.get("emi").decimalValue()), 0);
+        assertEquals(fromJson.size(), fromCbor.size());
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mockMvc.perform(get("/api/loans/{id}", data.loans.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.loanmanagement.support.SqlStatementAssertions.assertMaxStatements;
+import static com.example.loanmanagement.support.SqlStatementAssertions.reset;
+import static com.example.loanmanagement.support.SqlStatementAssertions.stop;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoanControllerIdempotencyTest {
+
+    private static final String APPLICATION = """
+            {"amount": 250000, "loanType": "PERSONAL", "tenureMonths": 24, "purpose": "Retry test", "annualIncome": 1200000}
+            """;
+
+    @Autowired MockMvc mockMvc;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+    @Autowired TransactionTemplate tx;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    User customer;
+
+    @BeforeEach
+    void setUp() {
+        User u = new User();
+        u.setName("Retrying customer");
+        u.setEmail("idempotency-" + UUID.randomUUID() + "@example.com");
+        u.setPassword("x");
+        u.setRole(User.Role.CUSTOMER);
+        customer = userRepository.save(u);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stop();
+        jdbcTemplate.update("delete from idempotency_record where owner = ?", customer.getEmail());
+        tx.executeWithoutResult(s -> {
+            for (Loan l : loans()) {
+                repaymentRepository.deleteAllInBatch(repaymentRepository.findByLoanId(l.getId()));
+                loanRepository.deleteAllByIdInBatch(List.of(l.getId()));
+            }
+            userRepository.deleteAllByIdInBatch(List.of(customer.getId()));
+        });
+    }
+
+    @Test
+    void retryWithSameKeyReplaysTheFirstResponse() throws Exception {
+        String first = mockMvc.perform(apply("key-1", APPLICATION))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn().getResponse().getContentAsString();
+
+        reset();
+        mockMvc.perform(apply("key-1", APPLICATION))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(first, JsonCompareMode.STRICT));
+        assertMaxStatements(1);   // the stored response; no user lookup, duplicate check or schedule
+        assertEquals(1, loans().size());
+    }
+
+    @Test
+    void sameKeyWithDifferentRequestIsRefused() throws Exception {
+        mockMvc.perform(apply("key-2", APPLICATION)).andExpect(status().isOk());
+        mockMvc.perform(apply("key-2", APPLICATION.replace("250000", "260000")))
+                .andExpect(status().isUnprocessableEntity());
+        assertEquals(1, loans().size());
+    }
+
+    @Test
+    void newKeyStillHitsTheDuplicateCheck() throws Exception {
+        mockMvc.perform(apply("key-3", APPLICATION)).andExpect(status().isOk());
+        mockMvc.perform(apply("key-4", APPLICATION)).andExpect(status().isConflict());
+        // and that 409 is what key-4 replays
+        mockMvc.perform(apply("key-4", APPLICATION))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+    }
+
+    @Test
+    void browserClientsCanReadTheReplayHeader() throws Exception {
+        mockMvc.perform(apply("key-5", APPLICATION)).andExpect(status().isOk());
+        mockMvc.perform(apply("key-5", APPLICATION).header("Origin", "http://localhost:5173"))
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("Access-Control-Expose-Headers", "Idempotent-Replayed"));
+    }
+
+    private MockHttpServletRequestBuilder apply(String key, String body) {
+        return post("/api/loans/apply")
+                .with(user(customer.getEmail()).roles("CUSTOMER"))
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+
+    private List<Loan> loans() {
+        return loanRepository.findByUserAndStatusNot(customer, Loan.Status.REJECTED);
+    }
+}
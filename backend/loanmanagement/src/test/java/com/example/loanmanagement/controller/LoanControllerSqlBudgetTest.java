@@ -0,0 +1,146 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import com.example.loanmanagement.service.RepaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Collectors;
+
+import static com.example.loanmanagement.support.SqlStatementAssertions.assertMaxStatements;
+import static com.example.loanmanagement.support.SqlStatementAssertions.reset;
+import static com.example.loanmanagement.support.SqlStatementAssertions.stop;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "loan.sql.response-headers=true")
+@AutoConfigureMockMvc
+class LoanControllerSqlBudgetTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+    @Autowired RepaymentService repaymentService;
+    @Autowired TransactionTemplate tx;
+
+    SqlBudgetTestData data;
+
+    @BeforeEach
+    void setUp() {
+        data = new SqlBudgetTestData(userRepository, loanRepository, repaymentRepository, repaymentService, tx)
+                .customers(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stop();
+        data.cleanUp();
+    }
+
+    @Test
+    void myLoans() throws Exception {
+        reset();
+        mockMvc.perform(get("/api/loans/my").with(user(data.users.get(0).getEmail()).roles("CUSTOMER")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Sql-Statements"));
+        assertMaxStatements(2); // user, loans
+    }
+
+    @Test
+    void loanById() throws Exception {
+        reset();
+        mockMvc.perform(get("/api/loans/{id}", data.loans.get(0).getId()))
+                .andExpect(status().isOk());
+        assertMaxStatements(1); // loan joined with its applicant
+    }
+
+    @Test
+    void batchIsOneQuery() throws Exception {
+        data.customers(3);
+        reset();
+        mockMvc.perform(get("/api/loans/batch").param("ids", ids()).with(admin()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].customerName").exists());
+        assertMaxStatements(1); // loans joined with their applicants
+    }
+
+    @Test
+    void batchWithFieldsReturnsOnlyThose() throws Exception {
+        data.customers(3);
+        reset();
+        mockMvc.perform(get("/api/loans/batch").param("ids", ids()).with(admin()).param("fields", "status,emi,nextDueDate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].id").value(data.loans.get(0).getId()))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[0].emi").exists())
+                .andExpect(jsonPath("$[0].purpose").doesNotExist())
+                .andExpect(jsonPath("$[0].customerName").doesNotExist());
+        assertMaxStatements(1);
+    }
+
+    @Test
+    void batchRejectsUnknownField() throws Exception {
+        mockMvc.perform(get("/api/loans/batch").param("ids", ids()).with(admin()).param("fields", "status,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void batchNeedsAUserAndLimitsCustomersToTheirOwnLoans() throws Exception {
+        data.customers(2);
+        mockMvc.perform(get("/api/loans/batch").param("ids", ids()))
+                .andExpect(status().isUnauthorized());
+
+        Long own = data.loans.get(1).getId();
+        mockMvc.perform(get("/api/loans/batch").param("ids", ids())
+                        .with(user(data.users.get(1).getEmail()).roles("CUSTOMER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(own));
+        mockMvc.perform(get("/api/loans/batch").param("ids", ids()).param("fields", "status")
+                        .with(user(data.users.get(1).getEmail()).roles("CUSTOMER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(own));
+
+        // the email in the login may differ in case; both paths still find the customer's loan
+        String shouted = data.users.get(1).getEmail().toUpperCase();
+        mockMvc.perform(get("/api/loans/batch").param("ids", ids()).with(user(shouted).roles("CUSTOMER")))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(own));
+        mockMvc.perform(get("/api/loans/batch").param("ids", ids()).param("fields", "status")
+                        .with(user(shouted).roles("CUSTOMER")))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(own));
+    }
+
+    private static RequestPostProcessor admin() {
+        return user("sql-budget-admin").roles("ADMIN");
+    }
+
+    private String ids() {
+        return data.loans.stream().map(l -> String.valueOf(l.getId())).collect(Collectors.joining(","));
+    }
+
+    @Test
+    void repaymentsDoNotScaleWithSchedule() throws Exception {
+        reset();
+        mockMvc.perform(get("/api/loans/{id}/repayments", data.loans.get(0).getId()))
+                .andExpect(status().isOk());
+        assertMaxStatements(2); // repayments, their loan once
+    }
+}
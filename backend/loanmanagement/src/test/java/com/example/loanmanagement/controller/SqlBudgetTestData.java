@@ -0,0 +1,77 @@
+package com.example.loanmanagement.controller;
+
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import com.example.loanmanagement.service.RepaymentService;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/** Customers with one approved loan each, written straight through the repositories and removed afterwards */
+class SqlBudgetTestData {
+
+    private final UserRepository userRepository;
+    private final LoanRepository loanRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final RepaymentService repaymentService;
+    private final TransactionTemplate tx;
+
+    final List<User> users = new ArrayList<>();
+    final List<Loan> loans = new ArrayList<>();
+
+    SqlBudgetTestData(UserRepository userRepository, LoanRepository loanRepository,
+                      RepaymentRepository repaymentRepository, RepaymentService repaymentService,
+                      TransactionTemplate tx) {
+        this.userRepository = userRepository;
+        this.loanRepository = loanRepository;
+        this.repaymentRepository = repaymentRepository;
+        this.repaymentService = repaymentService;
+        this.tx = tx;
+    }
+
+    SqlBudgetTestData customers(int n) {
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < n; i++) {
+                User u = new User();
+                u.setName("Budget " + i);
+                u.setEmail("sql-budget-" + UUID.randomUUID() + "@example.com");
+                u.setPassword("x");
+                u.setRole(User.Role.CUSTOMER);
+                users.add(userRepository.save(u));
+
+                Loan l = new Loan();
+                l.setUser(u);
+                l.setAmount(Money.of(120_000));
+                l.setAnnualIncome(Money.of(900_000));
+                l.setLoanType("PERSONAL");
+                l.setPurpose("SQL budget test");
+                l.setTenureMonths(12);
+                l.setAnnualInterestRate(10.0);
+                l.setStatus(Loan.Status.APPROVED);
+                l.setStartDate(LocalDate.now());
+                l = loanRepository.save(l);
+                repaymentService.createSchedule(l);
+                loans.add(loanRepository.save(l));
+            }
+        });
+        return this;
+    }
+
+    void cleanUp() {
+        // bulk deletes: loading the graph back would walk Lombok's hashCode through user.loans
+        tx.executeWithoutResult(status -> {
+            for (Loan l : loans) {
+                repaymentRepository.deleteAllInBatch(repaymentRepository.findByLoanId(l.getId()));
+            }
+            loanRepository.deleteAllByIdInBatch(loans.stream().map(Loan::getId).toList());
+            userRepository.deleteAllByIdInBatch(users.stream().map(User::getId).toList());
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.loanmanagement.mapper;
+
+import com.example.loanmanagement.dto.LoanResponse;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LoanMapperTest {
+
+    private final LoanMapper mapper = new LoanMapper();
+
+    @Test
+    void copiesEveryField() {
+        LoanResponse expected = new LoanResponse();
+        expected.setId(8L);
+        expected.setAmount(Money.of(100_007.0));
+        expected.setLoanType("PERSONAL");
+        expected.setTenureMonths(24);
+        expected.setPurpose("Sample 7");
+        expected.setAnnualIncome(Money.of(600_000.0));
+        expected.setStatus("APPROVED");
+        expected.setAdminRemark("ok");
+        expected.setStartDate(LocalDate.of(2025, 1, 1));
+        expected.setEmi(Money.ofMinor(461_449));
+        expected.setOutstandingPrincipal(Money.of(80_000.0));
+        expected.setPaidInstallments(5);
+        expected.setNextDueDate(LocalDate.of(2025, 7, 1));
+        expected.setNextDueAmount(Money.ofMinor(461_449));
+        expected.setRiskScore(85);
+        expected.setRiskReasons("EMI is close to the income limit (45%)");
+        expected.setCustomerName("User 7");
+        expected.setCustomerEmail("user7@example.com");
+
+        assertEquals(expected, mapper.toResponse(loan(7)));
+    }
+
+    @Test
+    void toleratesMissingUserAndStatus() {
+        Loan l = loan(1);
+        l.setUser(null);
+        l.setStatus(null);
+        LoanResponse r = mapper.toResponse(l);
+        assertNull(r.getStatus());
+        assertNull(r.getCustomerName());
+        assertNull(r.getCustomerEmail());
+        assertEquals(2L, r.getId());
+    }
+
+    /** A fully populated loan; values vary with i only where it helps tell rows apart */
+    static Loan loan(int i) {
+        User u = new User();
+        u.setId((long) i);
+        u.setName("User " + i);
+        u.setEmail("user" + i + "@example.com");
+
+        Loan l = new Loan();
+        l.setId((long) i + 1);
+        l.setAmount(Money.of(100_000.0 + i));
+        l.setLoanType("PERSONAL");
+        l.setTenureMonths(24);
+        l.setPurpose("Sample " + i);
+        l.setAnnualIncome(Money.of(600_000.0));
+        l.setStatus(Loan.Status.APPROVED);
+        l.setAdminRemark("ok");
+        l.setStartDate(LocalDate.of(2025, 1, 1));
+        l.setEmi(Money.ofMinor(461_449));
+        l.setOutstandingPrincipal(Money.of(80_000.0));
+        l.setPaidInstallments(5);
+        l.setNextDueDate(LocalDate.of(2025, 7, 1));
+        l.setNextDueAmount(Money.ofMinor(461_449));
+        l.setRiskScore(85);
+        l.setRiskReasons("EMI is close to the income limit (45%)");
+        l.setUser(u);
+        return l;
+    }
+}
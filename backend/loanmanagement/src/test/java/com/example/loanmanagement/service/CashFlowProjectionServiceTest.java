@@ -0,0 +1,130 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.CashFlowProjectionResponse;
+import com.example.loanmanagement.dto.CashFlowScenario;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.Repayment;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// other tests may leave approved loans behind, so every check is the change this test's loans make
+@SpringBootTest
+class CashFlowProjectionServiceTest {
+
+    private static final int MONTHS = 12;
+    private static final CashFlowScenario FLAT = new CashFlowScenario("flat", 0, 0);
+
+    @Autowired CashFlowProjectionService projectionService;
+    @Autowired RepaymentService repaymentService;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+    @Autowired TransactionTemplate tx;
+
+    User user;
+    final List<Loan> loans = new ArrayList<>();
+    LocalDate from;
+
+    @BeforeEach
+    void setUp() {
+        from = LocalDate.now().withDayOfMonth(1);
+        User u = new User();
+        u.setName("Projected customer");
+        u.setEmail("cashflow-" + UUID.randomUUID() + "@example.com");
+        u.setPassword("x");
+        u.setRole(User.Role.CUSTOMER);
+        user = userRepository.save(u);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(s -> {
+            for (Loan l : loans) {
+                repaymentRepository.deleteAllInBatch(repaymentRepository.findByLoanId(l.getId()));
+            }
+            loanRepository.deleteAllByIdInBatch(loans.stream().map(Loan::getId).toList());
+            userRepository.deleteAllByIdInBatch(List.of(user.getId()));
+        });
+    }
+
+    @Test
+    void overdueInstallmentsLandInTheCurrentMonthInBothProjections() {
+        CashFlowProjectionResponse bookedBefore = projectionService.projectBooked(MONTHS);
+        CashFlowProjectionResponse flatBefore = projectionService.projectScenarios(List.of(FLAT), MONTHS).get(0);
+
+        // started three months back and nothing paid: two installments overdue, one due this month
+        Loan loan = approvedLoan(from.minusMonths(3).withDayOfMonth(10));
+        long dueByMonthEnd = repaymentRepository.findByLoanId(loan.getId()).stream()
+                .filter(r -> r.getDueDate().isBefore(from.plusMonths(1)))
+                .mapToLong(r -> r.getPrincipal().minor())
+                .sum();
+
+        CashFlowProjectionResponse booked = projectionService.projectBooked(MONTHS);
+        CashFlowProjectionResponse flat = projectionService.projectScenarios(List.of(FLAT), MONTHS).get(0);
+
+        assertEquals(dueByMonthEnd, principal(booked, 0) - principal(bookedBefore, 0));
+        assertEquals(dueByMonthEnd, principal(flat, 0) - principal(flatBefore, 0), 3);
+        // every pending installment is inside the horizon, so both see the whole loan
+        assertEquals(120_000_00L, total(booked) - total(bookedBefore));
+        assertEquals(120_000_00L, total(flat) - total(flatBefore), 12);
+    }
+
+    @Test
+    void loanWithoutAmountOrTermsDoesNotBreakTheScenarios() {
+        CashFlowProjectionResponse before = projectionService.projectScenarios(List.of(FLAT), MONTHS).get(0);
+
+        Loan l = new Loan();
+        l.setUser(user);
+        l.setLoanType("PERSONAL");
+        l.setStatus(Loan.Status.APPROVED);
+        loans.add(loanRepository.save(l));
+
+        CashFlowProjectionResponse after = projectionService.projectScenarios(List.of(FLAT), MONTHS).get(0);
+        assertEquals(total(before), total(after));
+    }
+
+    private Loan approvedLoan(LocalDate start) {
+        Loan saved = tx.execute(s -> {
+            Loan l = new Loan();
+            l.setUser(user);
+            l.setAmount(Money.of(120_000));
+            l.setAnnualIncome(Money.of(900_000));
+            l.setLoanType("PERSONAL");
+            l.setPurpose("Cash-flow test");
+            l.setTenureMonths(12);
+            l.setAnnualInterestRate(12.0);
+            l.setStatus(Loan.Status.APPROVED);
+            l.setStartDate(start);
+            l = loanRepository.save(l);
+            List<Repayment> schedule = repaymentService.createSchedule(l);
+            assertEquals(12, schedule.size());
+            return loanRepository.save(l);
+        });
+        loans.add(saved);
+        return saved;
+    }
+
+    private static long principal(CashFlowProjectionResponse r, int month) {
+        return r.getMonths().get(month).getPrincipal().minor();
+    }
+
+    private static long total(CashFlowProjectionResponse r) {
+        return r.getTotalPrincipal().minor();
+    }
+}
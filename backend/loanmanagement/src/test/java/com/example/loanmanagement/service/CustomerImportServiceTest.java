@@ -0,0 +1,83 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.CustomerImportResult;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CustomerImportServiceTest {
+
+    @Autowired CustomerImportService importService;
+    @Autowired UserRepository userRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    private final String domain = "@import-" + UUID.randomUUID() + ".example.com";
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from users where email like ?", "%" + domain);
+    }
+
+    @Test
+    void malformedJsonElementIsReportedAndTheRestImported() throws Exception {
+        CustomerImportResult r = importService.importJson(body("""
+                [{"name": "Ann", "email": "ann%1$s", "password": "secret-1"},
+                 {"name": {"first": "Bob"}, "email": "bob%1$s", "password": "secret-2"},
+                 {"name": "Cid", "email": "cid%1$s", "password": "secret-3"}]
+                """.formatted(domain)));
+
+        assertEquals(3, r.getTotal());
+        assertEquals(2, r.getImported());
+        assertEquals(1, r.getFailed());
+        assertEquals(2, r.getErrors().get(0).getLine());
+        assertTrue(r.getErrors().get(0).getMessage().startsWith("Malformed element"));
+        assertEquals(2, userRepository.findExistingEmails(List.of("ann" + domain, "cid" + domain)).size());
+    }
+
+    @Test
+    void brokenJsonSyntaxStopsTheImportButKeepsEarlierRows() throws Exception {
+        CustomerImportResult r = importService.importJson(body("""
+                [{"name": "Ann", "email": "ann%1$s", "password": "secret-1"},
+                 {"name": "Bob" "email": "bob%1$s"}]
+                """.formatted(domain)));
+
+        assertEquals(1, r.getImported());
+        assertEquals(1, r.getFailed());
+        assertTrue(r.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void preHashedPasswordsMustBeWellFormedAndStrongEnough() throws Exception {
+        String strong = new BCryptPasswordEncoder(10).encode("pw");
+        String weak = new BCryptPasswordEncoder(4).encode("pw");
+        CustomerImportResult r = importService.importCsv(body("""
+                name,email,password
+                Ann,ann%1$s,%2$s
+                Bob,bob%1$s,%3$s
+                Cid,cid%1$s,$2a$10$tooShort
+                """.formatted(domain, strong, weak)));
+
+        assertEquals(1, r.getImported());
+        assertEquals(List.of("password hash cost 4 is outside 10-31", "password looks like a BCrypt hash but is malformed"),
+                r.getErrors().stream().map(CustomerImportResult.RowError::getMessage).toList());
+        assertEquals(strong, jdbcTemplate.queryForObject("select password from users where email = ?",
+                String.class, "ann" + domain));
+    }
+
+    private static ByteArrayInputStream body(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
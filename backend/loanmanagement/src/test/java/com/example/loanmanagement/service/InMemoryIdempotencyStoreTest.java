@@ -0,0 +1,47 @@
+package com.example.loanmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryIdempotencyStoreTest {
+
+    @Test
+    void evictsOldestPastMaxEntries() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(1, 60_000, 2);
+        assertTrue(store.claim("u", "a", "f").owned());
+        IdempotencyStore.Claim b = store.claim("u", "b", "f");
+        assertTrue(b.owned());
+        IdempotencyStore.Claim running = store.claim("u", "a", "f");
+        assertFalse(running.owned());
+        assertTrue(running.existing().inProgress());
+
+        store.complete("u", "b", b.token(), 200, "application/json", "{}");
+        IdempotencyStore.Claim c = store.claim("u", "c", "f");   // pushes "a" out
+        assertTrue(c.owned());
+        assertNull(store.find("u", "a"));
+        assertEquals(200, store.claim("u", "b", "f").existing().status());
+
+        store.release("u", "c", c.token());
+        assertTrue(store.claim("u", "c", "f").owned());
+    }
+
+    @Test
+    void attemptThatLostItsClaimCannotTouchTheNewOne() {
+        // every in-progress claim is abandoned at once, so the second claim takes the first over
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(1, -1, 10);
+        IdempotencyStore.Claim first = store.claim("u", "a", "f");
+        IdempotencyStore.Claim second = store.claim("u", "a", "f");
+        assertTrue(second.owned());
+
+        store.complete("u", "a", first.token(), 500, "text/plain", "late");
+        store.release("u", "a", first.token());
+        assertTrue(store.find("u", "a").inProgress());
+
+        store.complete("u", "a", second.token(), 200, "application/json", "{}");
+        assertEquals(200, store.find("u", "a").status());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.TrialBalance;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.Repayment;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LedgerCloseRepository;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// small shards and chunks so a handful of loans still crosses several of each
+@SpringBootTest(properties = {"loan.accrual.enabled=false", "loan.accrual.shards=3", "loan.accrual.chunk-size=2"})
+class InterestAccrualServiceTest {
+
+    @Autowired InterestAccrualService accrualService;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+    @Autowired RepaymentService repaymentService;
+    @Autowired LedgerCloseRepository ledgerCloseRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    // the day after whatever the shared ledger has closed, so nothing needs catching up before it
+    LocalDate day;
+    User user;
+    final List<Loan> loans = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        day = ledgerCloseRepository.findLastClosedDate().map(d -> d.plusDays(1)).orElse(LocalDate.of(2099, 1, 1));
+        user = userRepository.save(new User(null, "Accrual", "accrual-" + UUID.randomUUID() + "@example.com",
+                "x", User.Role.CUSTOMER, null));
+        for (int i = 0; i < 7; i++) {
+            Loan l = new Loan();
+            l.setUser(user);
+            l.setAmount(Money.of(100_000));
+            l.setLoanType("PERSONAL");
+            l.setTenureMonths(12);
+            l.setAnnualInterestRate(9.125);
+            l.setStatus(Loan.Status.APPROVED);
+            l.setStartDate(day.minusMonths(1));
+            l.setOutstandingPrincipal(Money.ofMinor(100_000_00L - i * 1_000_00L));
+            loans.add(loanRepository.save(l));
+        }
+    }
+
+    // only the days this test posted and closed
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from ledger_entry where business_date >= ?", day);
+        jdbcTemplate.update("delete from ledger_close where business_date >= ?", day);
+        for (Loan l : loans) {
+            repaymentRepository.deleteAllInBatch(repaymentRepository.findByLoanId(l.getId()));
+        }
+        loanRepository.deleteAllByIdInBatch(loans.stream().map(Loan::getId).toList());
+        userRepository.deleteAllByIdInBatch(List.of(user.getId()));
+    }
+
+    @Test
+    void postsOneDayOfInterestPerLoanAndBalances() {
+        TrialBalance tb = accrualService.runEndOfDay(day);
+
+        long expected = 0;
+        for (Loan l : loans) {
+            expected += Math.round(l.getOutstandingPrincipal().minor() * 9.125 / 36500);
+        }
+        assertTrue(tb.getEntriesPosted() >= loans.size());
+        assertTrue(tb.isBalanced());
+        assertEquals(expected, accrued(day));
+    }
+
+    @Test
+    void missedDaysAreClosedInOrderBeforeTheRequestedOne() {
+        accrualService.runEndOfDay(day);
+        TrialBalance tb = accrualService.runEndOfDay(day.plusDays(3));
+
+        long perDay = accrued(day);
+        for (int i = 1; i <= 3; i++) {
+            assertFalse(ledgerCloseRepository.findByBusinessDateOrderByAccount(day.plusDays(i)).isEmpty());
+            assertEquals(perDay, accrued(day.plusDays(i)));
+        }
+        assertTrue(tb.getEntriesPosted() >= 3L * loans.size());
+        assertTrue(tb.isBalanced());
+    }
+
+    @Test
+    void loanWithoutStoredBalanceAccruesOnItsUnpaidSchedule() {
+        Loan l = new Loan();
+        l.setUser(user);
+        l.setAmount(Money.of(50_000));
+        l.setLoanType("PERSONAL");
+        l.setTenureMonths(6);
+        l.setAnnualInterestRate(9.125);
+        l.setStatus(Loan.Status.APPROVED);
+        l.setStartDate(day.minusMonths(1));
+        loans.add(loanRepository.save(l));
+        List<Repayment> schedule = repaymentService.createSchedule(l);
+        jdbcTemplate.update("update loan set outstanding_principal_minor = null where id = ?", l.getId());
+
+        accrualService.runEndOfDay(day);
+
+        long unpaid = schedule.stream().mapToLong(r -> r.getPrincipal().minor()).sum();
+        Long posted = jdbcTemplate.queryForObject(
+                "select amount_minor from ledger_entry where business_date = ? and loan_id = ?", Long.class, day, l.getId());
+        assertEquals(Math.round(unpaid * 9.125 / 36500), posted);
+    }
+
+    @Test
+    void closedDayIsNotPostedTwiceAndBalancesCarryForward() {
+        TrialBalance first = accrualService.runEndOfDay(day);
+        TrialBalance again = accrualService.runEndOfDay(day);
+        assertEquals(0, again.getEntriesPosted());
+        assertEquals(first.getAccounts(), again.getAccounts());
+
+        TrialBalance next = accrualService.runEndOfDay(day.plusDays(1));
+        assertEquals(balance(first, "INTEREST_RECEIVABLE").plus(next.getTotalDebits()), balance(next, "INTEREST_RECEIVABLE"));
+        assertEquals(balance(first, "INTEREST_INCOME").minus(next.getTotalCredits()), balance(next, "INTEREST_INCOME"));
+    }
+
+    private long accrued(LocalDate day) {
+        return jdbcTemplate.queryForObject(
+                "select sum(amount_minor) from ledger_entry where business_date = ? and loan_id in (" +
+                        String.join(",", loans.stream().map(l -> l.getId().toString()).toList()) + ")",
+                Long.class, day);
+    }
+
+    private static Money balance(TrialBalance tb, String account) {
+        return tb.getAccounts().stream().filter(a -> a.getAccount().equals(account))
+                .findFirst().orElseThrow().getBalance();
+    }
+}
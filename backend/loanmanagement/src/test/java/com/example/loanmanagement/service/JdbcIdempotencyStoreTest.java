@@ -0,0 +1,53 @@
+package com.example.loanmanagement.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class JdbcIdempotencyStoreTest {
+
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    final String owner = "idempotency-store-" + UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from idempotency_record where owner = ?", owner);
+    }
+
+    @Test
+    void attemptThatLostItsClaimCannotTouchTheNewOne() {
+        // every in-progress claim is abandoned at once, so the second claim takes the first over
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(jdbcTemplate, 24, -1, 1000);
+        IdempotencyStore.Claim first = store.claim(owner, "k", "f");
+        IdempotencyStore.Claim second = store.claim(owner, "k", "f");
+        assertTrue(first.owned());
+        assertTrue(second.owned());
+
+        store.complete(owner, "k", first.token(), 201, "text/plain", "late");
+        store.release(owner, "k", first.token());
+        assertTrue(store.find(owner, "k").inProgress());
+
+        store.complete(owner, "k", second.token(), 200, "application/json", "{}");
+        assertEquals(200, store.find(owner, "k").status());
+    }
+
+    @Test
+    void ownerReleasesItsOwnClaim() {
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(jdbcTemplate, 24, 60_000, 1000);
+        IdempotencyStore.Claim claim = store.claim(owner, "k", "f");
+        assertTrue(store.find(owner, "k").inProgress());
+
+        store.release(owner, "k", claim.token());
+        assertNull(store.find(owner, "k"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.PortfolioAnalyticsResponse;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "loan.analytics.snapshot-ttl-seconds=1")
+class LoanAnalyticsServiceTest {
+
+    @Autowired LoanAnalyticsService analyticsService;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+
+    User user;
+    Loan loan;
+
+    @BeforeEach
+    void setUp() {
+        User u = new User();
+        u.setName("Analysed customer");
+        u.setEmail("analytics-" + UUID.randomUUID() + "@example.com");
+        u.setPassword("x");
+        u.setRole(User.Role.CUSTOMER);
+        user = userRepository.save(u);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (loan != null) loanRepository.deleteAllByIdInBatch(List.of(loan.getId()));
+        userRepository.deleteAllByIdInBatch(List.of(user.getId()));
+    }
+
+    @Test
+    void staleReadIsServedAtOnceAndTheRefreshLandsInTheBackground() throws InterruptedException {
+        PortfolioAnalyticsResponse before = freshSnapshot();
+
+        Loan l = new Loan();
+        l.setUser(user);
+        l.setAmount(Money.of(50_000));
+        l.setAnnualIncome(Money.of(600_000));
+        l.setLoanType("PERSONAL");
+        l.setTenureMonths(12);
+        l.setStatus(Loan.Status.PENDING);
+        loan = loanRepository.save(l);
+
+        // once the TTL is up a read still gets the old snapshot; the reload is only started
+        Thread.sleep(1_100);
+        PortfolioAnalyticsResponse stale = analytics();
+        assertEquals(before.getSnapshotTakenAt(), stale.getSnapshotTakenAt());
+        assertEquals(before.getLoanCount(), stale.getLoanCount());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        PortfolioAnalyticsResponse fresh = analytics();
+        while (fresh.getLoanCount() == before.getLoanCount() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            fresh = analytics();
+        }
+        assertEquals(before.getLoanCount() + 1, fresh.getLoanCount());
+        assertTrue(fresh.getSnapshotTakenAt().isAfter(before.getSnapshotTakenAt()));
+    }
+
+    // lets the current snapshot go stale and waits for its replacement, so nothing is left in flight
+    private PortfolioAnalyticsResponse freshSnapshot() throws InterruptedException {
+        PortfolioAnalyticsResponse old = analytics();
+        Thread.sleep(1_100);
+        PortfolioAnalyticsResponse next = analytics();
+        while (next.getSnapshotTakenAt().equals(old.getSnapshotTakenAt())) {
+            Thread.sleep(20);
+            next = analytics();
+        }
+        return next;
+    }
+
+    private PortfolioAnalyticsResponse analytics() {
+        return analyticsService.getAnalytics(EnumSet.allOf(LoanAnalyticsService.Dimension.class));
+    }
+}
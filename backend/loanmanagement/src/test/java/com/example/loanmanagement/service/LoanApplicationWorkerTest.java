@@ -0,0 +1,157 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.exception.LoanStatusConflictException;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.LoanApplicationTask;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanApplicationTaskRepository;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Unless a test says otherwise, tasks point at a loan that does not exist, so every attempt fails. Workers of other cached test
+// contexts poll the same tables, so the limits stay at their defaults (3 attempts, 5 minutes).
+@SpringBootTest(properties = "loan.intake.poll-interval-ms=50")
+class LoanApplicationWorkerTest {
+
+    @Autowired LoanApplicationTaskRepository taskRepository;
+    @Autowired AdminLoanService adminLoanService;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+
+    final List<Long> tasks = new ArrayList<>();
+    User user;
+    Loan loan;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllByIdInBatch(tasks);
+        if (loan != null) {
+            repaymentRepository.deleteAllInBatch(repaymentRepository.findByLoanId(loan.getId()));
+            loanRepository.deleteAllByIdInBatch(List.of(loan.getId()));
+        }
+        if (user != null) userRepository.deleteAllByIdInBatch(List.of(user.getId()));
+    }
+
+    @Test
+    void failingTaskIsRetriedUntilMaxAttempts() throws InterruptedException {
+        LoanApplicationTask t = awaitDone(task(LoanApplicationTask.Status.QUEUED, 0, LocalDateTime.now()));
+
+        assertEquals(LoanApplicationTask.Status.FAILED, t.getStatus());
+        assertEquals(3, t.getAttempts());
+        assertEquals("Loan not found", t.getMessage());
+    }
+
+    @Test
+    void staleClaimIsRetriedOnlyWhileAttemptsRemain() throws InterruptedException {
+        LocalDateTime longAgo = LocalDateTime.now().minusHours(1);
+        LoanApplicationTask retried = awaitDone(task(LoanApplicationTask.Status.PROCESSING, 2, longAgo));
+        LoanApplicationTask givenUp = awaitDone(task(LoanApplicationTask.Status.PROCESSING, 3, longAgo));
+
+        // requeued and run once more
+        assertEquals(LoanApplicationTask.Status.FAILED, retried.getStatus());
+        assertEquals(3, retried.getAttempts());
+        assertEquals("Loan not found", retried.getMessage());
+        // never run again
+        assertEquals(LoanApplicationTask.Status.FAILED, givenUp.getStatus());
+        assertEquals(3, givenUp.getAttempts());
+        assertEquals("Gave up after the last attempt never finished", givenUp.getMessage());
+    }
+
+    @Test
+    void freshClaimIsLeftAlone() throws InterruptedException {
+        Long id = task(LoanApplicationTask.Status.PROCESSING, 1, LocalDateTime.now());
+        Thread.sleep(500);
+        LoanApplicationTask t = taskRepository.findById(id).orElseThrow();
+
+        assertEquals(LoanApplicationTask.Status.PROCESSING, t.getStatus());
+        assertEquals(1, t.getAttempts());
+    }
+
+    @Test
+    void loanDecidedByAnAdminIsLeftAsItIs() throws InterruptedException {
+        loan(Loan.Status.APPROVED);
+        LoanApplicationTask t = awaitDone(task(loan.getId(), LoanApplicationTask.Status.QUEUED, 0, LocalDateTime.now()));
+
+        assertEquals(LoanApplicationTask.Status.COMPLETED, t.getStatus());
+        assertEquals("Loan was already APPROVED", t.getMessage());
+        assertTrue(repaymentRepository.findByLoanId(loan.getId()).isEmpty());
+        assertEquals(Loan.Status.APPROVED, loanRepository.findById(loan.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void adminCannotDecideWhileUnderwritingRuns() {
+        loan(Loan.Status.PENDING);
+        // a fresh claim: held by a worker, not stale
+        task(loan.getId(), LoanApplicationTask.Status.PROCESSING, 1, LocalDateTime.now());
+
+        assertThrows(LoanStatusConflictException.class, () -> adminLoanService.approveLoan(loan.getId(), "ok"));
+        assertThrows(LoanStatusConflictException.class, () -> adminLoanService.rejectLoan(loan.getId(), "no"));
+        assertEquals(Loan.Status.PENDING, loanRepository.findById(loan.getId()).orElseThrow().getStatus());
+    }
+
+    private void loan(Loan.Status status) {
+        User u = new User();
+        u.setName("Queued customer");
+        u.setEmail("intake-" + UUID.randomUUID() + "@example.com");
+        u.setPassword("x");
+        u.setRole(User.Role.CUSTOMER);
+        user = userRepository.save(u);
+
+        Loan l = new Loan();
+        l.setUser(user);
+        l.setAmount(Money.of(100_000));
+        l.setAnnualIncome(Money.of(900_000));
+        l.setLoanType("PERSONAL");
+        l.setPurpose("Intake test");
+        l.setTenureMonths(12);
+        l.setAnnualInterestRate(10.0);
+        l.setStatus(status);
+        l.setStartDate(LocalDate.now());
+        loan = loanRepository.save(l);
+    }
+
+    private Long task(LoanApplicationTask.Status status, int attempts, LocalDateTime updatedAt) {
+        return task(-1L, status, attempts, updatedAt);
+    }
+
+    private Long task(Long loanId, LoanApplicationTask.Status status, int attempts, LocalDateTime updatedAt) {
+        LoanApplicationTask t = new LoanApplicationTask();
+        t.setTrackingId(UUID.randomUUID().toString());
+        t.setLoanId(loanId);
+        t.setStatus(status);
+        t.setAttempts(attempts);
+        t.setCreatedAt(updatedAt);
+        t.setUpdatedAt(updatedAt);
+        Long id = taskRepository.save(t).getId();
+        tasks.add(id);
+        return id;
+    }
+
+    private LoanApplicationTask awaitDone(Long id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        LoanApplicationTask t = taskRepository.findById(id).orElseThrow();
+        while ((t.getStatus() == LoanApplicationTask.Status.QUEUED || t.getStatus() == LoanApplicationTask.Status.PROCESSING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            t = taskRepository.findById(id).orElseThrow();
+        }
+        return t;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.LoanLifecycleEvent;
+import com.example.loanmanagement.dto.LoanTimelineEntry;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.LoanEventLog;
+import com.example.loanmanagement.model.LoanEventOutbox;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanEventLogRepository;
+import com.example.loanmanagement.repository.LoanEventOutboxRepository;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// the background drainer is held off so each test decides what sits in the log and what in the outbox
+@SpringBootTest(properties = "loan.audit.drain-interval-ms=3600000")
+class LoanEventLogServiceTest {
+
+    @Autowired LoanEventLogService logService;
+    @Autowired AdminLoanService adminLoanService;
+    @Autowired LoanEventLogRepository logRepository;
+    @Autowired LoanEventOutboxRepository outboxRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired TransactionTemplate tx;
+
+    User user;
+    Loan loan;
+
+    @BeforeEach
+    void setUp() {
+        User u = new User();
+        u.setName("Audited customer");
+        u.setEmail("audit-" + UUID.randomUUID() + "@example.com");
+        u.setPassword("x");
+        u.setRole(User.Role.CUSTOMER);
+        user = userRepository.save(u);
+
+        Loan l = new Loan();
+        l.setUser(user);
+        l.setAmount(Money.of(100_000));
+        l.setAnnualIncome(Money.of(900_000));
+        l.setLoanType("PERSONAL");
+        l.setPurpose("Audit test");
+        l.setTenureMonths(12);
+        l.setAnnualInterestRate(10.0);
+        l.setStatus(Loan.Status.PENDING);
+        l.setAdminRemark("Payslip requested");
+        l.setStartDate(LocalDate.now());
+        loan = loanRepository.save(l);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from loan_event_outbox where loan_id = ?", loan.getId());
+        jdbcTemplate.update("delete from loan_event_log where loan_id = ?", loan.getId());
+        tx.executeWithoutResult(s -> {
+            loanRepository.deleteAllByIdInBatch(List.of(loan.getId()));
+            userRepository.deleteAllByIdInBatch(List.of(user.getId()));
+        });
+    }
+
+    @Test
+    void rejectionRecordsTheRemarkItReplaced() {
+        adminLoanService.rejectLoan(loan.getId(), "Income too low");
+
+        List<LoanTimelineEntry> timeline = logService.getTimeline(loan.getId());
+        assertEquals(1, timeline.size());
+        assertEquals("REJECTED", timeline.get(0).getEventType());
+        assertEquals("Income too low", timeline.get(0).getRemark());
+        assertEquals("Payslip requested", timeline.get(0).getPreviousRemark());
+    }
+
+    @Test
+    void tiesOnOccurredAtFollowWriteOrderAcrossLogAndOutbox() {
+        LocalDateTime at = LocalDateTime.of(2026, 3, 1, 10, 0);
+        for (String remark : List.of("first", "second", "third")) {
+            tx.executeWithoutResult(s -> logService.record(new LoanLifecycleEvent(LoanLifecycleEvent.Type.PREPAID,
+                    loan.getId(), null, "APPROVED", "APPROVED", "system", remark, at)));
+        }
+        List<LoanEventOutbox> queued = outboxRepository.findByLoanIdOrderByIdAsc(loan.getId());
+        // a second node drained "second" before the first node got to "first"
+        moveToLog(queued.get(1));
+        moveToLog(queued.get(0));
+
+        List<LoanTimelineEntry> timeline = logService.getTimeline(loan.getId());
+        assertEquals(List.of("first", "second", "third"), timeline.stream().map(LoanTimelineEntry::getRemark).toList());
+        assertNull(timeline.get(0).getPreviousRemark());
+    }
+
+    private void moveToLog(LoanEventOutbox o) {
+        tx.executeWithoutResult(s -> {
+            logRepository.save(new LoanEventLog(null, o.getLoanId(), o.getRepaymentId(), o.getEventType(),
+                    o.getFromStatus(), o.getToStatus(), o.getActor(), o.getRemark(), o.getPreviousRemark(),
+                    o.getOccurredAt(), LocalDateTime.now(), o.getId()));
+            outboxRepository.deleteById(o.getId());
+        });
+    }
+}
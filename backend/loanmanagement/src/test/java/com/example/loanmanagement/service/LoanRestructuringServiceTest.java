@@ -0,0 +1,123 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.ScheduleChangeResponse;
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.Repayment;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class LoanRestructuringServiceTest {
+
+    @Autowired LoanRestructuringService restructuringService;
+    @Autowired RepaymentService repaymentService;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+    @Autowired TransactionTemplate tx;
+
+    User user;
+    final List<Loan> loans = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "Restructuring", "restructuring-" + UUID.randomUUID() + "@example.com",
+                "x", User.Role.CUSTOMER, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(s -> {
+            for (Loan l : loans) {
+                repaymentRepository.deleteAllInBatch(repaymentRepository.findByLoanId(l.getId()));
+            }
+            loanRepository.deleteAllByIdInBatch(loans.stream().map(Loan::getId).toList());
+            userRepository.deleteAllByIdInBatch(List.of(user.getId()));
+        });
+    }
+
+    @Test
+    void prepaymentShortensTheTailWithoutCountingAsAnInstallment() {
+        Loan loan = loan(LocalDate.now());
+
+        ScheduleChangeResponse r = restructuringService.prepay(loan.getId(), Money.of(60_000),
+                ScheduleRecalculator.Mode.REDUCE_TENURE);
+
+        List<Repayment> rows = repaymentRepository.findByLoanId(loan.getId());
+        long pending = rows.stream().filter(x -> x.getStatus() == Repayment.Status.PENDING).count();
+        assertEquals(12 - pending, r.getRowsDeleted());
+        assertEquals(0, r.getRowsInserted());
+        assertTrue(r.getRowsUpdated() > 0 && r.getRowsUpdated() <= pending);
+        assertEquals(1, rows.stream().filter(Repayment::isSettlement).count());
+
+        Loan after = loanRepository.findById(loan.getId()).orElseThrow();
+        assertEquals(0, after.getPaidInstallments());
+        assertEquals(pending, after.getTenureMonths().longValue());
+        assertEquals(Money.of(60_000), after.getOutstandingPrincipal());
+
+        // recounting from the rows agrees with what the prepayment left
+        repaymentService.initSummary(after, rows);
+        assertEquals(0, after.getPaidInstallments());
+        assertEquals(Money.of(60_000), after.getOutstandingPrincipal());
+    }
+
+    @Test
+    void forecloseChargesOverdueInterestAndTheCurrentPeriodProRata() {
+        LocalDate today = LocalDate.now();
+        Loan loan = loan(today.minusMonths(1).minusDays(10));   // first installment due on the start date
+        List<Repayment> schedule = repaymentRepository.findByLoanId(loan.getId()).stream()
+                .sorted(Comparator.comparing(Repayment::getDueDate)).toList();
+        assertTrue(!schedule.get(1).getDueDate().isAfter(today) && schedule.get(2).getDueDate().isAfter(today));
+
+        long balance = 120_000_00L;
+        long overdue = schedule.get(0).getInterest().minor() + schedule.get(1).getInterest().minor();
+        long opening = balance - schedule.get(0).getPrincipal().minor() - schedule.get(1).getPrincipal().minor();
+        long days = ChronoUnit.DAYS.between(schedule.get(1).getDueDate(), today);
+        long current = Math.min(schedule.get(2).getInterest().minor(), Math.round(opening * 0.10 * days / 365));
+
+        ScheduleChangeResponse r = restructuringService.foreclose(loan.getId());
+
+        assertEquals(Money.ofMinor(balance + overdue + current), r.getSettled());
+        assertEquals(12, r.getRowsDeleted());
+        Loan after = loanRepository.findById(loan.getId()).orElseThrow();
+        assertEquals(Money.ZERO, after.getOutstandingPrincipal());
+        assertEquals(0, after.getPaidInstallments());
+    }
+
+    private Loan loan(LocalDate start) {
+        return tx.execute(s -> {
+            Loan l = new Loan();
+            l.setUser(user);
+            l.setAmount(Money.of(120_000));
+            l.setLoanType("PERSONAL");
+            l.setTenureMonths(12);
+            l.setAnnualInterestRate(10.0);
+            l.setStatus(Loan.Status.APPROVED);
+            l.setStartDate(start);
+            l = loanRepository.save(l);
+            repaymentService.createSchedule(l);
+            l = loanRepository.save(l);
+            loans.add(l);
+            return l;
+        });
+    }
+}
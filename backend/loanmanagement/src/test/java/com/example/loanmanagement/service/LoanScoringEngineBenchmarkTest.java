@@ -0,0 +1,33 @@
+package com.example.loanmanagement.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+// timing only, no threshold; run with -Pbenchmark
+@Tag("benchmark")
+class LoanScoringEngineBenchmarkTest {
+
+    private static final int LOANS = 200_000;
+
+    @Test
+    void scoringThroughput() {
+        LoanScoringEngine engine = LoanScoringEngine.compile(LoanScoringEngineTest.props());
+        LoanScoringEngine.Facts[] facts = LoanScoringEngineTest.randomFacts(LOANS);
+
+        // warm-up so the timed run measures compiled code
+        for (int i = 0; i < 3; i++) {
+            IntStream.range(0, LOANS).parallel().forEach(j -> engine.evaluate(facts[j]));
+        }
+
+        long start = System.nanoTime();
+        long scoreSum = IntStream.range(0, LOANS).parallel()
+                .mapToLong(j -> engine.evaluate(facts[j]).score())
+                .sum(); // consume every result so nothing is skipped
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("LoanScoringEngine: %d evaluations in %.1f ms (%.0f/s, avg score %d)%n",
+                LOANS, seconds * 1000, LOANS / seconds, scoreSum / LOANS);
+    }
+}
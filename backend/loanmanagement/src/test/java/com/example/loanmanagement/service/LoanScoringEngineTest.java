@@ -0,0 +1,93 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.config.LoanScoringProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoanScoringEngineTest {
+
+    // 1,200,000 a year is 100,000 a month, so the EMI reads directly as a DTI percentage
+    private static final double INCOME = 1_200_000;
+
+    private final LoanScoringEngine engine = LoanScoringEngine.compile(props());
+
+    @Test
+    void cleanApplicationKeepsFullScore() {
+        assertResult(100, List.of(), facts(200_000, 24, 20_000, "PERSONAL", 0, 0, 0));
+    }
+
+    @Test
+    void debtToIncomeOverTheLimitAndCloseToIt() {
+        assertResult(50, List.of("EMI is 60% of monthly income (max 50%)"),
+                facts(200_000, 24, 60_000, "PERSONAL", 0, 0, 0));
+        assertResult(85, List.of("EMI is close to the income limit (45%)"),
+                facts(200_000, 24, 45_000, "PERSONAL", 0, 0, 0));
+        assertEquals(50, engine.evaluate(new LoanScoringEngine.Facts(200_000, 24, 0, 1, "PERSONAL", 0, 0, 0)).score());
+    }
+
+    @Test
+    void typeLimitsAddUp() {
+        assertResult(40, List.of("Amount exceeds PERSONAL limit of 500000", "Tenure exceeds PERSONAL limit of 60 months"),
+                facts(600_000, 72, 20_000, "PERSONAL", 0, 0, 0));
+        assertResult(90, List.of("No limits configured for loan type HOME"),
+                facts(5_000_000, 240, 20_000, "HOME", 0, 0, 0));
+    }
+
+    @Test
+    void historyPenaltiesAreCapped() {
+        assertResult(40, List.of("5 previously rejected application(s)", "Already has an approved loan",
+                        "Has another pending application"),
+                facts(200_000, 24, 20_000, "PERSONAL", 5, 1, 1));
+    }
+
+    @Test
+    void scoreNeverGoesBelowZero() {
+        assertEquals(0, engine.evaluate(facts(600_000, 72, 60_000, "PERSONAL", 3, 1, 1)).score());
+    }
+
+    @Test
+    void parallelEvaluationMatchesSequential() {
+        LoanScoringEngine.Facts[] facts = randomFacts(10_000);
+        List<LoanScoringEngine.Result> sequential = IntStream.range(0, facts.length)
+                .mapToObj(i -> engine.evaluate(facts[i])).toList();
+        List<LoanScoringEngine.Result> parallel = IntStream.range(0, facts.length).parallel()
+                .mapToObj(i -> engine.evaluate(facts[i])).toList();
+        assertEquals(sequential, parallel);
+    }
+
+    private void assertResult(int score, List<String> reasons, LoanScoringEngine.Facts facts) {
+        assertEquals(new LoanScoringEngine.Result(score, reasons), engine.evaluate(facts));
+    }
+
+    private static LoanScoringEngine.Facts facts(double amount, int tenure, double emi, String type,
+                                                 long rejected, long approved, long pending) {
+        return new LoanScoringEngine.Facts(amount, tenure, INCOME, emi, type, rejected, approved, pending);
+    }
+
+    static LoanScoringProperties props() {
+        LoanScoringProperties props = new LoanScoringProperties();
+        LoanScoringProperties.TypeLimits personal = new LoanScoringProperties.TypeLimits();
+        personal.setMaxAmount(500_000);
+        personal.setMaxTenureMonths(60);
+        props.getLimits().put("PERSONAL", personal);
+        return props;
+    }
+
+    static LoanScoringEngine.Facts[] randomFacts(int n) {
+        Random rnd = new Random(42);
+        String[] types = {"PERSONAL", "HOME", "CAR"};
+        LoanScoringEngine.Facts[] facts = new LoanScoringEngine.Facts[n];
+        for (int i = 0; i < n; i++) {
+            facts[i] = new LoanScoringEngine.Facts(
+                    10_000 + rnd.nextInt(900_000), 6 + rnd.nextInt(84), 100_000 + rnd.nextInt(2_000_000),
+                    1_000 + rnd.nextInt(40_000), types[i % types.length],
+                    rnd.nextInt(3), rnd.nextInt(2), rnd.nextInt(2));
+        }
+        return facts;
+    }
+}
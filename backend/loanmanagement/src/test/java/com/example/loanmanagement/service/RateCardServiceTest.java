@@ -0,0 +1,96 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.dto.RateCardRequest;
+import com.example.loanmanagement.model.RateCard;
+import com.example.loanmanagement.repository.RateCardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "loan.pricing.default-rate=10.0")
+class RateCardServiceTest {
+
+    @Autowired RateCardService rateCardService;
+    @Autowired RateCardRepository rateCardRepository;
+
+    @AfterEach
+    void tearDown() {
+        rateCardService.publish(List.of());
+    }
+
+    @Test
+    void emptyCellTakesTheNearestLowerBand() {
+        // no card for 500k+ and 36+ months: same amount band, lower tenure band wins
+        rateCardService.publish(List.of(
+                card("HOME", 0, 0, 9.0),
+                card("HOME", 0, 36, 8.5),
+                card("HOME", 500_000, 0, 8.0)));
+
+        assertEquals(9.0, rateCardService.resolveRate("home", 100_000, 12));
+        assertEquals(8.5, rateCardService.resolveRate("HOME", 100_000, 60));
+        assertEquals(8.0, rateCardService.resolveRate("HOME", 900_000, 60));
+        assertEquals(10.0, rateCardService.resolveRate("CAR", 900_000, 60));
+    }
+
+    @Test
+    void lowerAmountBandWhenTheRowHasNothingBelow() {
+        rateCardService.publish(List.of(
+                card("CAR", 0, 0, 11.0),
+                card("CAR", 0, 24, 10.5),
+                card("CAR", 200_000, 24, 9.5)));
+
+        assertEquals(11.0, rateCardService.resolveRate("CAR", 300_000, 12));
+        assertEquals(9.5, rateCardService.resolveRate("CAR", 300_000, 48));
+    }
+
+    @Test
+    void nothingAtOrBelowFallsBackToTheDefault() {
+        rateCardService.publish(List.of(card("PERSONAL", 50_000, 12, 14.0)));
+
+        assertEquals(10.0, rateCardService.resolveRate("PERSONAL", 10_000, 24));
+        assertEquals(10.0, rateCardService.resolveRate("PERSONAL", 60_000, 6));
+        assertEquals(14.0, rateCardService.resolveRate("PERSONAL", 60_000, 24));
+    }
+
+    @Test
+    void duplicateCardsAreRejectedAndTheOldGridStays() {
+        rateCardService.publish(List.of(card("HOME", 0, 0, 9.0)));
+
+        assertThrows(IllegalArgumentException.class, () -> rateCardService.publish(List.of(
+                card("HOME", 0, 0, 8.0),
+                card(" home ", 0, 0, 7.0))));
+        assertEquals(9.0, rateCardService.resolveRate("HOME", 100_000, 12));
+        assertEquals(1, rateCardService.getRateCards().size());
+    }
+
+    @Test
+    void cardsWrittenByAnotherNodeArePickedUpByThePoll() {
+        rateCardService.publish(List.of(card("HOME", 0, 0, 9.0)));
+
+        // what a publish on another node leaves in the table
+        rateCardRepository.deleteAllInBatch();
+        rateCardRepository.save(new RateCard(null, "HOME", 0.0, 0, 7.5, LocalDateTime.now()));
+        rateCardService.reloadIfChanged();
+        assertEquals(7.5, rateCardService.resolveRate("HOME", 100_000, 12));
+
+        rateCardRepository.deleteAllInBatch();
+        rateCardService.reloadIfChanged();
+        assertEquals(10.0, rateCardService.resolveRate("HOME", 100_000, 12));
+    }
+
+    private static RateCardRequest card(String type, double minAmount, int minTenure, double rate) {
+        RateCardRequest r = new RateCardRequest();
+        r.setLoanType(type);
+        r.setMinAmount(minAmount);
+        r.setMinTenureMonths(minTenure);
+        r.setAnnualInterestRate(rate);
+        return r;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.loanmanagement.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+// timing only, no threshold; run with -Pbenchmark
+@Tag("benchmark")
+class RepricingBenchmarkTest {
+
+    private static final int LOANS = 20_000;
+
+    @Test
+    void repricingThroughput() {
+        RepricingServiceTest.Batch batch = RepricingServiceTest.batch(LOANS);
+        RepricingService.LoanTerms[] loans = batch.loans();
+        ScheduleRecalculator.Pending[] pending = batch.pending();
+
+        // warm-up so the timed run measures compiled code
+        for (int i = 0; i < 2; i++) {
+            IntStream.range(0, LOANS).parallel().forEach(j -> RepricingService.reprice(loans[j], pending[j], 6.75));
+        }
+
+        long start = System.nanoTime();
+        long rows = IntStream.range(0, LOANS).parallel()
+                .mapToLong(j -> RepricingService.reprice(loans[j], pending[j], 6.75).rows().size())
+                .sum();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Repricing: %d loans (%d rows) in %.1f ms (%.0f loans/s)%n",
+                LOANS, rows, seconds * 1000, LOANS / seconds);
+    }
+}
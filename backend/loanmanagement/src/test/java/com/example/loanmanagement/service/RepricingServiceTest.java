@@ -0,0 +1,91 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.util.Amortization;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepricingServiceTest {
+
+    @Test
+    void repricedScheduleKeepsBalanceAndSkipsUnchangedRate() {
+        ScheduleRecalculator.Pending pending = pending(Amortization.byInstallments(1_000_000_00L, 9.0, 120), 100);
+        RepricingService.LoanTerms loan = new RepricingService.LoanTerms(1, 2.5, 9.0, 0);
+
+        assertNull(RepricingService.reprice(loan, pending, 6.5));
+
+        RepricingService.Repriced up = RepricingService.reprice(loan, pending, 7.0);
+        assertEquals(9.5, up.rate());
+        assertEquals(120, up.plan().size());
+        assertEquals(1_000_000_00L, Arrays.stream(up.plan().principal()).sum());
+        assertTrue(up.plan().emi() > Amortization.byInstallments(1_000_000_00L, 9.0, 120).emi());
+        assertEquals(120, up.rows().size());
+    }
+
+    @Test
+    void rateCutLowersTheInstallmentAndNeverGoesNegative() {
+        ScheduleRecalculator.Pending pending = pending(Amortization.byInstallments(500_000_00L, 9.0, 60), 1);
+        RepricingService.LoanTerms loan = new RepricingService.LoanTerms(1, 2.0, 9.0, 0);
+
+        RepricingService.Repriced down = RepricingService.reprice(loan, pending, 5.0);
+        assertEquals(7.0, down.rate());
+        assertTrue(down.plan().emi() < Amortization.byInstallments(500_000_00L, 9.0, 60).emi());
+        assertEquals(Arrays.stream(pending.interest()).sum(), down.interestBefore());
+
+        assertEquals(0.0, RepricingService.reprice(loan, pending, -5.0).rate());
+    }
+
+    @Test
+    void nothingLeftToRepriceIsSkipped() {
+        RepricingService.LoanTerms loan = new RepricingService.LoanTerms(1, 2.0, 9.0, 0);
+        assertNull(RepricingService.reprice(loan, null, 8.0));
+        assertNull(RepricingService.reprice(loan, new ScheduleRecalculator.Pending(
+                new long[0], new LocalDate[0], new long[0], new long[0]), 8.0));
+    }
+
+    @Test
+    void everyLoanInAMixedBatchKeepsItsBalanceAndTenure() {
+        Batch batch = batch(500);
+        for (int i = 0; i < batch.loans().length; i++) {
+            ScheduleRecalculator.Pending p = batch.pending()[i];
+            RepricingService.Repriced r = RepricingService.reprice(batch.loans()[i], p, 6.75);
+            assertEquals(8.75, r.rate());
+            assertEquals(p.size(), r.plan().size());
+            assertEquals(p.balance(), Arrays.stream(r.plan().principal()).sum());
+        }
+    }
+
+    record Batch(RepricingService.LoanTerms[] loans, ScheduleRecalculator.Pending[] pending) {
+    }
+
+    static Batch batch(int n) {
+        Random rnd = new Random(7);
+        RepricingService.LoanTerms[] loans = new RepricingService.LoanTerms[n];
+        ScheduleRecalculator.Pending[] pending = new ScheduleRecalculator.Pending[n];
+        for (int i = 0; i < n; i++) {
+            int tenure = 60 + rnd.nextInt(300);
+            Amortization.Plan plan = Amortization.byInstallments(100_000_00L + rnd.nextInt(5_000_000) * 100L, 8.5, tenure);
+            loans[i] = new RepricingService.LoanTerms(i, 2.0, 8.5, plan.emi());
+            pending[i] = pending(plan, i);
+        }
+        return new Batch(loans, pending);
+    }
+
+    private static ScheduleRecalculator.Pending pending(Amortization.Plan plan, long firstId) {
+        int n = plan.size();
+        long[] ids = new long[n];
+        LocalDate[] due = new LocalDate[n];
+        LocalDate first = LocalDate.of(2026, 1, 5);
+        for (int i = 0; i < n; i++) {
+            ids[i] = firstId * 1_000 + i;
+            due[i] = first.plusMonths(i);
+        }
+        return new ScheduleRecalculator.Pending(ids, due, plan.principal().clone(), plan.interest().clone());
+    }
+}
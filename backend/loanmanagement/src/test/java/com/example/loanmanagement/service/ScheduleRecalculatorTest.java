@@ -0,0 +1,47 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.util.Amortization;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScheduleRecalculatorTest {
+
+    private static final LocalDate FIRST_DUE = LocalDate.of(2030, 1, 15);
+
+    @Test
+    void onlyRowsWhoseAmountsChangedAreUpdated() {
+        ScheduleRecalculator.Pending pending = pending(new long[]{100, 100, 100}, new long[]{10, 7, 4});
+        Amortization.Plan plan = new Amortization.Plan(110, new long[]{100, 103, 97}, new long[]{10, 7, 3});
+
+        List<Object[]> updates = ScheduleRecalculator.changedRows(pending, plan);
+
+        assertEquals(2, updates.size());
+        assertArrayEquals(new Object[]{103L, 7L, 2L, Date.valueOf(FIRST_DUE.plusMonths(1))}, updates.get(0));
+        assertArrayEquals(new Object[]{97L, 3L, 3L, Date.valueOf(FIRST_DUE.plusMonths(2))}, updates.get(1));
+    }
+
+    @Test
+    void shorterPlanOnlyComparesTheRowsItKeeps() {
+        ScheduleRecalculator.Pending pending = pending(new long[]{100, 100, 100}, new long[]{10, 7, 4});
+        Amortization.Plan plan = new Amortization.Plan(110, new long[]{100, 100}, new long[]{10, 7});
+
+        assertEquals(0, ScheduleRecalculator.changedRows(pending, plan).size());
+    }
+
+    // ids 1..n, due monthly from FIRST_DUE
+    private static ScheduleRecalculator.Pending pending(long[] principal, long[] interest) {
+        int n = principal.length;
+        ScheduleRecalculator.Pending p = new ScheduleRecalculator.Pending(new long[n], new LocalDate[n], principal, interest);
+        for (int i = 0; i < n; i++) {
+            p.ids()[i] = i + 1;
+            p.dueDates()[i] = FIRST_DUE.plusMonths(i);
+        }
+        return p;
+    }
+}
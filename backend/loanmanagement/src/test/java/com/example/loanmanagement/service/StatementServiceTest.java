@@ -0,0 +1,156 @@
+package com.example.loanmanagement.service;
+
+import com.example.loanmanagement.model.Loan;
+import com.example.loanmanagement.model.Money;
+import com.example.loanmanagement.model.StatementRun;
+import com.example.loanmanagement.model.User;
+import com.example.loanmanagement.repository.LoanRepository;
+import com.example.loanmanagement.repository.RepaymentRepository;
+import com.example.loanmanagement.repository.StatementRunRepository;
+import com.example.loanmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// pages of two customers so a handful of customers still spans several pages and checkpoints
+@SpringBootTest(properties = {"loan.statements.enabled=false", "loan.statements.dir=target/test-statements",
+        "loan.statements.page-size=2", "loan.statements.workers=2"})
+class StatementServiceTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(1999, 3);
+
+    @Autowired StatementService statementService;
+    @Autowired StatementRunRepository runRepository;
+    @Autowired UserRepository userRepository;
+    @Autowired LoanRepository loanRepository;
+    @Autowired RepaymentRepository repaymentRepository;
+    @Autowired RepaymentService repaymentService;
+    @Autowired TransactionTemplate tx;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    final List<User> users = new ArrayList<>();
+    final List<Loan> loans = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tx.executeWithoutResult(s -> {
+            for (int i = 0; i < 5; i++) {
+                User u = userRepository.save(new User(null, "Statement " + i,
+                        "statement-" + UUID.randomUUID() + "@example.com", "x", User.Role.CUSTOMER, null));
+                users.add(u);
+                Loan l = new Loan();
+                l.setUser(u);
+                l.setAmount(Money.of(120_000));
+                l.setAnnualIncome(Money.of(900_000));
+                l.setLoanType("PERSONAL");
+                l.setPurpose("Statement test");
+                l.setTenureMonths(12);
+                l.setAnnualInterestRate(10.0);
+                l.setStatus(Loan.Status.APPROVED);
+                l.setStartDate(LocalDate.of(1999, 2, 15));
+                l = loanRepository.save(l);
+                repaymentService.createSchedule(l);
+                loans.add(loanRepository.save(l));
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        runRepository.findByPeriodAndFormat(PERIOD.toString(), StatementRun.Format.CSV)
+                .ifPresent(r -> runRepository.deleteById(r.getId()));
+        tx.executeWithoutResult(s -> {
+            for (Loan l : loans) {
+                repaymentRepository.deleteAllInBatch(repaymentRepository.findByLoanId(l.getId()));
+            }
+            loanRepository.deleteAllByIdInBatch(loans.stream().map(Loan::getId).toList());
+            userRepository.deleteAllByIdInBatch(users.stream().map(User::getId).toList());
+        });
+        FileSystemUtils.deleteRecursively(Path.of("target/test-statements"));
+    }
+
+    @Test
+    void writesOneStatementPerCustomerWithManifest() throws Exception {
+        StatementRun run = await(statementService.generate(PERIOD, StatementRun.Format.CSV));
+        assertEquals(StatementRun.Status.COMPLETED, run.getStatus());
+
+        List<String> manifest = Files.readAllLines(Path.of(run.getDirectory(), "manifest.csv"));
+        for (int i = 0; i < users.size(); i++) {
+            String prefix = users.get(i).getId() + ",";
+            assertEquals(1, manifest.stream().filter(line -> line.startsWith(prefix)).count());
+
+            String csv = new String(statementService.statementFile(run.getId(), users.get(i).getId()), StandardCharsets.UTF_8);
+            // the March installment, and nothing from February or April
+            assertTrue(csv.contains(loans.get(i).getId() + ",PERSONAL,1999-03-15,"), csv);
+            assertEquals(2, csv.lines().count(), csv);
+        }
+        assertEquals(manifest.size() - 1, run.getStatements());
+    }
+
+    @Test
+    void resumesAfterLastCheckpointWithoutDuplicatingManifestLines() throws Exception {
+        StatementRun run = await(statementService.generate(PERIOD, StatementRun.Format.CSV));
+        Path manifestFile = Path.of(run.getDirectory(), "manifest.csv");
+        List<String> complete = Files.readAllLines(manifestFile);
+
+        // pretend it failed after the page ending with our second customer, mid-way through the next page
+        long checkpoint = users.get(1).getId();
+        long committedBytes = 0;
+        long committedStatements = 0;
+        for (String line : complete) {
+            if (!line.startsWith("customer_id") && Long.parseLong(line.substring(0, line.indexOf(','))) > checkpoint) break;
+            committedBytes += line.length() + 1;
+            if (!line.startsWith("customer_id")) committedStatements++;
+        }
+        jdbcTemplate.update("update statement_run set status = 'FAILED', last_user_id = ?, manifest_bytes = ?, " +
+                "statements = ? where id = ?", checkpoint, committedBytes, committedStatements, run.getId());
+        Files.writeString(manifestFile, users.get(2).getId() + ",partial", StandardOpenOption.APPEND);
+
+        StatementRun resumed = await(statementService.resume(run.getId()));
+        assertEquals(StatementRun.Status.COMPLETED, resumed.getStatus());
+        assertEquals(complete, Files.readAllLines(manifestFile));
+        assertEquals(complete.size() - 1, resumed.getStatements());
+    }
+
+    @Test
+    void runLeftRunningIsResumableOnlyOnceItsLeaseLapses() throws Exception {
+        StatementRun run = await(statementService.generate(PERIOD, StatementRun.Format.CSV));
+        String orphan = "update statement_run set status = 'RUNNING', owner = 'dead-node', lease_until = ? where id = ?";
+
+        jdbcTemplate.update(orphan, LocalDateTime.now().plusMinutes(5), run.getId());
+        assertThrows(IllegalStateException.class, () -> statementService.resume(run.getId()));
+
+        jdbcTemplate.update(orphan, LocalDateTime.now().minusSeconds(1), run.getId());
+        StatementRun resumed = await(statementService.resume(run.getId()));
+        assertEquals(StatementRun.Status.COMPLETED, resumed.getStatus());
+    }
+
+    private StatementRun await(StatementRun started) throws InterruptedException {
+        for (int i = 0; i < 300; i++) {
+            StatementRun run = runRepository.findById(started.getId()).orElseThrow();
+            if (run.getStatus() != StatementRun.Status.RUNNING) return run;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Statement run did not finish");
+    }
+}
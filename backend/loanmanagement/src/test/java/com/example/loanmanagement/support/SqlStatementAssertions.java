@@ -0,0 +1,49 @@
+package com.example.loanmanagement.support;
+
+import com.example.loanmanagement.config.SqlStatementCounter;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Statement budgets for tests. MockMvc runs the request on the test thread, so a scope opened
+ * here sees everything the request executes (including the security chain):
+ * <pre>
+ *   SqlStatementAssertions.reset();
+ *   mockMvc.perform(get("/api/admin/loans"));
+ *   SqlStatementAssertions.assertMaxStatements(1);
+ * </pre>
+ */
+public final class SqlStatementAssertions {
+
+    private static final ThreadLocal<SqlStatementCounter.Stats> TRACKED = new ThreadLocal<>();
+
+    private SqlStatementAssertions() {
+    }
+
+    /** Start counting from zero on this thread */
+    public static void reset() {
+        stop();
+        TRACKED.set(SqlStatementCounter.open());
+    }
+
+    public static void stop() {
+        SqlStatementCounter.Stats stats = TRACKED.get();
+        if (stats != null) {
+            stats.close();
+            TRACKED.remove();
+        }
+    }
+
+    public static SqlStatementCounter.Stats stats() {
+        SqlStatementCounter.Stats stats = TRACKED.get();
+        if (stats == null) fail("call SqlStatementAssertions.reset() first");
+        return stats;
+    }
+
+    public static void assertMaxStatements(int max) {
+        SqlStatementCounter.Stats stats = stats();
+        assertTrue(stats.getStatements() <= max,
+                () -> "expected at most " + max + " SQL statements, got " + stats);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.loanmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AmortizationTest {
+
+    @Test
+    void principalSumsExactlyToBalance() {
+        Amortization.Plan plan = Amortization.byInstallments(5_000_000_00L, 8.65, 360);
+        assertEquals(360, plan.size());
+        assertEquals(5_000_000_00L, Arrays.stream(plan.principal()).sum());
+        // regular rows pay exactly the EMI
+        assertEquals(plan.emi(), plan.principal()[0] + plan.interest()[0]);
+        assertEquals(plan.emi(), plan.principal()[358] + plan.interest()[358]);
+    }
+
+    @Test
+    void reducedTenureKeepsEmiAndShortensSchedule() {
+        Amortization.Plan original = Amortization.byInstallments(1_200_000_00L, 10.0, 240);
+        long afterPrepayment = 800_000_00L;
+
+        Amortization.Plan shorter = Amortization.byEmi(afterPrepayment, 10.0, original.emi(), 240);
+        Amortization.Plan smaller = Amortization.byInstallments(afterPrepayment, 10.0, 240);
+
+        assertTrue(shorter.size() < 240);
+        assertEquals(original.emi(), shorter.emi());
+        assertTrue(shorter.principal()[shorter.size() - 1] + shorter.interest()[shorter.size() - 1] <= original.emi());
+        assertEquals(afterPrepayment, Arrays.stream(shorter.principal()).sum());
+
+        assertEquals(240, smaller.size());
+        assertTrue(smaller.emi() < original.emi());
+        assertEquals(afterPrepayment, Arrays.stream(smaller.principal()).sum());
+    }
+}
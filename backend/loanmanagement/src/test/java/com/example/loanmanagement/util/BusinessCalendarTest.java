@@ -0,0 +1,85 @@
+package com.example.loanmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.example.loanmanagement.util.BusinessCalendar.Convention.FOLLOWING;
+import static com.example.loanmanagement.util.BusinessCalendar.Convention.MODIFIED_FOLLOWING;
+import static com.example.loanmanagement.util.BusinessCalendar.Convention.NONE;
+import static com.example.loanmanagement.util.BusinessCalendar.Convention.PRECEDING;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BusinessCalendarTest {
+
+    private static final Set<DayOfWeek> WEEKEND = Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+    private static final List<LocalDate> HOLIDAYS = List.of(
+            LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 2), LocalDate.of(2026, 12, 25), LocalDate.of(2027, 12, 31));
+
+    private final BusinessCalendar calendar = new BusinessCalendar(WEEKEND, HOLIDAYS);
+
+    @Test
+    void conventions() {
+        LocalDate saturday = LocalDate.of(2026, 1, 3);
+        assertEquals(LocalDate.of(2026, 1, 5), calendar.adjust(saturday, FOLLOWING));
+        assertEquals(saturday, calendar.adjust(saturday, NONE));
+        // Thu 1st and Fri 2nd are holidays, so preceding crosses into the previous year
+        assertEquals(LocalDate.of(2025, 12, 31), calendar.adjust(saturday, PRECEDING));
+
+        LocalDate saturdayMonthEnd = LocalDate.of(2026, 1, 31);
+        assertEquals(LocalDate.of(2026, 2, 2), calendar.adjust(saturdayMonthEnd, FOLLOWING));
+        assertEquals(LocalDate.of(2026, 1, 30), calendar.adjust(saturdayMonthEnd, MODIFIED_FOLLOWING));
+    }
+
+    @Test
+    void monthEndRuleAndShortMonths() {
+        LocalDate lastOfFeb = LocalDate.of(2026, 2, 28);
+        assertArrayEquals(new LocalDate[]{lastOfFeb, LocalDate.of(2026, 3, 31), LocalDate.of(2026, 4, 30)},
+                calendar.monthlyDates(lastOfFeb, 3, NONE, true));
+        assertArrayEquals(new LocalDate[]{lastOfFeb, LocalDate.of(2026, 3, 28), LocalDate.of(2026, 4, 28)},
+                calendar.monthlyDates(lastOfFeb, 3, NONE, false));
+
+        // the 31st clamps to shorter months without drifting afterwards
+        LocalDate[] dates = calendar.monthlyDates(LocalDate.of(2027, 1, 31), 4, NONE, false);
+        assertEquals(LocalDate.of(2027, 2, 28), dates[1]);
+        assertEquals(LocalDate.of(2027, 3, 31), dates[2]);
+        assertEquals(LocalDate.of(2027, 4, 30), dates[3]);
+        assertEquals(dates[3], calendar.monthlyDate(LocalDate.of(2027, 1, 31), 3, NONE, false));
+    }
+
+    @Test
+    void matchesDayByDayReference() {
+        Random rnd = new Random(3);
+        BusinessCalendar.Convention[] conventions = BusinessCalendar.Convention.values();
+        for (int t = 0; t < 2_000; t++) {
+            LocalDate start = LocalDate.of(2025, 1, 1).plusDays(rnd.nextInt(1_500));
+            BusinessCalendar.Convention c = conventions[rnd.nextInt(conventions.length)];
+            boolean monthEnd = rnd.nextBoolean();
+            LocalDate[] dates = calendar.monthlyDates(start, 36, c, monthEnd);
+            for (int i = 0; i < dates.length; i++) {
+                assertEquals(reference(start, i, c, monthEnd), dates[i], start + " #" + i + " " + c);
+            }
+        }
+    }
+
+    private static LocalDate reference(LocalDate start, int i, BusinessCalendar.Convention c, boolean monthEnd) {
+        LocalDate d = start.plusMonths(i);
+        if (monthEnd && start.getDayOfMonth() == start.lengthOfMonth()) d = d.withDayOfMonth(d.lengthOfMonth());
+        return switch (c) {
+            case NONE -> d;
+            case FOLLOWING -> next(d, 1);
+            case PRECEDING -> next(d, -1);
+            case MODIFIED_FOLLOWING -> next(d, 1).getMonth() == d.getMonth() ? next(d, 1) : next(d, -1);
+        };
+    }
+
+    private static LocalDate next(LocalDate d, int step) {
+        while (WEEKEND.contains(d.getDayOfWeek()) || HOLIDAYS.contains(d)) d = d.plusDays(step);
+        return d;
+    }
+}
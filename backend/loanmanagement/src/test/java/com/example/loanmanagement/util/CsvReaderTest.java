@@ -0,0 +1,67 @@
+package com.example.loanmanagement.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvReaderTest {
+
+    private record Rec(long line, List<String> fields) {
+    }
+
+    @Test
+    void plainRecordsWithLineNumbers() throws IOException {
+        assertEquals(List.of(new Rec(1, List.of("name", "email")), new Rec(2, List.of("Ann", "ann@example.com"))),
+                read("name,email\nAnn,ann@example.com\n"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndEscapedQuotes() throws IOException {
+        assertEquals(List.of(new Rec(1, List.of("Smith, Ann", "say \"hi\"", ""))),
+                read("\"Smith, Ann\",\"say \"\"hi\"\"\",\"\""));
+    }
+
+    @Test
+    void quotedNewlineStaysInTheFieldAndLaterLinesCountIt() throws IOException {
+        assertEquals(List.of(new Rec(1, List.of("a", "two\nlines")), new Rec(3, List.of("b", "c"))),
+                read("a,\"two\nlines\"\nb,c\n"));
+    }
+
+    @Test
+    void crlfLineEndings() throws IOException {
+        assertEquals(List.of(new Rec(1, List.of("a", "b")), new Rec(2, List.of("c", "d"))),
+                read("a,b\r\nc,d\r\n"));
+    }
+
+    @Test
+    void blankLinesAreSkippedButCounted() throws IOException {
+        assertEquals(List.of(new Rec(2, List.of("a")), new Rec(5, List.of("b"))),
+                read("\na\n\r\n\nb"));
+    }
+
+    @Test
+    void emptyTrailingFieldsAreKept() throws IOException {
+        assertEquals(List.of(new Rec(1, List.of("a", "", ""))), read("a,,\n"));
+    }
+
+    @Test
+    void emptyInput() throws IOException {
+        assertEquals(List.of(), read(""));
+        assertEquals(List.of(), read("\n\r\n"));
+    }
+
+    private static List<Rec> read(String csv) throws IOException {
+        List<Rec> out = new ArrayList<>();
+        try (CsvReader r = new CsvReader(new StringReader(csv))) {
+            for (List<String> f; (f = r.next()) != null; ) {
+                out.add(new Rec(r.getLine(), f));
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Time-to-first-request for each startup mode.
+#   ./mvnw -Pfast-start package -DskipTests   (AOT classes under target/app)
+#     add -Dcds.training.skip=false for the CDS archive too (its training run needs the database)
+#   ./mvnw -Pnative native:compile -DskipTests (optional, needs GraalVM)
+#   ./startup-benchmark.sh [runs]
+# Needs the database from application.properties to be reachable. Any HTTP response counts as "first request".
+set -euo pipefail
+cd "$(dirname "$0")"
+
+RUNS=${1:-3}
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/api/auth/login"
+APP=target/app
+JAR=$(ls "$APP"/loanmanagement-*.jar 2>/dev/null | head -1 || true)
+NATIVE=target/loanmanagement
+
+[ -n "$JAR" ] || { echo "no $APP/loanmanagement-*.jar, build with -Pfast-start first" >&2; exit 1; }
+
+now_ms() { date +%s%3N; }
+
+measure() {
+  local label=$1; shift
+  local total=0 best=
+  for ((i = 1; i <= RUNS; i++)); do
+    local start; start=$(now_ms)
+    "$@" --server.port="$PORT" >/dev/null 2>&1 &
+    local pid=$!
+    until curl -s -o /dev/null "$URL"; do
+      kill -0 "$pid" 2>/dev/null || { echo "$label: process exited before serving" >&2; return 1; }
+      sleep 0.02
+    done
+    local took=$(( $(now_ms) - start ))
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    total=$((total + took))
+    if [ -z "$best" ] || [ "$took" -lt "$best" ]; then best=$took; fi
+  done
+  printf '%-10s avg %6d ms   best %6d ms   (%d runs)\n' "$label" $((total / RUNS)) "$best" "$RUNS"
+}
+
+measure jvm      java -jar "$JAR"
+measure jvm-fast java -jar "$JAR" --spring.profiles.active=fast
+measure aot      java -Dspring.aot.enabled=true -jar "$JAR"
+if [ -f "$APP/application.jsa" ]; then
+  measure aot-cds java -XX:SharedArchiveFile="$APP/application.jsa" -Dspring.aot.enabled=true -jar "$JAR"
+fi
+if [ -x "$NATIVE" ]; then
+  measure native "$NATIVE"
+fi
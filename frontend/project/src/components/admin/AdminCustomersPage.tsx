@@ -1,20 +1,45 @@
 import React, { useEffect, useState } from "react";
-import { Users } from "lucide-react";
-import { fetchCustomers, AdminUser } from "../../lib/admin";
+import { Users, Search } from "lucide-react";
+import { searchCustomers, AdminCustomer } from "../../lib/admin";
+import { formatCurrency } from "../../utils/calculations";
+
+const PAGE_SIZE = 50;
+
+// keyset cursor of a page; the first page has none
+type Cursor = { afterName?: string; afterId?: number };
 
 const AdminCustomersPage: React.FC = () => {
-  const [rows, setRows] = useState<AdminUser[]>([]);
+  const [input, setInput] = useState("");
+  const [query, setQuery] = useState("");
+  // cursors of the pages visited so far; the last one is the page on screen
+  const [cursors, setCursors] = useState<Cursor[]>([{}]);
+  const [rows, setRows] = useState<AdminCustomer[]>([]);
+  const [next, setNext] = useState<Cursor | null>(null);
+  const [total, setTotal] = useState<number | null>(null);
   const [loading, setLoading] = useState(true);
   const [err, setErr] = useState("");
 
+  const cursor = cursors[cursors.length - 1];
+
   useEffect(() => {
     let alive = true;
     (async () => {
       try {
         setLoading(true);
         setErr("");
-        const data = await fetchCustomers();
-        if (alive) setRows(data);
+        const page = await searchCustomers({
+          q: query || undefined,
+          size: PAGE_SIZE,
+          ...cursor,
+        });
+        if (!alive) return;
+        setRows(page.items);
+        setNext(
+          page.nextAfterId != null
+            ? { afterName: page.nextAfterName ?? "", afterId: page.nextAfterId }
+            : null
+        );
+        if (page.total != null) setTotal(page.total);
       } catch (e: any) {
         if (alive)
           setErr(e?.response?.data?.message || "Failed to load customers");
@@ -25,7 +50,16 @@ const AdminCustomersPage: React.FC = () => {
     return () => {
       alive = false;
     };
-  }, []);
+  }, [query, cursor]);
+
+  const submit = (e: React.FormEvent) => {
+    e.preventDefault();
+    setQuery(input.trim());
+    setCursors([{}]);
+    setTotal(null);
+  };
+
+  const first = (cursors.length - 1) * PAGE_SIZE;
 
   return (
     <section className='space-y-6'>
@@ -34,6 +68,25 @@ const AdminCustomersPage: React.FC = () => {
         <h1 className='text-2xl font-bold text-gray-800'>Customers</h1>
       </header>
 
+      <form onSubmit={submit} className='flex gap-2'>
+        <div className='relative flex-1'>
+          <Search className='w-4 h-4 text-gray-400 absolute left-3 top-1/2 -translate-y-1/2' />
+          <input
+            type='search'
+            value={input}
+            onChange={(e) => setInput(e.target.value)}
+            placeholder='Search by name or email'
+            className='w-full pl-9 pr-3 py-2 rounded-xl border bg-white focus:outline-none focus:ring-2 focus:ring-blue-500'
+          />
+        </div>
+        <button
+          type='submit'
+          className='px-4 py-2 rounded-xl bg-blue-600 text-white font-medium hover:bg-blue-700'
+        >
+          Search
+        </button>
+      </form>
+
       {err && (
         <div className='rounded-xl border border-red-200 bg-red-50 p-4 text-red-700'>
           {err}
@@ -41,21 +94,50 @@ const AdminCustomersPage: React.FC = () => {
       )}
 
       <div className='bg-white/80 backdrop-blur-sm rounded-2xl shadow-lg border'>
-        <div className='p-4 border-b text-sm text-gray-500'>
-          Total:{" "}
-          <span className='font-medium text-gray-700'>
-            {loading ? "—" : rows.length}
+        <div className='p-4 border-b text-sm text-gray-500 flex items-center justify-between'>
+          <span>
+            Total:{" "}
+            <span className='font-medium text-gray-700'>
+              {total == null ? "—" : total}
+            </span>
+            {!loading && rows.length > 0 && (
+              <span className='ml-3'>
+                Showing {first + 1}–{first + rows.length}
+              </span>
+            )}
+          </span>
+          <span className='flex gap-2'>
+            <button
+              type='button'
+              disabled={loading || cursors.length === 1}
+              onClick={() => setCursors((c) => c.slice(0, -1))}
+              className='px-3 py-1 rounded-lg border disabled:opacity-40'
+            >
+              Previous
+            </button>
+            <button
+              type='button'
+              disabled={loading || next == null}
+              onClick={() => next && setCursors((c) => [...c, next])}
+              className='px-3 py-1 rounded-lg border disabled:opacity-40'
+            >
+              Next page
+            </button>
           </span>
         </div>
         <div className='p-4 overflow-x-auto'>
           {loading ? (
             <div className='text-gray-600 py-8'>Loading…</div>
+          ) : rows.length === 0 ? (
+            <div className='text-gray-600 py-8'>No customers found.</div>
           ) : (
             <table className='w-full'>
               <thead>
                 <tr className='text-left text-sm text-gray-600 border-b'>
                   <th className='py-2 pr-4'>Name</th>
                   <th className='py-2 pr-4'>Email</th>
+                  <th className='py-2 pr-4'>Loans</th>
+                  <th className='py-2 pr-4'>Exposure</th>
                 </tr>
               </thead>
               <tbody>
@@ -65,6 +147,12 @@ const AdminCustomersPage: React.FC = () => {
                       {c.name || "—"}
                     </td>
                     <td className='py-3 pr-4 text-gray-700'>{c.email}</td>
+                    <td className='py-3 pr-4 text-gray-700'>
+                      {c.loanCount ?? 0}
+                    </td>
+                    <td className='py-3 pr-4 text-gray-700'>
+                      {formatCurrency(c.exposure ?? 0)}
+                    </td>
                   </tr>
                 ))}
               </tbody>
@@ -66,9 +66,30 @@ export interface AdminCustomer {
   id: number;
   name: string;
   email: string;
+  loanCount?: number;
+  exposure?: number;
 }
 
-export async function fetchCustomers(): Promise<AdminCustomer[]> {
-  const { data } = await api.get("/api/admin/customers");
-  return Array.isArray(data) ? data : [];
+export interface CustomerPage {
+  items: AdminCustomer[];
+  nextAfterName: string | null;
+  nextAfterId: number | null;
+  total: number | null; // only sent with the first page
+}
+
+/** One keyset page of the customer directory; pass nextAfterName/nextAfterId back for the next page */
+export async function searchCustomers(params: {
+  q?: string;
+  match?: "PREFIX" | "CONTAINS";
+  afterName?: string;
+  afterId?: number;
+  size?: number;
+} = {}): Promise<CustomerPage> {
+  const { data } = await api.get("/api/admin/customers", { params });
+  return {
+    items: Array.isArray(data?.items) ? data.items : [],
+    nextAfterName: data?.nextAfterName ?? null,
+    nextAfterId: data?.nextAfterId ?? null,
+    total: data?.total ?? null,
+  };
 }